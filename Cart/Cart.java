@@ -1,34 +1,267 @@
 package Cart;
 
 import FoodItem.FoodItem;
+import Pricing.Money;
+import Pricing.PriceBreakdown;
+import Pricing.Promotion;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * A session's cart. Adding an item that is already in the cart with the
+ * same modifiers raises that line's quantity instead of adding a line.
+ *
+ * The subtotal (in minor units), line count and quantity are kept up to
+ * date on every change, so reading them is O(1) and allocates nothing.
+ * The price from the cart's strategy is worked out on first read and kept
+ * until the cart, its coupon code or its strategy's version changes.
+ * Carts are shared by concurrent requests of the same session.
+ *
+ * Checking out detaches the lines and coupon in one step, so two checkouts
+ * of the same cart cannot both order them, and items added while the order
+ * is being written stay in the cart. Only one checkout runs at a time.
+ */
 public class Cart {
-    private CartTotalStrategy strategy;
-    private List<CartItem> items = new ArrayList<>();
+    private CartTotalStrategy strategy = new NormalTotal();
+    // Insertion ordered, so lines keep the position of their first add
+    private final Map<LineKey, CartItem> lines = new LinkedHashMap<>();
+    private long subtotalMinor;
+    private int quantity;
+    private String couponCode;         // normalized, null for none
+    private PriceBreakdown price;      // null until read after a change
+    private long priceVersion;         // strategy version the price was worked out at
+    private Checkout checkout;         // the checkout in progress, if any
     
-    public void setStrategy(CartTotalStrategy strategy) {
+    /** The lines, coupon and price a checkout took from the cart. */
+    public static final class Checkout {
+        private final List<CartItem> items;
+        private final String couponCode;
+        private final PriceBreakdown price;
+        
+        private Checkout(List<CartItem> items, String couponCode, PriceBreakdown price) {
+            this.items = items;
+            this.couponCode = couponCode;
+            this.price = price;
+        }
+        
+        public List<CartItem> getItems() { return items; }
+        public String getCouponCode() { return couponCode; }
+        public PriceBreakdown getPrice() { return price; }
+        public boolean isEmpty() { return items.isEmpty(); }
+    }
+    
+    // Lines merge on catalog item id plus modifiers; unknown items on what they are
+    private static final class LineKey {
+        private final int itemId;
+        private final String discriminator;
+        private final int hash;
+        
+        LineKey(CartItem item) {
+            this.itemId = item.getItemId();
+            this.discriminator = itemId > 0
+                    ? item.getModifiers()
+                    : item.getModifiers() + '|' + item.getFood().getDescription();
+            this.hash = 31 * itemId + discriminator.hashCode();
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LineKey)) return false;
+            LineKey other = (LineKey) o;
+            return itemId == other.itemId && discriminator.equals(other.discriminator);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    public synchronized void setStrategy(CartTotalStrategy strategy) {
         this.strategy = strategy;
+        price = null;
+    }
+    
+    /** Sets or, with null or blank, removes the cart's coupon code. */
+    public synchronized void setCouponCode(String code) {
+        this.couponCode = Promotion.normalizeCode(code);
+        price = null;
     }
     
-    public void addItem(FoodItem food, int quantity) {
-        items.add(new CartItem(food, quantity));
+    public synchronized String getCouponCode() {
+        return couponCode;
     }
     
-    public double getTotal() {
-        double subtotal = 0;
+    public synchronized void addItem(FoodItem food, int quantity) {
+        add(new CartItem(food, quantity));
+    }
+    
+    public synchronized void addItem(FoodItem food, int quantity, int itemId, String foodType) {
+        add(new CartItem(food, quantity, itemId, foodType));
+    }
+    
+    public synchronized void addItem(FoodItem food, int quantity, int itemId, String foodType, String modifiers) {
+        add(new CartItem(food, quantity, itemId, foodType, modifiers));
+    }
+    
+    /**
+     * Adds every line, merging as {@link #addItem} does, or none of them when
+     * one is invalid or the cart's totals would overflow.
+     */
+    public synchronized void addItems(List<CartItem> items) {
         for (CartItem item : items) {
-            subtotal += item.getTotalPrice();
+            check(item);
+        }
+        long savedSubtotal = subtotalMinor;
+        int savedQuantity = quantity;
+        LineKey[] keys = new LineKey[items.size()];
+        CartItem[] replaced = new CartItem[items.size()];
+        int added = 0;
+        try {
+            for (; added < keys.length; added++) {
+                keys[added] = new LineKey(items.get(added));
+                replaced[added] = lines.get(keys[added]);
+                put(keys[added], items.get(added));
+            }
+        } catch (ArithmeticException e) {
+            // Undone newest first, so a line the batch touched twice ends as it started
+            for (int i = added - 1; i >= 0; i--) {
+                if (replaced[i] == null) {
+                    lines.remove(keys[i]);
+                } else {
+                    lines.put(keys[i], replaced[i]);
+                }
+            }
+            subtotalMinor = savedSubtotal;
+            quantity = savedQuantity;
+            throw e;
+        }
+    }
+    
+    private void add(CartItem item) {
+        check(item);
+        put(new LineKey(item), item);
+    }
+    
+    private static void check(CartItem item) {
+        if (item.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + item.getQuantity());
+        }
+        if (!item.getUnitPrice().getCurrency().equals(Money.DEFAULT_CURRENCY)) {
+            throw new IllegalArgumentException("Cart is priced in " + Money.DEFAULT_CURRENCY
+                    + ", not " + item.getUnitPrice().getCurrency());
+        }
+    }
+    
+    private void put(LineKey key, CartItem item) {
+        CartItem existing = lines.get(key);
+        // A merged line keeps the price it was first added at
+        long unitPrice = existing != null ? existing.getUnitPriceMinor() : item.getUnitPriceMinor();
+        
+        // Computed before any change so an overflowing add leaves the cart as it was
+        long newSubtotal = Math.addExact(subtotalMinor, Math.multiplyExact(unitPrice, (long) item.getQuantity()));
+        int newQuantity = Math.addExact(quantity, item.getQuantity());
+        CartItem line = existing != null
+                ? existing.withQuantity(Math.addExact(existing.getQuantity(), item.getQuantity()))
+                : item;
+        
+        lines.put(key, line);
+        subtotalMinor = newSubtotal;
+        quantity = newQuantity;
+        price = null;
+    }
+    
+    /** Subtotal, discounts, fees and tax from the cart's strategy. */
+    public synchronized PriceBreakdown getPrice() {
+        long version = strategy.getVersion();
+        if (price == null || version != priceVersion) {
+            PriceBreakdown.Builder builder = PriceBreakdown.builder(getSubtotal());
+            strategy.apply(this, builder);
+            price = builder.build();
+            priceVersion = version;
+        }
+        return price;
+    }
+    
+    /** What the customer pays: the total of {@link #getPrice()}. */
+    public synchronized Money getTotal() {
+        return getPrice().getTotal();
+    }
+    
+    /** Sum of line totals, before the strategy. */
+    public synchronized Money getSubtotal() {
+        return Money.ofMinor(subtotalMinor);
+    }
+    
+    /** Sum of line totals in minor units, before the strategy. */
+    public synchronized long getSubtotalMinor() {
+        return subtotalMinor;
+    }
+    
+    /** Number of distinct lines. */
+    public synchronized int getLineCount() {
+        return lines.size();
+    }
+    
+    /** Number of items over all lines. */
+    public synchronized int getQuantity() {
+        return quantity;
+    }
+    
+    public synchronized boolean isEmpty() {
+        return lines.isEmpty();
+    }
+    
+    /** A copy of the lines in the order they were first added. */
+    public synchronized List<CartItem> getItems() {
+        return new ArrayList<>(lines.values());
+    }
+    
+    /**
+     * Takes the lines and coupon out of the cart, priced as they stood, for an
+     * order. Returns null while another checkout of this cart is in progress.
+     * Every checkout must be finished with {@link #finishCheckout}.
+     */
+    public synchronized Checkout beginCheckout() {
+        if (checkout != null) {
+            return null;
+        }
+        checkout = new Checkout(getItems(), couponCode, getPrice());
+        clear();
+        return checkout;
+    }
+    
+    /**
+     * Ends a checkout. When the order was not placed its lines go back into
+     * the cart, merging with anything added meanwhile, and so does its coupon
+     * unless another one was set.
+     */
+    public synchronized void finishCheckout(Checkout finished, boolean placed) {
+        if (finished != checkout) {
+            throw new IllegalStateException("Not the cart's current checkout");
+        }
+        checkout = null;
+        if (!placed) {
+            addItems(finished.items);
+            if (couponCode == null) {
+                couponCode = finished.couponCode;
+                price = null;
+            }
         }
-        return strategy.calculate(subtotal);
     }
     
-    public List<CartItem> getItems() {
-        return new ArrayList<>(items);
+    public synchronized boolean isCheckingOut() {
+        return checkout != null;
     }
     
-    public void clear() {
-        items.clear();
+    public synchronized void clear() {
+        lines.clear();
+        subtotalMinor = 0;
+        quantity = 0;
+        couponCode = null;
+        price = null;
     }
 }
\ No newline at end of file
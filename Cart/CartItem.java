@@ -1,19 +1,56 @@
 package Cart;
 
 import FoodItem.FoodItem;
+import Pricing.Money;
 
+/**
+ * One cart line: a configured item and how many of it. Lines are
+ * immutable; merging a repeat add replaces the line with a bigger one, so
+ * a list returned by Cart.getItems() never changes underneath its reader.
+ */
 public class CartItem {
-    private FoodItem food;
-    private int quantity;
+    private final FoodItem food;
+    private final int quantity;
+    private final int itemId;          // catalog item id, -1 when unknown
+    private final String foodType;     // the item's category, kept with stored carts
+    private final String modifiers;    // canonical modifier key, "" for none
+    private final Money unitPrice;     // price read from the item once
     
     public CartItem(FoodItem food, int quantity) {
+        this(food, quantity, -1, null);
+    }
+    
+    public CartItem(FoodItem food, int quantity, int itemId, String foodType) {
+        this(food, quantity, itemId, foodType, "");
+    }
+    
+    public CartItem(FoodItem food, int quantity, int itemId, String foodType, String modifiers) {
+        this(food, quantity, itemId, foodType, modifiers, food.getPrice());
+    }
+    
+    private CartItem(FoodItem food, int quantity, int itemId, String foodType, String modifiers, Money unitPrice) {
         this.food = food;
         this.quantity = quantity;
+        this.itemId = itemId;
+        this.foodType = foodType;
+        this.modifiers = modifiers != null ? modifiers : "";
+        this.unitPrice = unitPrice;
+    }
+    
+    /** The same line with a different quantity; the price is not re-read. */
+    CartItem withQuantity(int newQuantity) {
+        return new CartItem(food, newQuantity, itemId, foodType, modifiers, unitPrice);
     }
     
     public FoodItem getFood() { return food; }
     public int getQuantity() { return quantity; }
-    public double getTotalPrice() { 
-        return food.getPrice() * quantity; 
+    public int getItemId() { return itemId; }
+    public String getFoodType() { return foodType; }
+    public String getModifiers() { return modifiers; }
+    public Money getUnitPrice() { return unitPrice; }
+    public long getUnitPriceMinor() { return unitPrice.getMinor(); }
+    public long getTotalMinor() { return Math.multiplyExact(unitPrice.getMinor(), (long) quantity); }
+    public Money getTotalPrice() {
+        return unitPrice.times(quantity);
     }
 }
\ No newline at end of file
@@ -1,6 +1,23 @@
 package Cart;
 
+import Pricing.PriceBreakdown;
+
+/**
+ * One step of pricing a cart: a discount, fee or tax added to the
+ * breakdown being built. Steps are combined by Pricing.PricingPipeline,
+ * which runs discounts, then fees, then tax.
+ *
+ * A step is called with the cart's lock held and must not change the cart.
+ */
 public interface CartTotalStrategy {
-    double calculate(double amount);
+    void apply(Cart cart, PriceBreakdown.Builder price);
+    
+    /**
+     * Changes whenever this step would price an unchanged cart differently,
+     * e.g. after promotions were reloaded. Carts keep their price while the
+     * version stays the same.
+     */
+    default long getVersion() {
+        return 0;
+    }
 }
-
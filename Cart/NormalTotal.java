@@ -1,7 +1,9 @@
 package Cart;
 
+import Pricing.PriceBreakdown;
+
+/** No discounts, fees or tax: the total is the subtotal. */
 public class NormalTotal implements CartTotalStrategy {
-    public double calculate(double amount) {
-        return amount;
+    public void apply(Cart cart, PriceBreakdown.Builder price) {
     }
 }
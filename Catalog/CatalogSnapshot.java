@@ -0,0 +1,153 @@
+package Catalog;
+
+import Database.FoodItemDAO.Category;
+import Database.ModifierDAO.ItemGroup;
+import FoodItem.ConfiguredItem;
+import FoodItem.FoodItemEntity;
+import FoodItem.ModifierGroup;
+import Pricing.Promotion;
+import Pricing.PromotionIndex;
+import Server.CachedResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the menu at one catalog version. Built off the request
+ * path and published atomically by {@link MenuCatalog}.
+ */
+public final class CatalogSnapshot {
+    private final long version;
+    private final long loadedAt;
+    private final IntObjectMap<FoodItemEntity> itemsById;
+    private final List<FoodItemEntity> availableItems;
+    private final List<Category> categories;
+    private final IntObjectMap<Category> categoriesById;
+    private final IntObjectMap<List<FoodItemEntity>> availableByCategory;
+    private final ItemConfigurations configurations;
+    private final CachedResponse menuResponse;
+    private final CachedResponse categoriesResponse;
+    // Rebuilt in place when a promotion starts or ends; the rest of the snapshot never changes
+    private volatile PromotionIndex promotions;
+
+    CatalogSnapshot(long version, List<FoodItemEntity> items, List<Category> categories,
+                    List<ModifierGroup> modifierGroups, List<ItemGroup> itemGroups, List<Promotion> promotions) {
+        this.version = version;
+        this.loadedAt = System.currentTimeMillis();
+
+        itemsById = new IntObjectMap<>(items.size());
+        IntObjectMap<List<FoodItemEntity>> byCategory = new IntObjectMap<>(categories.size());
+        List<FoodItemEntity> available = new ArrayList<>();
+
+        // Items arrive sorted by name, so every derived list stays sorted too
+        for (FoodItemEntity item : items) {
+            itemsById.put(item.getItemId(), item);
+            if (item.isAvailable()) {
+                available.add(item);
+                List<FoodItemEntity> categoryItems = byCategory.get(item.getCategoryId());
+                if (categoryItems == null) {
+                    categoryItems = new ArrayList<>();
+                    byCategory.put(item.getCategoryId(), categoryItems);
+                }
+                categoryItems.add(item);
+            }
+        }
+
+        availableByCategory = new IntObjectMap<>(byCategory.size());
+        byCategory.forEachValue(list ->
+                availableByCategory.put(list.get(0).getCategoryId(), Collections.unmodifiableList(list)));
+
+        categoriesById = new IntObjectMap<>(categories.size());
+        for (Category category : categories) {
+            categoriesById.put(category.getCategoryId(), category);
+        }
+
+        this.availableItems = Collections.unmodifiableList(available);
+        this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+        this.configurations = new ItemConfigurations(itemsById, modifierGroups, itemGroups);
+
+        // Rendered once per version so the list endpoints just copy bytes
+        this.menuResponse = MenuJson.renderMenu(version, this.availableItems, configurations);
+        this.categoriesResponse = MenuJson.renderCategories(version, this.categories);
+        this.promotions = PromotionIndex.compile(promotions, items, loadedAt);
+    }
+
+    public long getVersion() { return version; }
+    public long getLoadedAt() { return loadedAt; }
+
+    /** Any item by id, including unavailable ones; null when unknown. */
+    public FoodItemEntity getItem(int itemId) {
+        return itemsById.get(itemId);
+    }
+
+    /** The item's modifier groups in display order; empty when it has none. */
+    public List<ModifierGroup> getModifierGroups(int itemId) {
+        return configurations.getModifierGroups(itemId);
+    }
+
+    /**
+     * The shared configuration of an item with these modifier options.
+     * Throws IllegalArgumentException when the item is unknown or the
+     * options are not a valid choice for it.
+     */
+    public ConfiguredItem configure(int itemId, int... optionIds) {
+        return configurations.configure(itemId, optionIds);
+    }
+
+    /** Same as {@link #configure(int, int...)} for a stored modifier key such as "3,7". */
+    public ConfiguredItem configure(int itemId, String modifierKey) {
+        return configurations.configure(itemId, modifierKey);
+    }
+
+    public int getConfigurationCount() {
+        return configurations.getInternedCount();
+    }
+
+    /** Available items sorted by name. */
+    public List<FoodItemEntity> getAvailableItems() {
+        return availableItems;
+    }
+
+    /** Available items of one category sorted by name. */
+    public List<FoodItemEntity> getAvailableItems(int categoryId) {
+        List<FoodItemEntity> items = availableByCategory.get(categoryId);
+        return items != null ? items : Collections.emptyList();
+    }
+
+    /** Categories sorted by name. */
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public Category getCategory(int categoryId) {
+        return categoriesById.get(categoryId);
+    }
+
+    /** Pre-rendered /api/menu body with ETag and gzip variant. */
+    public CachedResponse getMenuResponse() {
+        return menuResponse;
+    }
+
+    /** Pre-rendered /api/categories body with ETag and gzip variant. */
+    public CachedResponse getCategoriesResponse() {
+        return categoriesResponse;
+    }
+
+    /** Promotions compiled for now; rebuilt once per start or end of a promotion. */
+    public PromotionIndex getPromotions(long now) {
+        PromotionIndex current = promotions;
+        if (now < current.getValidUntil()) {
+            return current;
+        }
+        synchronized (this) {
+            current = promotions.at(now);
+            promotions = current;
+            return current;
+        }
+    }
+
+    public int getItemCount() {
+        return itemsById.size();
+    }
+}
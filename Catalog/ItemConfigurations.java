@@ -0,0 +1,192 @@
+package Catalog;
+
+import Database.ModifierDAO.ItemGroup;
+import FoodItem.ConfiguredItem;
+import FoodItem.FoodItemEntity;
+import FoodItem.ModifierGroup;
+import FoodItem.ModifierOption;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The modifier groups of each item and the configurations customers have
+ * built from them, for one catalog snapshot.
+ *
+ * A configuration is validated once, against the item's groups and their
+ * min/max choices, then interned: asking again for the same item and
+ * options returns the same {@link ConfiguredItem} without re-checking or
+ * re-pricing. Items that need no choice have their plain configuration
+ * built up front. The pool is capped so odd combinations cannot grow it
+ * without bound; past the cap configurations are still built, just not kept.
+ */
+public final class ItemConfigurations {
+    private static final int MAX_INTERNED = Integer.getInteger("catalog.maxConfigurations", 50_000);
+
+    private final IntObjectMap<FoodItemEntity> itemsById;
+    private final IntObjectMap<List<ModifierGroup>> groupsByItem;
+    private final IntObjectMap<ModifierOption> optionsById;
+    private final IntObjectMap<ConfiguredItem> plain;
+    private final ConcurrentHashMap<Key, ConfiguredItem> interned = new ConcurrentHashMap<>();
+
+    // Item id plus ascending option ids
+    private static final class Key {
+        private final int itemId;
+        private final int[] optionIds;
+        private final int hash;
+
+        Key(int itemId, int[] optionIds) {
+            this.itemId = itemId;
+            this.optionIds = optionIds;
+            this.hash = 31 * itemId + Arrays.hashCode(optionIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return itemId == other.itemId && Arrays.equals(optionIds, other.optionIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    public ItemConfigurations(IntObjectMap<FoodItemEntity> itemsById, List<ModifierGroup> groups, List<ItemGroup> links) {
+        this.itemsById = itemsById;
+
+        IntObjectMap<ModifierGroup> groupsById = new IntObjectMap<>(groups.size());
+        int optionCount = 0;
+        for (ModifierGroup group : groups) {
+            groupsById.put(group.getGroupId(), group);
+            optionCount += group.getOptions().size();
+        }
+        optionsById = new IntObjectMap<>(optionCount);
+        for (ModifierGroup group : groups) {
+            for (ModifierOption option : group.getOptions()) {
+                optionsById.put(option.getOptionId(), option);
+            }
+        }
+
+        // Links arrive in display order per item; readers only see the read-only views
+        IntObjectMap<List<ModifierGroup>> building = new IntObjectMap<>(itemsById.size());
+        groupsByItem = new IntObjectMap<>(itemsById.size());
+        for (ItemGroup link : links) {
+            ModifierGroup group = groupsById.get(link.getGroupId());
+            if (group == null || !itemsById.containsKey(link.getItemId())) continue;
+            List<ModifierGroup> itemGroups = building.get(link.getItemId());
+            if (itemGroups == null) {
+                itemGroups = new ArrayList<>(2);
+                building.put(link.getItemId(), itemGroups);
+                groupsByItem.put(link.getItemId(), Collections.unmodifiableList(itemGroups));
+            }
+            itemGroups.add(group);
+        }
+
+        plain = new IntObjectMap<>(itemsById.size());
+        itemsById.forEachValue(item -> {
+            if (!requiresChoice(getModifierGroups(item.getItemId()))) {
+                plain.put(item.getItemId(), new ConfiguredItem(item));
+            }
+        });
+    }
+
+    /** The item's modifier groups in display order; empty when it has none. */
+    public List<ModifierGroup> getModifierGroups(int itemId) {
+        List<ModifierGroup> groups = groupsByItem.get(itemId);
+        return groups != null ? groups : Collections.emptyList();
+    }
+
+    public ModifierOption getOption(int optionId) {
+        return optionsById.get(optionId);
+    }
+
+    /**
+     * The item with these options chosen, in any order. Throws
+     * IllegalArgumentException, with a message fit for the customer, when
+     * the item is unknown or the options are not a valid choice for it.
+     */
+    public ConfiguredItem configure(int itemId, int... optionIds) {
+        if (optionIds.length == 0) {
+            ConfiguredItem configured = plain.get(itemId);
+            if (configured != null) return configured;
+        }
+        FoodItemEntity item = itemsById.get(itemId);
+        if (item == null) {
+            throw new IllegalArgumentException("Unknown menu item: " + itemId);
+        }
+
+        int[] sorted = optionIds.clone();
+        Arrays.sort(sorted);
+        Key key = new Key(itemId, sorted);
+        ConfiguredItem configured = interned.get(key);
+        if (configured != null) return configured;
+
+        configured = build(item, sorted);
+        if (interned.size() >= MAX_INTERNED) return configured;
+        ConfiguredItem raced = interned.putIfAbsent(key, configured);
+        return raced != null ? raced : configured;
+    }
+
+    /** Same as {@link #configure(int, int...)} for a stored modifier key such as "3,7". */
+    public ConfiguredItem configure(int itemId, String modifierKey) {
+        return configure(itemId, ConfiguredItem.parseModifierKey(modifierKey));
+    }
+
+    public int getInternedCount() {
+        return interned.size();
+    }
+
+    private ConfiguredItem build(FoodItemEntity item, int[] sortedIds) {
+        List<ModifierGroup> groups = getModifierGroups(item.getItemId());
+        int[] chosen = new int[groups.size()];
+        ModifierOption[] options = new ModifierOption[sortedIds.length];
+
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (i > 0 && sortedIds[i] == sortedIds[i - 1]) {
+                throw new IllegalArgumentException("Modifier option " + sortedIds[i] + " was chosen twice");
+            }
+            ModifierOption option = optionsById.get(sortedIds[i]);
+            int group = option != null ? indexOf(groups, option.getGroupId()) : -1;
+            if (group < 0) {
+                throw new IllegalArgumentException("Modifier option " + sortedIds[i] + " is not offered on " + item.getName());
+            }
+            if (!option.isAvailable()) {
+                throw new IllegalArgumentException(option.getName() + " is currently unavailable");
+            }
+            chosen[group]++;
+            options[i] = option;
+        }
+
+        for (int g = 0; g < chosen.length; g++) {
+            ModifierGroup group = groups.get(g);
+            if (chosen[g] < group.getMinSelect()) {
+                throw new IllegalArgumentException("Choose at least " + group.getMinSelect() + " from " + group.getName());
+            }
+            if (chosen[g] > group.getMaxSelect()) {
+                throw new IllegalArgumentException("Choose at most " + group.getMaxSelect() + " from " + group.getName());
+            }
+        }
+        return new ConfiguredItem(item, options);
+    }
+
+    private static int indexOf(List<ModifierGroup> groups, int groupId) {
+        for (int i = 0; i < groups.size(); i++) {
+            if (groups.get(i).getGroupId() == groupId) return i;
+        }
+        return -1;
+    }
+
+    private static boolean requiresChoice(List<ModifierGroup> groups) {
+        for (ModifierGroup group : groups) {
+            if (group.getMinSelect() > 0) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package Catalog;
+
+import Logging.Log;
+import Logging.Logger;
+import Database.FoodItemDAO;
+import Database.FoodItemDAO.Category;
+import Database.ModifierDAO;
+import Database.ModifierDAO.ItemGroup;
+import Database.PromotionDAO;
+import FoodItem.FoodItemEntity;
+import FoodItem.ModifierGroup;
+import Pricing.Promotion;
+import Pricing.PromotionIndex;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory menu cache. Reads go to the current {@link CatalogSnapshot}
+ * and never touch the database; a new snapshot is built and swapped in on
+ * explicit invalidation or when the catalog_version row changes.
+ * Modifiers and promotions are part of the snapshot, so they reload the
+ * same way.
+ */
+public class MenuCatalog {
+    private static final Logger log = Log.getLogger(MenuCatalog.class);
+    private final FoodItemDAO foodDAO;
+    private final PromotionDAO promotionDAO;   // null for a menu without promotions
+    private final ModifierDAO modifierDAO;     // null for a menu without modifiers
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile CatalogSnapshot snapshot;
+    private volatile long lastVersionCheck;
+    private ScheduledExecutorService poller;
+
+    public MenuCatalog(FoodItemDAO foodDAO) {
+        this(foodDAO, null, null);
+    }
+
+    public MenuCatalog(FoodItemDAO foodDAO, PromotionDAO promotionDAO, ModifierDAO modifierDAO) {
+        this.foodDAO = foodDAO;
+        this.promotionDAO = promotionDAO;
+        this.modifierDAO = modifierDAO;
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            reload(true);
+            current = snapshot;
+        }
+        return current;
+    }
+
+    public FoodItemEntity getItem(int itemId) {
+        CatalogSnapshot current = getSnapshot();
+        return current != null ? current.getItem(itemId) : null;
+    }
+
+    public List<FoodItemEntity> getAvailableItems() {
+        CatalogSnapshot current = getSnapshot();
+        return current != null ? current.getAvailableItems() : List.of();
+    }
+
+    public List<Category> getCategories() {
+        CatalogSnapshot current = getSnapshot();
+        return current != null ? current.getCategories() : List.of();
+    }
+
+    /** Promotions live now, compiled for cart pricing. */
+    public PromotionIndex getPromotions() {
+        CatalogSnapshot current = getSnapshot();
+        return current != null ? current.getPromotions(System.currentTimeMillis()) : PromotionIndex.EMPTY;
+    }
+
+    /** Drops the current snapshot and rebuilds it from the database now. */
+    public void invalidate() {
+        reload(false);
+    }
+
+    /** Rebuilds the snapshot only if the stored catalog version moved. */
+    public void refreshIfStale() {
+        lastVersionCheck = System.currentTimeMillis();
+        try {
+            CatalogSnapshot current = snapshot;
+            if (current == null || foodDAO.getCatalogVersion() != current.getVersion()) {
+                reload(false);
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error checking catalog version: " + e.getMessage());
+        }
+    }
+
+    /** Starts a background version check every intervalMillis. */
+    public synchronized void startPolling(long intervalMillis) {
+        if (poller != null) return;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "menu-catalog-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::refreshIfStale, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    public long getReloadCount() { return reloads.get(); }
+    public long getLastVersionCheck() { return lastVersionCheck; }
+
+    private void reload(boolean onlyIfMissing) {
+        reloadLock.lock();
+        try {
+            if (onlyIfMissing && snapshot != null) {
+                return;
+            }
+
+            // Version is read first so a concurrent edit is picked up by the next check
+            long version = foodDAO.getCatalogVersion();
+            List<FoodItemEntity> items = foodDAO.loadAllItems();
+            List<Category> categories = foodDAO.loadCategories();
+            List<ModifierGroup> modifierGroups = modifierDAO != null ? modifierDAO.loadGroups() : List.of();
+            List<ItemGroup> itemGroups = modifierDAO != null ? modifierDAO.loadItemGroups() : List.of();
+            List<Promotion> promotions = promotionDAO != null
+                    ? promotionDAO.loadPromotions(System.currentTimeMillis())
+                    : List.of();
+
+            snapshot = new CatalogSnapshot(version, items, categories, modifierGroups, itemGroups, promotions);
+            reloads.incrementAndGet();
+            // A load reads the version too, so a fresh start counts as checked
+            lastVersionCheck = System.currentTimeMillis();
+            log.info("📚 Menu catalog loaded: " + items.size() + " items, "
+                    + categories.size() + " categories, " + modifierGroups.size() + " modifier groups, "
+                    + promotions.size() + " promotions (version " + version + ")");
+        } catch (SQLException e) {
+            // Keep serving the previous snapshot
+            log.error("❌ Error loading menu catalog: " + e.getMessage());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package Catalog;
+
+import Database.FoodItemDAO.Category;
+import FoodItem.FoodItemEntity;
+import FoodItem.ModifierGroup;
+import FoodItem.ModifierOption;
+import Server.CachedResponse;
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JSON shapes of the menu endpoints. The list payloads are rendered once
+ * per catalog snapshot and served from bytes.
+ */
+public final class MenuJson {
+    private static final Gson gson = new Gson();
+
+    // Clients revalidate every time, which is a cheap 304 while the ETag holds
+    private static final String CACHE_CONTROL = "no-cache";
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private MenuJson() {}
+
+    public static Map<String, Object> toMap(FoodItemEntity item) {
+        Map<String, Object> itemMap = new LinkedHashMap<>();
+        itemMap.put("id", item.getItemId());
+        itemMap.put("name", item.getName());
+        itemMap.put("description", item.getDescription());
+        itemMap.put("price", item.getPrice().toBigDecimal());
+        itemMap.put("category", item.getCategoryName());
+        itemMap.put("available", item.isAvailable());
+        itemMap.put("vegetarian", item.isVegetarian());
+        // One picture per category for now; the frontend shows its default for items without one
+        String category = item.getCategoryName();
+        itemMap.put("imageUrl", category != null ? "/images/food/" + category.toLowerCase(Locale.ROOT) + ".jpg" : null);
+        return itemMap;
+    }
+
+    /** The item with the modifier groups a customer can choose from; unavailable options are left out. */
+    public static Map<String, Object> toMap(FoodItemEntity item, List<ModifierGroup> groups) {
+        Map<String, Object> itemMap = toMap(item);
+        if (groups.isEmpty()) return itemMap;
+
+        List<Map<String, Object>> groupMaps = new ArrayList<>(groups.size());
+        for (ModifierGroup group : groups) {
+            List<Map<String, Object>> optionMaps = new ArrayList<>(group.getOptions().size());
+            for (ModifierOption option : group.getOptions()) {
+                if (!option.isAvailable()) continue;
+                Map<String, Object> optionMap = new LinkedHashMap<>();
+                optionMap.put("id", option.getOptionId());
+                optionMap.put("name", option.getName());
+                optionMap.put("price", option.getPriceDelta().toBigDecimal());
+                optionMaps.add(optionMap);
+            }
+            Map<String, Object> groupMap = new LinkedHashMap<>();
+            groupMap.put("id", group.getGroupId());
+            groupMap.put("name", group.getName());
+            groupMap.put("minSelect", group.getMinSelect());
+            groupMap.put("maxSelect", group.getMaxSelect());
+            groupMap.put("options", optionMaps);
+            groupMaps.add(groupMap);
+        }
+        itemMap.put("modifierGroups", groupMaps);
+        return itemMap;
+    }
+
+    public static Map<String, Object> toMap(Category category) {
+        Map<String, Object> categoryMap = new LinkedHashMap<>();
+        categoryMap.put("id", category.getCategoryId());
+        categoryMap.put("name", category.getName());
+        categoryMap.put("description", category.getDescription());
+        categoryMap.put("imageUrl", category.getImageUrl());
+        return categoryMap;
+    }
+
+    static CachedResponse renderMenu(long version, List<FoodItemEntity> items, ItemConfigurations configurations) {
+        List<Map<String, Object>> responseItems = new ArrayList<>(items.size());
+        for (FoodItemEntity item : items) {
+            responseItems.add(toMap(item, configurations.getModifierGroups(item.getItemId())));
+        }
+        return render("menu-v" + version, responseItems);
+    }
+
+    static CachedResponse renderCategories(long version, List<Category> categories) {
+        List<Map<String, Object>> responseCategories = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            responseCategories.add(toMap(category));
+        }
+        return render("categories-v" + version, responseCategories);
+    }
+
+    private static CachedResponse render(String tag, Object payload) {
+        byte[] body = gson.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        return CachedResponse.of(tag, CONTENT_TYPE, CACHE_CONTROL, body);
+    }
+}
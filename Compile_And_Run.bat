@@ -10,9 +10,14 @@ javac -cp ".;lib\*" -d . Login/*.java
 javac -cp ".;lib\*" -d . Order/*.java
 javac -cp ".;lib\*" -d . FoodItem/*.java
 javac -cp ".;lib\*" -d . Cart/*.java
-javac -cp ".;lib\*" -d . Menu/*.java
+javac -cp ".;lib\*" -d . Pricing/*.java
 javac -cp ".;lib\*" -d . PlaceOrder/*.java
 javac -cp ".;lib\*" -d . User/*.java
+javac -cp ".;lib\*" -d . Server/*.java
+javac -cp ".;lib\*" -d . Catalog/*.java
+javac -cp ".;lib\*" -d . Metrics/*.java
+javac -cp ".;lib\*" -d . Logging/*.java
+javac -cp ".;lib\*" -d . LoadTest/*.java
 
 echo Running...
 java -cp ".;lib\*" Main
@@ -0,0 +1,32 @@
+package Database;
+
+/**
+ * A data change too large for one transaction. It runs in the background
+ * over key ranges of chunkSize rows, one short write transaction per chunk,
+ * and its progress is saved so it resumes after a restart.
+ */
+public final class Backfill {
+    private final String name;
+    private final String table;
+    private final String keyColumn;
+    private final String chunkSql;
+    private final int chunkSize;
+
+    /**
+     * @param chunkSql update for one range; its two parameters are the
+     *                 exclusive lower and inclusive upper key bound
+     */
+    public Backfill(String name, String table, String keyColumn, String chunkSql, int chunkSize) {
+        this.name = name;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.chunkSql = chunkSql;
+        this.chunkSize = chunkSize;
+    }
+
+    public String getName() { return name; }
+    public String getTable() { return table; }
+    public String getKeyColumn() { return keyColumn; }
+    public String getChunkSql() { return chunkSql; }
+    public int getChunkSize() { return chunkSize; }
+}
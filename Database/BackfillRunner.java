@@ -0,0 +1,139 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs {@link Backfill}s on a background thread. Each chunk holds the
+ * writer for one short transaction, then the runner pauses so orders and
+ * cart flushes can get in between chunks.
+ */
+public class BackfillRunner {
+    private static final Logger log = Log.getLogger(BackfillRunner.class);
+    private final SQLiteConnection database;
+    private final long pauseMillis;
+    private final List<Backfill> backfills = new ArrayList<>();
+    private volatile boolean running;
+    private Thread worker;
+
+    public BackfillRunner(SQLiteConnection database, long pauseMillis) {
+        this.database = database;
+        this.pauseMillis = pauseMillis;
+    }
+
+    public void register(Backfill backfill) {
+        backfills.add(backfill);
+    }
+
+    public synchronized void start() {
+        if (worker != null || backfills.isEmpty()) return;
+        running = true;
+        worker = new Thread(this::runAll, "backfill-runner");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    private void runAll() {
+        for (Backfill backfill : backfills) {
+            if (!running) return;
+            try {
+                run(backfill);
+            } catch (SQLException e) {
+                // Progress is saved per chunk, so the next start resumes here
+                log.error("❌ Backfill " + backfill.getName() + " stopped: " + e.getMessage());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void run(Backfill backfill) throws SQLException, InterruptedException {
+        long lastKey;
+        try (Connection conn = database.getWriteConnection("BackfillRunner.run");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO backfill_progress (name) VALUES (?)")) {
+            stmt.setString(1, backfill.getName());
+            stmt.executeUpdate();
+        }
+        try (Connection conn = database.getReadConnection("BackfillRunner.run");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT last_key, done FROM backfill_progress WHERE name = ?")) {
+            stmt.setString(1, backfill.getName());
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next() || rs.getBoolean("done")) {
+                return;
+            }
+            lastKey = rs.getLong("last_key");
+        }
+
+        // Rows added after this point are written in their final shape
+        long maxKey;
+        try (Connection conn = database.getReadConnection("BackfillRunner.run");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COALESCE(MAX(" + backfill.getKeyColumn() + "), 0) FROM " + backfill.getTable())) {
+            maxKey = rs.next() ? rs.getLong(1) : 0;
+        }
+
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        log.info("🔁 Backfill " + backfill.getName() + " starting at key " + lastKey + " of " + maxKey);
+
+        while (lastKey < maxKey) {
+            if (!running) return;
+            long upperKey = Math.min(lastKey + backfill.getChunkSize(), maxKey);
+            rows += runChunk(backfill, lastKey, upperKey, false);
+            lastKey = upperKey;
+            Thread.sleep(pauseMillis);
+        }
+        runChunk(backfill, lastKey, lastKey, true);
+
+        log.info("✅ Backfill " + backfill.getName() + " finished: " + rows + " rows in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private int runChunk(Backfill backfill, long fromKey, long toKey, boolean done) throws SQLException {
+        Connection conn = database.getWriteConnection("BackfillRunner.runChunk");
+        try {
+            conn.setAutoCommit(false);
+            int rows = 0;
+            if (toKey > fromKey) {
+                try (PreparedStatement stmt = conn.prepareStatement(backfill.getChunkSql())) {
+                    stmt.setLong(1, fromKey);
+                    stmt.setLong(2, toKey);
+                    rows = stmt.executeUpdate();
+                }
+            }
+            try (PreparedStatement progress = conn.prepareStatement(
+                    "UPDATE backfill_progress SET last_key = ?, done = ?, updated_at = CURRENT_TIMESTAMP WHERE name = ?")) {
+                progress.setLong(1, toKey);
+                progress.setBoolean(2, done);
+                progress.setString(3, backfill.getName());
+                progress.executeUpdate();
+            }
+            conn.commit();
+            return rows;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+            conn.close();
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import Cart.Cart;
+import Cart.CartItem;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persists session carts to the carts/cart_items tables.
+ *
+ * Writes are write-behind: markDirty() only records that a cart changed,
+ * repeated changes to the same cart coalesce, and a flusher thread writes
+ * every dirty cart in a single transaction every flushIntervalMillis.
+ * Carts of sessions that ended are deleted in the same transaction.
+ *
+ * Each cart is stored with its session's creation time, and updated_at is
+ * the last change, so a restore can tell whether the session would still
+ * be inside its TTLs.
+ */
+public class CartRepository {
+    private static final Logger log = Log.getLogger(CartRepository.class);
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
+    private final Map<String, PendingCart> dirty = new ConcurrentHashMap<>();
+    // Carts claimed by the running flush, readable by load() until their transaction commits
+    private final Map<String, PendingCart> inFlight = new ConcurrentHashMap<>();
+    // Ended sessions whose rows are still to be deleted; they stay here until the delete commits
+    private final Set<String> discarded = ConcurrentHashMap.newKeySet();
+    private final long flushIntervalMillis;
+    private final long retentionMillis;
+    private ScheduledExecutorService flusher;
+    private long lastPurge = System.currentTimeMillis();
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder cartsWritten = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    /** A cart as stored in the database. */
+    public static class StoredCart {
+        private final String sessionId;
+        private final String username;
+        private final long sessionCreatedAt;   // 0 for carts stored before it was recorded
+        private final long updatedAt;
+        private final String couponCode;
+        private final List<StoredItem> items;
+
+        public StoredCart(String sessionId, String username, long sessionCreatedAt, long updatedAt,
+                          String couponCode, List<StoredItem> items) {
+            this.sessionId = sessionId;
+            this.username = username;
+            this.sessionCreatedAt = sessionCreatedAt;
+            this.updatedAt = updatedAt;
+            this.couponCode = couponCode;
+            this.items = items;
+        }
+
+        public String getSessionId() { return sessionId; }
+        public String getUsername() { return username; }
+        public long getSessionCreatedAt() { return sessionCreatedAt; }
+        public long getUpdatedAt() { return updatedAt; }
+        public String getCouponCode() { return couponCode; }
+        public List<StoredItem> getItems() { return items; }
+    }
+
+    public static class StoredItem {
+        private final int itemId;
+        private final String foodType;
+        private final int quantity;
+        private final String modifiers;
+
+        public StoredItem(int itemId, String foodType, int quantity, String modifiers) {
+            this.itemId = itemId;
+            this.foodType = foodType;
+            this.quantity = quantity;
+            this.modifiers = modifiers;
+        }
+
+        public int getItemId() { return itemId; }
+        public String getFoodType() { return foodType; }
+        public int getQuantity() { return quantity; }
+        public String getModifiers() { return modifiers; }
+    }
+
+    private static class PendingCart {
+        private final String username;
+        private final long sessionCreatedAt;
+        private final Cart cart;
+        private final long markedAt;
+
+        PendingCart(String username, long sessionCreatedAt, Cart cart, long markedAt) {
+            this.username = username;
+            this.sessionCreatedAt = sessionCreatedAt;
+            this.cart = cart;
+            this.markedAt = markedAt;
+        }
+    }
+
+    public CartRepository(long flushIntervalMillis, long retentionMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /** Schedules the cart for the next flush; its contents are read at flush time. */
+    public void markDirty(String sessionId, String username, long sessionCreatedAt, Cart cart) {
+        discarded.remove(sessionId);
+        dirty.put(sessionId, new PendingCart(username, sessionCreatedAt, cart, System.currentTimeMillis()));
+    }
+
+    /** Drops the cart of a session that ended; its rows are deleted on the next flush. */
+    public void discard(String sessionId) {
+        discarded.add(sessionId);
+        dirty.remove(sessionId);
+    }
+
+    /** Loads a persisted cart, or null if the session has none. */
+    public StoredCart load(String sessionId) {
+        if (discarded.contains(sessionId)) {
+            return null;
+        }
+        // A cart that has not been flushed yet is newer than the database copy
+        PendingCart pending = dirty.get(sessionId);
+        if (pending == null) {
+            pending = inFlight.get(sessionId);
+        }
+        if (pending != null) {
+            return toStored(sessionId, pending);
+        }
+
+        String cartSql = "SELECT username, session_created_at, updated_at, coupon_code FROM carts WHERE session_id = ?";
+        String itemSql = """
+            SELECT item_id, food_type, quantity, modifiers
+            FROM cart_items
+            WHERE session_id = ?
+            ORDER BY position
+            """;
+
+        try (Connection conn = database.getReadConnection("CartRepository.load");
+             PreparedStatement cartStmt = conn.prepareStatement(cartSql);
+             PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+            cartStmt.setString(1, sessionId);
+            ResultSet rs = cartStmt.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            String username = rs.getString("username");
+            long sessionCreatedAt = rs.getLong("session_created_at");
+            long updatedAt = rs.getLong("updated_at");
+            String couponCode = rs.getString("coupon_code");
+
+            List<StoredItem> items = new ArrayList<>();
+            itemStmt.setString(1, sessionId);
+            ResultSet itemRs = itemStmt.executeQuery();
+            while (itemRs.next()) {
+                items.add(new StoredItem(
+                    itemRs.getInt("item_id"),
+                    itemRs.getString("food_type"),
+                    itemRs.getInt("quantity"),
+                    itemRs.getString("modifiers")
+                ));
+            }
+            return new StoredCart(sessionId, username, sessionCreatedAt, updatedAt, couponCode, items);
+        } catch (SQLException e) {
+            log.error("❌ Error loading cart: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Writes every dirty cart in one transaction. */
+    public void flush() {
+        if (dirty.isEmpty() && discarded.isEmpty()) {
+            purgeExpired();
+            return;
+        }
+
+        // Claim the current batch; carts changed from here on land in the next one.
+        // A claim only removes the entry it read, so a newer markDirty() stays
+        // queued, and the claimed cart stays visible to load() through inFlight.
+        List<String> sessionIds = new ArrayList<>();
+        List<PendingCart> claimed = new ArrayList<>();
+        List<StoredCart> batch = new ArrayList<>();
+        for (Map.Entry<String, PendingCart> entry : dirty.entrySet()) {
+            String sessionId = entry.getKey();
+            PendingCart pending = entry.getValue();
+            inFlight.put(sessionId, pending);
+            if (!dirty.remove(sessionId, pending)) {
+                inFlight.remove(sessionId, pending);
+                continue;
+            }
+            sessionIds.add(sessionId);
+            claimed.add(pending);
+            batch.add(toStored(sessionId, pending));
+        }
+        List<String> deletions = new ArrayList<>(discarded);
+
+        String upsertCartSql = """
+            INSERT INTO carts (session_id, username, session_created_at, updated_at, coupon_code) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT(session_id) DO UPDATE SET updated_at = excluded.updated_at, coupon_code = excluded.coupon_code,
+                session_created_at = COALESCE(carts.session_created_at, excluded.session_created_at)
+            """;
+        // cart_items go with their cart through ON DELETE CASCADE
+        String deleteCartSql = "DELETE FROM carts WHERE session_id = ?";
+        String deleteItemsSql = "DELETE FROM cart_items WHERE session_id = ?";
+        String insertItemSql = """
+            INSERT INTO cart_items (session_id, position, item_id, food_type, quantity, modifiers)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+        Connection conn = null;
+        try {
+            conn = database.getWriteConnection("CartRepository.flush");
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement upsertCart = conn.prepareStatement(upsertCartSql);
+                 PreparedStatement deleteItems = conn.prepareStatement(deleteItemsSql);
+                 PreparedStatement insertItem = conn.prepareStatement(insertItemSql);
+                 PreparedStatement deleteCart = conn.prepareStatement(deleteCartSql)) {
+                for (StoredCart cart : batch) {
+                    upsertCart.setString(1, cart.getSessionId());
+                    upsertCart.setString(2, cart.getUsername());
+                    upsertCart.setLong(3, cart.getSessionCreatedAt());
+                    upsertCart.setLong(4, cart.getUpdatedAt());
+                    upsertCart.setString(5, cart.getCouponCode());
+                    upsertCart.addBatch();
+
+                    deleteItems.setString(1, cart.getSessionId());
+                    deleteItems.addBatch();
+
+                    int position = 0;
+                    for (StoredItem item : cart.getItems()) {
+                        insertItem.setString(1, cart.getSessionId());
+                        insertItem.setInt(2, position++);
+                        insertItem.setInt(3, item.getItemId());
+                        insertItem.setString(4, item.getFoodType());
+                        insertItem.setInt(5, item.getQuantity());
+                        insertItem.setString(6, item.getModifiers());
+                        insertItem.addBatch();
+                    }
+                }
+                for (String sessionId : deletions) {
+                    deleteCart.setString(1, sessionId);
+                    deleteCart.addBatch();
+                }
+                upsertCart.executeBatch();
+                deleteItems.executeBatch();
+                insertItem.executeBatch();
+                deleteCart.executeBatch();
+            }
+
+            conn.commit();
+            for (int i = 0; i < sessionIds.size(); i++) {
+                inFlight.remove(sessionIds.get(i), claimed.get(i));
+            }
+            discarded.removeAll(deletions);
+            flushes.increment();
+            cartsWritten.add(batch.size());
+        } catch (SQLException e) {
+            log.error("❌ Error flushing carts: " + e.getMessage());
+            failedFlushes.increment();
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                log.error("❌ Error rolling back: " + ex.getMessage());
+            }
+            // Retry on the next tick unless the cart changed again or its session ended meanwhile
+            for (int i = 0; i < sessionIds.size(); i++) {
+                String sessionId = sessionIds.get(i);
+                if (!discarded.contains(sessionId)) {
+                    dirty.putIfAbsent(sessionId, claimed.get(i));
+                }
+                inFlight.remove(sessionId, claimed.get(i));
+            }
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.error("❌ Error returning connection: " + e.getMessage());
+            }
+        }
+
+        purgeExpired();
+    }
+
+    public synchronized void start() {
+        if (flusher != null) return;
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cart-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops the flusher and writes whatever is still pending. */
+    public synchronized void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        flush();
+    }
+
+    public int getPendingCount() { return dirty.size(); }
+    public long getFlushCount() { return flushes.sum(); }
+    public long getCartsWritten() { return cartsWritten.sum(); }
+    public long getFailedFlushCount() { return failedFlushes.sum(); }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            log.error("❌ Cart flush failed: " + e.getMessage());
+        }
+    }
+
+    // Carts of sessions that can no longer be valid are dropped once a minute
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < TimeUnit.MINUTES.toMillis(1)) {
+            return;
+        }
+        lastPurge = now;
+
+        try (Connection conn = database.getWriteConnection("CartRepository.purgeExpired");
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM carts WHERE updated_at < ?")) {
+            stmt.setLong(1, now - retentionMillis);
+            int purged = stmt.executeUpdate();
+            if (purged > 0) {
+                log.info("🧹 Purged " + purged + " expired carts");
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error purging carts: " + e.getMessage());
+        }
+    }
+
+    private static StoredCart toStored(String sessionId, PendingCart pending) {
+        List<StoredItem> items = new ArrayList<>();
+        String couponCode;
+        // Lines and coupon from the same cart state
+        synchronized (pending.cart) {
+            for (CartItem item : pending.cart.getItems()) {
+                items.add(new StoredItem(item.getItemId(), item.getFoodType(), item.getQuantity(), item.getModifiers()));
+            }
+            couponCode = pending.cart.getCouponCode();
+        }
+        return new StoredCart(sessionId, pending.username, pending.sessionCreatedAt, pending.markedAt, couponCode, items);
+    }
+}
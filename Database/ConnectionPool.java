@@ -0,0 +1,309 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fixed-size pool of SQLite connections: one writer plus N read-only readers
+ * against the same database file.
+ *
+ * Borrowed connections are returned by calling close() on them, so DAOs use
+ * plain try-with-resources. Waiting is done on blocking queues rather than
+ * monitors so virtual threads park instead of pinning their carrier.
+ */
+public class ConnectionPool {
+    private static final Logger log = Log.getLogger(ConnectionPool.class);
+    // SQLite open flags understood by the xerial driver (SQLITE_OPEN_READONLY)
+    private static final String OPEN_MODE_READ_ONLY = "1";
+    // Capture each borrower's stack for leak reports, e.g. -Ddb.pool.leakTrace=true; off by
+    // default since it costs a stack walk per borrow. Reports always name the thread and operation
+    private static final boolean LEAK_TRACE = Boolean.getBoolean("db.pool.leakTrace");
+
+    private final String url;
+    private final StorageProfile profile;
+    private final long maxWaitMillis;
+    private final long leakThresholdMillis;
+    private final long validationIntervalMillis;
+
+    private final BlockingQueue<PooledConnection> writer = new ArrayBlockingQueue<>(1);
+    private final BlockingQueue<PooledConnection> readers;
+    private final int readerCount;
+    private final Set<Lease> active = ConcurrentHashMap.newKeySet();
+    private final PoolMetrics metrics = new PoolMetrics();
+    private final ScheduledExecutorService leakDetector;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, StorageProfile profile, int readerCount, long maxWaitMillis,
+                          long leakThresholdMillis, long validationIntervalMillis) throws SQLException {
+        this.url = url;
+        this.profile = profile;
+        this.readerCount = Math.max(1, readerCount);
+        this.maxWaitMillis = maxWaitMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.readers = new ArrayBlockingQueue<>(this.readerCount);
+
+        // The writer opens first so the file exists and is in WAL mode before readers attach
+        writer.add(new PooledConnection(openConnection(false), false));
+        for (int i = 0; i < this.readerCount; i++) {
+            readers.add(new PooledConnection(openConnection(true), true));
+        }
+
+        leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-leak-detector");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, leakThresholdMillis / 2);
+        leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Borrows a read-only connection. Close it to return it to the pool. */
+    public Connection getReadConnection() throws SQLException {
+        return borrow(readers, "read", null);
+    }
+
+    /** Borrows a read-only connection, timing how long it is held under the operation's name. */
+    public Connection getReadConnection(String operation) throws SQLException {
+        return borrow(readers, "read", operation);
+    }
+
+    /** Borrows the single writer connection. Close it to return it to the pool. */
+    public Connection getWriteConnection() throws SQLException {
+        return borrow(writer, "write", null);
+    }
+
+    /** Borrows the writer connection, timing how long it is held under the operation's name. */
+    public Connection getWriteConnection(String operation) throws SQLException {
+        return borrow(writer, "write", operation);
+    }
+
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getReaderCount() {
+        return readerCount;
+    }
+
+    public int getIdleReaders() {
+        return readers.size();
+    }
+
+    public boolean isWriterIdle() {
+        return !writer.isEmpty();
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    private Connection borrow(BlockingQueue<PooledConnection> queue, String kind, String operation) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        PooledConnection pooled;
+        try {
+            pooled = queue.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for " + kind + " connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        metrics.recordWait(waited);
+
+        if (pooled == null) {
+            metrics.recordTimeout();
+            throw new SQLException("Timed out after " + maxWaitMillis + "ms waiting for " + kind + " connection");
+        }
+
+        try {
+            validate(pooled);
+        } catch (SQLException e) {
+            queue.offer(pooled);
+            throw e;
+        }
+
+        Lease lease = new Lease(pooled, queue, kind, operation);
+        active.add(lease);
+        metrics.recordBorrow();
+        return lease.proxy;
+    }
+
+    // Health check: idle connections are re-validated before being handed out
+    private void validate(PooledConnection pooled) throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - pooled.lastValidated < validationIntervalMillis) {
+            return;
+        }
+
+        boolean healthy;
+        try {
+            healthy = !pooled.connection.isClosed() && pooled.connection.isValid(1);
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (!healthy) {
+            log.warn("⚠️  Replacing broken " + (pooled.readOnly ? "read" : "write") + " connection");
+            metrics.recordReplaced();
+            closeQuietly(pooled.connection);
+            pooled.connection = openConnection(pooled.readOnly);
+        }
+        pooled.lastValidated = now;
+    }
+
+    private void release(Lease lease) {
+        active.remove(lease);
+        PooledConnection pooled = lease.pooled;
+        metrics.recordRelease(lease.operation, System.nanoTime() - lease.borrowedAtNanos);
+
+        try {
+            // Never hand an open transaction to the next borrower
+            if (!pooled.connection.getAutoCommit()) {
+                log.warn("⚠️  Connection returned with open transaction, rolling back");
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            pooled.lastValidated = 0;
+        }
+
+        if (closed) {
+            closeQuietly(pooled.connection);
+        } else {
+            lease.home.offer(pooled);
+        }
+    }
+
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (Lease lease : active) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - lease.borrowedAtNanos);
+            if (heldMillis > leakThresholdMillis && lease.reported.compareAndSet(false, true)) {
+                metrics.recordLeak();
+                log.warn("⚠️  Possible connection leak: " + lease.kind + " connection held for "
+                        + heldMillis + "ms by " + lease.threadName
+                        + (lease.operation != null ? " in " + lease.operation : ""), lease.borrowSite);
+            }
+        }
+    }
+
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Properties props = new Properties();
+        if (readOnly) {
+            props.setProperty("open_mode", OPEN_MODE_READ_ONLY);
+        }
+        Connection conn = DriverManager.getConnection(url, props);
+        try {
+            profile.applyTo(conn, readOnly);
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        return conn;
+    }
+
+    public void close() {
+        closed = true;
+        leakDetector.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = readers.poll()) != null) {
+            closeQuietly(pooled.connection);
+        }
+        while ((pooled = writer.poll()) != null) {
+            closeQuietly(pooled.connection);
+        }
+        // Connections still borrowed are closed as they are returned
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            log.error("❌ Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private static class PooledConnection {
+        private Connection connection;
+        private final boolean readOnly;
+        private long lastValidated = System.currentTimeMillis();
+
+        PooledConnection(Connection connection, boolean readOnly) {
+            this.connection = connection;
+            this.readOnly = readOnly;
+        }
+    }
+
+    // One borrow of a pooled connection; the proxy becomes unusable once returned
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final BlockingQueue<PooledConnection> home;
+        private final String kind;
+        private final String operation;
+        private final long borrowedAtNanos = System.nanoTime();
+        private final String threadName = Thread.currentThread().getName();
+        private final Throwable borrowSite = LEAK_TRACE ? new Throwable("Connection borrowed here") : null;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final AtomicBoolean reported = new AtomicBoolean();
+        private final Connection proxy;
+
+        Lease(PooledConnection pooled, BlockingQueue<PooledConnection> home, String kind, String operation) {
+            this.pooled = pooled;
+            this.home = home;
+            this.kind = kind;
+            this.operation = operation;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return released.get() || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + kind + "Connection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+
+            if (released.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
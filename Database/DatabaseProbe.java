@@ -0,0 +1,82 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A SELECT 1 round trip through the pool, run at most once per interval.
+ *
+ * Health checks can be polled as often as the load balancer likes: callers
+ * inside the interval, or while a probe is already running, get the last
+ * result instead of another query.
+ */
+public class DatabaseProbe {
+    private static final Logger log = Log.getLogger(DatabaseProbe.class);
+    private final SQLiteConnection database;
+    private final long minIntervalMillis;
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile Result last = new Result(false, 0, 0, "Not probed yet");
+
+    /** Outcome of one probe. */
+    public static class Result {
+        private final boolean healthy;
+        private final long checkedAt;
+        private final long latencyMicros;
+        private final String error;
+
+        Result(boolean healthy, long checkedAt, long latencyMicros, String error) {
+            this.healthy = healthy;
+            this.checkedAt = checkedAt;
+            this.latencyMicros = latencyMicros;
+            this.error = error;
+        }
+
+        public boolean isHealthy() { return healthy; }
+        public long getCheckedAt() { return checkedAt; }
+        public long getLatencyMicros() { return latencyMicros; }
+        public String getError() { return error; }
+    }
+
+    public DatabaseProbe(SQLiteConnection database, long minIntervalMillis) {
+        this.database = database;
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    public Result check() {
+        Result current = last;
+        if (System.currentTimeMillis() - current.checkedAt < minIntervalMillis) {
+            return current;
+        }
+        if (!probing.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            last = probe();
+            return last;
+        } finally {
+            probing.set(false);
+        }
+    }
+
+    private Result probe() {
+        long start = System.nanoTime();
+        try (Connection conn = database.getReadConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(1);
+            stmt.executeQuery("SELECT 1").close();
+            return new Result(true, System.currentTimeMillis(), elapsedMicros(start), null);
+        } catch (SQLException e) {
+            log.warn("⚠️  Database probe failed: " + e.getMessage());
+            return new Result(false, System.currentTimeMillis(), elapsedMicros(start), e.getMessage());
+        }
+    }
+
+    private static long elapsedMicros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+}
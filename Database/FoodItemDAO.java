@@ -1,16 +1,16 @@
 package Database;
 
+import Logging.Log;
+import Logging.Logger;
 import FoodItem.FoodItemEntity;
+import Pricing.Money;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class FoodItemDAO {
-    private Connection connection;
-    
-    public FoodItemDAO() {
-        connection = SQLiteConnection.getInstance().getConnection();
-    }
+    private static final Logger log = Log.getLogger(FoodItemDAO.class);
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
     
     public static class Category {
         private int categoryId;
@@ -34,14 +34,15 @@ public class FoodItemDAO {
     public List<FoodItemEntity> getAllAvailableItems() {
         List<FoodItemEntity> items = new ArrayList<>();
         String sql = """
-            SELECT fi.*, c.name as category_name 
-            FROM food_items fi 
-            JOIN categories c ON fi.category_id = c.category_id 
-            WHERE fi.available = 1 
+            SELECT fi.*, c.name as category_name
+            FROM food_items fi
+            JOIN categories c ON fi.category_id = c.category_id
+            WHERE fi.available = 1
             ORDER BY fi.name
             """;
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection conn = database.getReadConnection("FoodItemDAO.getAllAvailableItems");
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -51,27 +52,28 @@ public class FoodItemDAO {
                     rs.getString("description"),
                     rs.getInt("category_id"),
                     rs.getString("category_name"),
-                    rs.getDouble("price"),
+                    Money.ofMajor(rs.getDouble("price")),
                     rs.getBoolean("available"),
                     rs.getBoolean("vegetarian")
                 );
                 items.add(item);
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting food items: " + e.getMessage());
+            log.error("❌ Error getting food items: " + e.getMessage());
         }
         return items;
     }
     
     public FoodItemEntity getItemById(int itemId) {
         String sql = """
-            SELECT fi.*, c.name as category_name 
-            FROM food_items fi 
-            JOIN categories c ON fi.category_id = c.category_id 
+            SELECT fi.*, c.name as category_name
+            FROM food_items fi
+            JOIN categories c ON fi.category_id = c.category_id
             WHERE fi.item_id = ?
             """;
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = database.getReadConnection("FoodItemDAO.getItemById");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, itemId);
             ResultSet rs = pstmt.executeQuery();
             
@@ -82,13 +84,13 @@ public class FoodItemDAO {
                     rs.getString("description"),
                     rs.getInt("category_id"),
                     rs.getString("category_name"),
-                    rs.getDouble("price"),
+                    Money.ofMajor(rs.getDouble("price")),
                     rs.getBoolean("available"),
                     rs.getBoolean("vegetarian")
                 );
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting item by ID: " + e.getMessage());
+            log.error("❌ Error getting item by ID: " + e.getMessage());
         }
         return null;
     }
@@ -97,7 +99,8 @@ public class FoodItemDAO {
         List<Category> categories = new ArrayList<>();
         String sql = "SELECT * FROM categories ORDER BY name";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection conn = database.getReadConnection("FoodItemDAO.getAllCategories");
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
@@ -110,8 +113,71 @@ public class FoodItemDAO {
                 categories.add(category);
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting categories: " + e.getMessage());
+            log.error("❌ Error getting categories: " + e.getMessage());
         }
         return categories;
     }
-}
\ No newline at end of file
+    
+    // Catalog loading: these throw instead of returning an empty list so the
+    // menu cache can keep serving its previous snapshot when a reload fails
+    
+    public List<FoodItemEntity> loadAllItems() throws SQLException {
+        List<FoodItemEntity> items = new ArrayList<>();
+        String sql = """
+            SELECT fi.*, c.name as category_name
+            FROM food_items fi
+            JOIN categories c ON fi.category_id = c.category_id
+            ORDER BY fi.name
+            """;
+        
+        try (Connection conn = database.getReadConnection("FoodItemDAO.loadAllItems");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                items.add(new FoodItemEntity(
+                    rs.getInt("item_id"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getInt("category_id"),
+                    rs.getString("category_name"),
+                    Money.ofMajor(rs.getDouble("price")),
+                    rs.getBoolean("available"),
+                    rs.getBoolean("vegetarian")
+                ));
+            }
+        }
+        return items;
+    }
+    
+    public List<Category> loadCategories() throws SQLException {
+        List<Category> categories = new ArrayList<>();
+        String sql = "SELECT * FROM categories ORDER BY name";
+        
+        try (Connection conn = database.getReadConnection("FoodItemDAO.loadCategories");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                categories.add(new Category(
+                    rs.getInt("category_id"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getString("image_url")
+                ));
+            }
+        }
+        return categories;
+    }
+    
+    /** Bumped by triggers on food_items and categories; see DatabaseInitializer. */
+    public long getCatalogVersion() throws SQLException {
+        String sql = "SELECT version FROM catalog_version WHERE id = 1";
+        
+        try (Connection conn = database.getReadConnection("FoodItemDAO.getCatalogVersion");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
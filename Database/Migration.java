@@ -0,0 +1,30 @@
+package Database;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/** One numbered schema change, applied at most once per database. */
+public final class Migration {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Statement stmt) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final Step step;
+
+    public Migration(int version, String description, Step step) {
+        this.version = version;
+        this.description = description;
+        this.step = step;
+    }
+
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+
+    void apply(Statement stmt) throws SQLException {
+        step.apply(stmt);
+    }
+}
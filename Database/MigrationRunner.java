@@ -0,0 +1,101 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Applies pending {@link Migration}s in version order, each in its own
+ * transaction. The applied version is kept in PRAGMA user_version, so an
+ * up-to-date database is recognised with a single header read and no DDL.
+ * The schema_version table keeps the history.
+ */
+public class MigrationRunner {
+    private static final Logger log = Log.getLogger(MigrationRunner.class);
+    private final SQLiteConnection database;
+
+    public MigrationRunner(SQLiteConnection database) {
+        this.database = database;
+    }
+
+    /** Migrates to the newest version and returns it. */
+    public int migrate(List<Migration> migrations) throws SQLException {
+        List<Migration> ordered = new ArrayList<>(migrations);
+        ordered.sort(Comparator.comparingInt(Migration::getVersion));
+        int latest = ordered.isEmpty() ? 0 : ordered.get(ordered.size() - 1).getVersion();
+
+        try (Connection conn = database.getWriteConnection()) {
+            int current = getSchemaVersion(conn);
+            if (current >= latest) {
+                log.info("✅ Database schema is up to date (v" + current + ")");
+                return current;
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                """);
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS backfill_progress (
+                        name TEXT PRIMARY KEY,
+                        last_key INTEGER NOT NULL DEFAULT 0,
+                        done BOOLEAN NOT NULL DEFAULT 0,
+                        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                """);
+            }
+
+            for (Migration migration : ordered) {
+                if (migration.getVersion() <= current) {
+                    continue;
+                }
+                apply(conn, migration);
+                current = migration.getVersion();
+            }
+            return current;
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT OR REPLACE INTO schema_version (version, description) VALUES (?, ?)")) {
+            migration.apply(stmt);
+
+            record.setInt(1, migration.getVersion());
+            record.setString(2, migration.getDescription());
+            record.executeUpdate();
+            // user_version lives in the database header and commits with the migration
+            stmt.execute("PRAGMA user_version = " + migration.getVersion());
+
+            conn.commit();
+            log.info("🛠️  Applied migration v" + migration.getVersion() + ": "
+                    + migration.getDescription() + " (" + (System.currentTimeMillis() - start) + "ms)");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration v" + migration.getVersion() + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static int getSchemaVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
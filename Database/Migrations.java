@@ -0,0 +1,352 @@
+package Database;
+
+import Pricing.Money;
+
+import java.util.List;
+
+/**
+ * Every schema change, in order. Append new entries with the next version
+ * number; never edit a migration that has shipped.
+ *
+ * Versions 1-4 match what DatabaseInitializer used to create on every boot
+ * and use IF NOT EXISTS, so databases from before versioning upgrade cleanly.
+ */
+public final class Migrations {
+
+    private Migrations() {}
+
+    public static List<Migration> all() {
+        return List.of(
+            new Migration(1, "Baseline schema and seed data", stmt -> {
+                // Create users table
+                String createUsersTable = """
+                    CREATE TABLE IF NOT EXISTS users (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        username TEXT UNIQUE NOT NULL,
+                        password_hash TEXT NOT NULL,
+                        email TEXT UNIQUE,
+                        full_name TEXT,
+                        phone TEXT,
+                        role TEXT DEFAULT 'CUSTOMER',
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        is_active BOOLEAN DEFAULT 1
+                    )
+                """;
+                stmt.execute(createUsersTable);
+            
+                // Create categories table
+                String createCategoriesTable = """
+                    CREATE TABLE IF NOT EXISTS categories (
+                        category_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT UNIQUE NOT NULL,
+                        description TEXT,
+                        image_url TEXT
+                    )
+                """;
+                stmt.execute(createCategoriesTable);
+            
+                // Create food_items table
+                String createFoodItemsTable = """
+                    CREATE TABLE IF NOT EXISTS food_items (
+                        item_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        description TEXT,
+                        category_id INTEGER,
+                        price REAL NOT NULL,
+                        available BOOLEAN DEFAULT 1,
+                        vegetarian BOOLEAN DEFAULT 0,
+                        image_url TEXT,
+                        FOREIGN KEY (category_id) REFERENCES categories(category_id)
+                    )
+                """;
+                stmt.execute(createFoodItemsTable);
+            
+                // Create orders table
+                String createOrdersTable = """
+                    CREATE TABLE IF NOT EXISTS orders (
+                        order_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        username TEXT NOT NULL,
+                        total_amount REAL NOT NULL,
+                        status TEXT DEFAULT 'PENDING',
+                        delivery_address TEXT NOT NULL,
+                        phone_number TEXT,
+                        payment_method TEXT DEFAULT 'Cash on Delivery',
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        FOREIGN KEY (username) REFERENCES users(username)
+                    )
+                """;
+                stmt.execute(createOrdersTable);
+            
+                // Create order_items table
+                String createOrderItemsTable = """
+                    CREATE TABLE IF NOT EXISTS order_items (
+                        order_item_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        order_id INTEGER NOT NULL,
+                        item_id INTEGER NOT NULL,
+                        quantity INTEGER NOT NULL,
+                        price_per_unit REAL NOT NULL,
+                        FOREIGN KEY (order_id) REFERENCES orders(order_id),
+                        FOREIGN KEY (item_id) REFERENCES food_items(item_id)
+                    )
+                """;
+                stmt.execute(createOrderItemsTable);
+            
+                // Insert default categories
+                String insertCategories = """
+                    INSERT OR IGNORE INTO categories (category_id, name, description, image_url) VALUES
+                    (1, 'Pizza', 'Delicious pizzas with various toppings', '/images/categories/pizza.jpg'),
+                    (2, 'Burger', 'Juicy burgers with fresh ingredients', '/images/categories/burger.jpg'),
+                    (3, 'Pasta', 'Creamy and delicious pasta dishes', '/images/categories/pasta.jpg'),
+                    (4, 'Sushi', 'Fresh and authentic Japanese sushi', '/images/categories/sushi.jpg'),
+                    (5, 'Salad', 'Healthy and fresh salads', '/images/categories/salad.jpg'),
+                    (6, 'Drinks', 'Refreshing beverages', '/images/categories/drinks.jpg')
+                """;
+                stmt.execute(insertCategories);
+            
+                // Insert default food items
+                String insertFoodItems = """
+                    INSERT OR IGNORE INTO food_items (item_id, name, description, category_id, price, vegetarian) VALUES
+                    (1, 'Margherita Pizza', 'Classic pizza with tomato sauce, mozzarella, and fresh basil', 1, 12.99, 1),
+                    (2, 'Pepperoni Pizza', 'Loaded with spicy pepperoni and extra cheese', 1, 14.99, 0),
+                    (3, 'Classic Burger', 'Beef patty with lettuce, tomato, and special sauce', 2, 8.99, 0),
+                    (4, 'Chicken Burger', 'Grilled chicken breast with avocado and mayo', 2, 9.99, 0),
+                    (5, 'Spaghetti Carbonara', 'Creamy pasta with bacon and parmesan', 3, 11.99, 0),
+                    (6, 'California Roll', 'Crab stick, avocado, and cucumber roll', 4, 15.99, 0),
+                    (7, 'Fresh Salad', 'Mixed greens with cherry tomatoes and vinaigrette', 5, 7.99, 1),
+                    (8, 'Soft Drinks', 'Coke, Pepsi, Sprite, Fanta', 6, 2.99, 1)
+                """;
+                stmt.execute(insertFoodItems);
+            
+                // Insert default admin user
+                String insertAdmin = """
+                    INSERT OR IGNORE INTO users (username, password_hash, email, full_name, phone, role) VALUES
+                    ('admin', '1234', 'admin@foodexpress.com', 'System Administrator', '1234567890', 'ADMIN')
+                """;
+                stmt.execute(insertAdmin);
+            }),
+            new Migration(2, "Catalog version tracking", stmt -> {
+                // Catalog version, bumped on every menu change so caches can detect edits
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS catalog_version (
+                        id INTEGER PRIMARY KEY CHECK (id = 1),
+                        version INTEGER NOT NULL
+                    )
+                """);
+                stmt.execute("INSERT OR IGNORE INTO catalog_version (id, version) VALUES (1, 1)");
+            
+                for (String table : new String[] { "food_items", "categories" }) {
+                    for (String event : new String[] { "INSERT", "UPDATE", "DELETE" }) {
+                        stmt.execute(
+                            "CREATE TRIGGER IF NOT EXISTS " + table + "_" + event.toLowerCase() + "_version " +
+                            "AFTER " + event + " ON " + table + " BEGIN " +
+                            "UPDATE catalog_version SET version = version + 1 WHERE id = 1; END"
+                        );
+                    }
+                }
+            }),
+            new Migration(3, "Persistent session carts", stmt -> {
+                // Session carts, written behind by CartRepository
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS carts (
+                        session_id TEXT PRIMARY KEY,
+                        username TEXT NOT NULL,
+                        updated_at INTEGER NOT NULL
+                    )
+                """);
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS cart_items (
+                        session_id TEXT NOT NULL,
+                        position INTEGER NOT NULL,
+                        item_id INTEGER NOT NULL,
+                        food_type TEXT,
+                        quantity INTEGER NOT NULL,
+                        PRIMARY KEY (session_id, position),
+                        FOREIGN KEY (session_id) REFERENCES carts(session_id) ON DELETE CASCADE
+                    )
+                """);
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_carts_updated_at ON carts(updated_at)");
+            }),
+            new Migration(4, "Indexes for hot queries", StorageProfile::createIndexes),
+            new Migration(5, "Item count on orders", stmt -> {
+                // NULL until the backfill below reaches the row
+                stmt.execute("ALTER TABLE orders ADD COLUMN item_count INTEGER");
+            }),
+            new Migration(6, "Sales aggregate snapshots", stmt -> {
+                // Written by SalesAggregator; bucket is an item id, category id or epoch hour
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS sales_summary (
+                        dimension TEXT NOT NULL,
+                        bucket INTEGER NOT NULL,
+                        order_count INTEGER NOT NULL,
+                        quantity INTEGER NOT NULL,
+                        revenue_cents INTEGER NOT NULL,
+                        updated_at INTEGER NOT NULL,
+                        PRIMARY KEY (dimension, bucket)
+                    ) WITHOUT ROWID
+                """);
+                // Last order included in the snapshot; later orders are replayed on start
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS sales_summary_state (
+                        id INTEGER PRIMARY KEY CHECK (id = 1),
+                        last_order_id INTEGER NOT NULL,
+                        updated_at INTEGER NOT NULL
+                    )
+                """);
+            }),
+            new Migration(7, "Modifiers on cart lines", stmt -> {
+                // Cart lines are keyed by item id plus this canonical modifier key
+                stmt.execute("ALTER TABLE cart_items ADD COLUMN modifiers TEXT NOT NULL DEFAULT ''");
+            }),
+            new Migration(8, "Exact money columns on orders", stmt -> {
+                // Minor units (cents); the REAL columns are still written for older readers.
+                // NULL until the backfills below reach the row
+                stmt.execute("ALTER TABLE orders ADD COLUMN total_minor INTEGER");
+                stmt.execute("ALTER TABLE order_items ADD COLUMN price_minor INTEGER");
+            }),
+            new Migration(9, "Promotions and cart coupon codes", stmt -> {
+                // Loaded with the menu catalog; see Pricing.Promotion for what each kind uses.
+                // Amounts are minor units, percentages basis points, times epoch millis
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS promotions (
+                        promo_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        kind TEXT NOT NULL CHECK (kind IN ('ITEM_PERCENT', 'CATEGORY_PERCENT', 'BOGO', 'BASKET')),
+                        item_id INTEGER,
+                        category_id INTEGER,
+                        percent_bp INTEGER,
+                        amount_minor INTEGER,
+                        buy_quantity INTEGER,
+                        get_quantity INTEGER,
+                        min_subtotal_minor INTEGER NOT NULL DEFAULT 0,
+                        coupon_code TEXT,
+                        starts_at INTEGER,
+                        ends_at INTEGER,
+                        active BOOLEAN DEFAULT 1,
+                        FOREIGN KEY (item_id) REFERENCES food_items(item_id),
+                        FOREIGN KEY (category_id) REFERENCES categories(category_id)
+                    )
+                """);
+                // Promotion edits bump the catalog version like menu edits, so caches reload them
+                for (String event : new String[] { "INSERT", "UPDATE", "DELETE" }) {
+                    stmt.execute(
+                        "CREATE TRIGGER IF NOT EXISTS promotions_" + event.toLowerCase() + "_version " +
+                        "AFTER " + event + " ON promotions BEGIN " +
+                        "UPDATE catalog_version SET version = version + 1 WHERE id = 1; END"
+                    );
+                }
+                stmt.execute("ALTER TABLE carts ADD COLUMN coupon_code TEXT");
+            }),
+            new Migration(10, "Menu modifier groups and options", stmt -> {
+                // A configured item picks min_select..max_select options of each of its groups
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS modifier_groups (
+                        group_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        min_select INTEGER NOT NULL DEFAULT 0 CHECK (min_select >= 0),
+                        max_select INTEGER NOT NULL DEFAULT 1,
+                        sort_order INTEGER NOT NULL DEFAULT 0,
+                        CHECK (max_select >= 1 AND max_select >= min_select)
+                    )
+                """);
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS modifier_options (
+                        option_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        group_id INTEGER NOT NULL,
+                        name TEXT NOT NULL,
+                        price_delta_minor INTEGER NOT NULL DEFAULT 0 CHECK (price_delta_minor >= 0),
+                        available BOOLEAN DEFAULT 1,
+                        sort_order INTEGER NOT NULL DEFAULT 0,
+                        FOREIGN KEY (group_id) REFERENCES modifier_groups(group_id)
+                    )
+                """);
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS food_item_modifier_groups (
+                        item_id INTEGER NOT NULL,
+                        group_id INTEGER NOT NULL,
+                        sort_order INTEGER NOT NULL DEFAULT 0,
+                        PRIMARY KEY (item_id, group_id),
+                        FOREIGN KEY (item_id) REFERENCES food_items(item_id),
+                        FOREIGN KEY (group_id) REFERENCES modifier_groups(group_id)
+                    )
+                """);
+                // Modifiers are part of the catalog, so edits bump its version too
+                for (String table : new String[] { "modifier_groups", "modifier_options", "food_item_modifier_groups" }) {
+                    for (String event : new String[] { "INSERT", "UPDATE", "DELETE" }) {
+                        stmt.execute(
+                            "CREATE TRIGGER IF NOT EXISTS " + table + "_" + event.toLowerCase() + "_version " +
+                            "AFTER " + event + " ON " + table + " BEGIN " +
+                            "UPDATE catalog_version SET version = version + 1 WHERE id = 1; END"
+                        );
+                    }
+                }
+
+                // Default extras for pizzas and burgers, replacing the hard-coded Extra Cheese decorator
+                stmt.execute("""
+                    INSERT OR IGNORE INTO modifier_groups (group_id, name, min_select, max_select, sort_order) VALUES
+                    (1, 'Pizza Extras', 0, 4, 1),
+                    (2, 'Burger Extras', 0, 3, 2)
+                """);
+                stmt.execute("""
+                    INSERT OR IGNORE INTO modifier_options (option_id, group_id, name, price_delta_minor, sort_order) VALUES
+                    (1, 1, 'Extra Cheese', 150, 1),
+                    (2, 1, 'Mushrooms', 100, 2),
+                    (3, 1, 'Olives', 100, 3),
+                    (4, 1, 'Jalapeños', 75, 4),
+                    (5, 2, 'Bacon', 200, 1),
+                    (6, 2, 'Extra Patty', 300, 2),
+                    (7, 2, 'Cheese Slice', 100, 3)
+                """);
+                stmt.execute("""
+                    INSERT OR IGNORE INTO food_item_modifier_groups (item_id, group_id)
+                    SELECT item_id, CASE category_id WHEN 1 THEN 1 ELSE 2 END
+                    FROM food_items WHERE category_id IN (1, 2)
+                """);
+            }),
+            new Migration(11, "Session creation time on stored carts", stmt -> {
+                // Restores refuse carts whose session is past its TTLs; NULL (older rows) counts as expired
+                stmt.execute("ALTER TABLE carts ADD COLUMN session_created_at INTEGER");
+            }),
+            new Migration(12, "Price breakdown on orders", stmt -> {
+                // Minor units, as priced at checkout; NULL for orders placed before this version
+                stmt.execute("ALTER TABLE orders ADD COLUMN subtotal_minor INTEGER");
+                stmt.execute("ALTER TABLE orders ADD COLUMN discount_minor INTEGER");
+                stmt.execute("ALTER TABLE orders ADD COLUMN fee_minor INTEGER");
+                stmt.execute("ALTER TABLE orders ADD COLUMN tax_minor INTEGER");
+                // Sales revenue is now net of discounts and excludes fees and tax;
+                // dropping the snapshot makes SalesAggregator replay every order on that basis
+                stmt.execute("DELETE FROM sales_summary");
+                stmt.execute("DELETE FROM sales_summary_state");
+            }),
+            new Migration(13, "Cover price_minor in the order items index", stmt -> {
+                // Order history reads price_minor, falling back to price_per_unit, for each line
+                stmt.execute("DROP INDEX IF EXISTS idx_order_items_order");
+                stmt.execute("""
+                    CREATE INDEX idx_order_items_order
+                    ON order_items(order_id, item_id, quantity, price_minor, price_per_unit)
+                """);
+            })
+        );
+    }
+
+    /** Large data changes, run in the background after the migrations. */
+    public static List<Backfill> backfills() {
+        return List.of(
+            new Backfill("orders_item_count", "orders", "order_id", """
+                UPDATE orders
+                SET item_count = (SELECT COALESCE(SUM(quantity), 0) FROM order_items oi WHERE oi.order_id = orders.order_id)
+                WHERE order_id > ? AND order_id <= ? AND item_count IS NULL
+                """, 2000),
+            // Rows from before version 8 hold major units in the REAL columns
+            new Backfill("orders_total_minor", "orders", "order_id", """
+                UPDATE orders
+                SET total_minor = CAST(ROUND(total_amount * %d) AS INTEGER)
+                WHERE order_id > ? AND order_id <= ? AND total_minor IS NULL
+                """.formatted(Money.minorUnitsPerMajor()), 2000),
+            new Backfill("order_items_price_minor", "order_items", "order_item_id", """
+                UPDATE order_items
+                SET price_minor = CAST(ROUND(price_per_unit * %d) AS INTEGER)
+                WHERE order_item_id > ? AND order_item_id <= ? AND price_minor IS NULL
+                """.formatted(Money.minorUnitsPerMajor()), 5000)
+        );
+    }
+}
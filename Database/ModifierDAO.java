@@ -0,0 +1,96 @@
+package Database;
+
+import FoodItem.ModifierGroup;
+import FoodItem.ModifierOption;
+import Pricing.Money;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ModifierDAO {
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
+    
+    /** One row of food_item_modifier_groups: a group offered on an item. */
+    public static class ItemGroup {
+        private final int itemId;
+        private final int groupId;
+        
+        public ItemGroup(int itemId, int groupId) {
+            this.itemId = itemId;
+            this.groupId = groupId;
+        }
+        
+        public int getItemId() { return itemId; }
+        public int getGroupId() { return groupId; }
+    }
+    
+    // Catalog loading: these throw like FoodItemDAO's loads so the menu cache
+    // keeps its previous snapshot when a reload fails
+    
+    /** Every modifier group with its options, both in display order. */
+    public List<ModifierGroup> loadGroups() throws SQLException {
+        String groupSql = """
+            SELECT group_id, name, min_select, max_select
+            FROM modifier_groups
+            ORDER BY sort_order, group_id
+            """;
+        String optionSql = """
+            SELECT option_id, group_id, name, price_delta_minor, available
+            FROM modifier_options
+            ORDER BY group_id, sort_order, option_id
+            """;
+        
+        try (Connection conn = database.getReadConnection("ModifierDAO.loadGroups");
+             Statement stmt = conn.createStatement()) {
+            Map<Integer, List<ModifierOption>> optionsByGroup = new LinkedHashMap<>();
+            try (ResultSet rs = stmt.executeQuery(optionSql)) {
+                while (rs.next()) {
+                    int groupId = rs.getInt("group_id");
+                    optionsByGroup.computeIfAbsent(groupId, id -> new ArrayList<>()).add(new ModifierOption(
+                        rs.getInt("option_id"),
+                        groupId,
+                        rs.getString("name"),
+                        Money.ofMinor(rs.getLong("price_delta_minor")),
+                        rs.getBoolean("available")
+                    ));
+                }
+            }
+            
+            List<ModifierGroup> groups = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery(groupSql)) {
+                while (rs.next()) {
+                    int groupId = rs.getInt("group_id");
+                    groups.add(new ModifierGroup(
+                        groupId,
+                        rs.getString("name"),
+                        rs.getInt("min_select"),
+                        rs.getInt("max_select"),
+                        optionsByGroup.getOrDefault(groupId, new ArrayList<>())
+                    ));
+                }
+            }
+            return groups;
+        }
+    }
+    
+    /** Which groups each item offers, in display order per item. */
+    public List<ItemGroup> loadItemGroups() throws SQLException {
+        List<ItemGroup> links = new ArrayList<>();
+        String sql = """
+            SELECT item_id, group_id
+            FROM food_item_modifier_groups
+            ORDER BY item_id, sort_order, group_id
+            """;
+        
+        try (Connection conn = database.getReadConnection("ModifierDAO.loadItemGroups");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                links.add(new ItemGroup(rs.getInt("item_id"), rs.getInt("group_id")));
+            }
+        }
+        return links;
+    }
+}
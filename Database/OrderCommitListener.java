@@ -0,0 +1,15 @@
+package Database;
+
+import Order.OrderRequest;
+
+/**
+ * Told about each order after its transaction commits.
+ *
+ * Called on the writing thread while the writer connection is still held,
+ * so orders arrive in commit order. Implementations must be quick and must
+ * not touch the database.
+ */
+@FunctionalInterface
+public interface OrderCommitListener {
+    void onOrderCommitted(int orderId, OrderRequest request);
+}
@@ -1,131 +1,368 @@
 package Database;
 
+import Logging.Log;
+import Logging.Logger;
 import Order.OrderEntity;
-import Order.OrderStatus;
+import Order.OrderItemEntity;
+import Order.OrderPage;
+import Order.OrderRequest;
 import Cart.Cart;
-import Cart.CartItem;
+import Pricing.Money;
+import Pricing.PriceBreakdown;
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class OrderDAO {
-    private Connection connection;
+    private static final Logger log = Log.getLogger(OrderDAO.class);
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
+    private volatile OrderCommitListener commitListener;
     
-    public OrderDAO() {
-        connection = SQLiteConnection.getInstance().getConnection();
+    // Exact amounts, falling back to the REAL columns for rows the backfills have not reached
+    static final String ORDER_TOTAL_MINOR = "COALESCE(o.total_minor, CAST(ROUND(o.total_amount * "
+            + Money.minorUnitsPerMajor() + ") AS INTEGER))";
+    static final String ITEM_PRICE_MINOR = "COALESCE(oi.price_minor, CAST(ROUND(oi.price_per_unit * "
+            + Money.minorUnitsPerMajor() + ") AS INTEGER))";
+    
+    // Bulk export reads this many orders per statement, e.g. -Dexport.chunkOrders=2000
+    private static final int EXPORT_CHUNK_ORDERS = Integer.getInteger("export.chunkOrders", 1000);
+    private static final int EXPORT_FETCH_SIZE = Integer.getInteger("export.fetchSize", 500);
+    
+    /** Receives exported orders one at a time, each with its items attached. */
+    @FunctionalInterface
+    public interface ExportSink {
+        void accept(OrderEntity order) throws IOException;
+    }
+    
+    public void setCommitListener(OrderCommitListener listener) {
+        this.commitListener = listener;
     }
     
     public int createOrder(Cart cart, String username, String deliveryAddress, String phoneNumber) {
-        String orderSql = """
-            INSERT INTO orders (username, total_amount, delivery_address, phone_number) 
-            VALUES (?, ?, ?, ?)
-            """;
-        
-        String itemSql = """
-            INSERT INTO order_items (order_id, item_id, quantity, price_per_unit) 
-            VALUES (?, ?, ?, ?)
-            """;
-        
+        return createOrder(OrderRequest.fromCart(cart, username, deliveryAddress, phoneNumber, "Cash on Delivery"));
+    }
+    
+    /** Writes one order in its own transaction. Busy paths go through OrderIngestionPipeline. */
+    public int createOrder(OrderRequest request) {
         Connection conn = null;
-        PreparedStatement orderStmt = null;
-        PreparedStatement itemStmt = null;
-        ResultSet generatedKeys = null;
         
         try {
-            conn = SQLiteConnection.getInstance().getConnection();
+            // The writer connection is held exclusively for the whole transaction
+            conn = database.getWriteConnection("OrderDAO.createOrder");
             conn.setAutoCommit(false);
             
-            // Insert order
-            orderStmt = conn.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS);
-            orderStmt.setString(1, username);
-            orderStmt.setDouble(2, cart.getTotal());
-            orderStmt.setString(3, deliveryAddress);
-            orderStmt.setString(4, phoneNumber);
+            int orderId;
+            try (OrderInserter inserter = new OrderInserter(conn)) {
+                orderId = inserter.insert(request);
+            }
+            conn.commit();
+            notifyCommitted(commitListener, orderId, request);
+            
+            return orderId;
             
-            int affectedRows = orderStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error("❌ Error creating order: " + e.getMessage());
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                log.error("❌ Error rolling back: " + ex.getMessage());
+            }
+            return -1;
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.error("❌ Error closing resources: " + e.getMessage());
+            }
+        }
+    }
+    
+    // Still on the writer connection, so listeners see orders in commit order
+    static void notifyCommitted(OrderCommitListener listener, int orderId, OrderRequest request) {
+        if (listener == null) return;
+        try {
+            listener.onOrderCommitted(orderId, request);
+        } catch (RuntimeException e) {
+            // The order is already committed; a listener must not turn that into a failure
+            log.error("❌ Order commit listener failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Order and order item inserts prepared once and reused for every order
+     * written inside the caller's transaction.
+     */
+    static class OrderInserter implements AutoCloseable {
+        private static final String ORDER_SQL = """
+            INSERT INTO orders (username, total_amount, total_minor, delivery_address, phone_number, payment_method, item_count,
+                                subtotal_minor, discount_minor, fee_minor, tax_minor)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        
+        private static final String ITEM_SQL = """
+            INSERT INTO order_items (order_id, item_id, quantity, price_per_unit, price_minor)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+        
+        // Lines without a catalog id still need a valid food_items reference
+        static final int UNKNOWN_ITEM_ID = 1;
+        
+        private final PreparedStatement orderStmt;
+        private final PreparedStatement itemStmt;
+        
+        OrderInserter(Connection conn) throws SQLException {
+            orderStmt = conn.prepareStatement(ORDER_SQL, Statement.RETURN_GENERATED_KEYS);
+            itemStmt = conn.prepareStatement(ITEM_SQL);
+        }
+        
+        int insert(OrderRequest request) throws SQLException {
+            orderStmt.setString(1, request.getUsername());
+            orderStmt.setDouble(2, request.getTotalAmount().toMajor());
+            orderStmt.setLong(3, request.getTotalAmount().getMinor());
+            orderStmt.setString(4, request.getDeliveryAddress());
+            orderStmt.setString(5, request.getPhoneNumber());
+            orderStmt.setString(6, request.getPaymentMethod());
+            orderStmt.setInt(7, request.getItemCount());
+            PriceBreakdown price = request.getPrice();
+            orderStmt.setLong(8, price.getSubtotal().getMinor());
+            orderStmt.setLong(9, price.getDiscounts().getMinor());
+            orderStmt.setLong(10, price.getFees().getMinor());
+            orderStmt.setLong(11, price.getTax().getMinor());
             
-            if (affectedRows == 0) {
+            if (orderStmt.executeUpdate() == 0) {
                 throw new SQLException("Creating order failed, no rows affected.");
             }
             
             // Get generated order ID
-            generatedKeys = orderStmt.getGeneratedKeys();
-            int orderId = -1;
-            if (generatedKeys.next()) {
-                orderId = generatedKeys.getInt(1);
-            } else {
-                throw new SQLException("Creating order failed, no ID obtained.");
+            int orderId;
+            try (ResultSet generatedKeys = orderStmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    orderId = generatedKeys.getInt(1);
+                } else {
+                    throw new SQLException("Creating order failed, no ID obtained.");
+                }
             }
             
             // Insert order items
-            itemStmt = conn.prepareStatement(itemSql);
-            for (CartItem cartItem : cart.getItems()) {
-                // Note: This needs food item ID which we don't have in CartItem
-                // For now, we'll use a placeholder. You'll need to modify CartItem to store itemId
+            for (OrderRequest.Line line : request.getLines()) {
                 itemStmt.setInt(1, orderId);
-                itemStmt.setInt(2, 1); // Placeholder - you need to modify your model
-                itemStmt.setInt(3, cartItem.getQuantity());
-                itemStmt.setDouble(4, cartItem.getFood().getPrice());
+                itemStmt.setInt(2, line.getItemId() > 0 ? line.getItemId() : UNKNOWN_ITEM_ID);
+                itemStmt.setInt(3, line.getQuantity());
+                itemStmt.setDouble(4, line.getPricePerUnit().toMajor());
+                itemStmt.setLong(5, line.getPricePerUnit().getMinor());
                 itemStmt.addBatch();
             }
-            
             itemStmt.executeBatch();
-            conn.commit();
             
             return orderId;
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Error creating order: " + e.getMessage());
-            try {
-                if (conn != null) conn.rollback();
-            } catch (SQLException ex) {
-                System.err.println("❌ Error rolling back: " + ex.getMessage());
-            }
-            return -1;
-        } finally {
+        }
+        
+        @Override
+        public void close() throws SQLException {
             try {
-                if (generatedKeys != null) generatedKeys.close();
-                if (orderStmt != null) orderStmt.close();
-                if (itemStmt != null) itemStmt.close();
-                if (conn != null) conn.setAutoCommit(true);
-            } catch (SQLException e) {
-                System.err.println("❌ Error closing resources: " + e.getMessage());
+                orderStmt.close();
+            } finally {
+                itemStmt.close();
             }
         }
     }
     
-    public List<OrderEntity> getUserOrders(String username) {
+    /**
+     * One page of a user's orders, newest first, with their line items.
+     * Keyset pagination on (created_at, order_id) keeps every page an index
+     * range scan no matter how deep the client pages.
+     */
+    public OrderPage getUserOrdersPage(String username, OrderPage.Cursor cursor, int limit) {
         List<OrderEntity> orders = new ArrayList<>();
-        String sql = """
-            SELECT o.*, 
-                   GROUP_CONCAT(fi.name || ' (x' || oi.quantity || ')') as items
+        String sql = cursor == null ? """
+            SELECT o.order_id, o.username, o.status, %s AS total_minor, o.delivery_address, o.created_at
             FROM orders o
-            LEFT JOIN order_items oi ON o.order_id = oi.order_id
-            LEFT JOIN food_items fi ON oi.item_id = fi.item_id
             WHERE o.username = ?
-            GROUP BY o.order_id
-            ORDER BY o.created_at DESC
-            """;
+            ORDER BY o.created_at DESC, o.order_id DESC
+            LIMIT ?
+            """.formatted(ORDER_TOTAL_MINOR) : """
+            SELECT o.order_id, o.username, o.status, %s AS total_minor, o.delivery_address, o.created_at
+            FROM orders o
+            WHERE o.username = ? AND (o.created_at, o.order_id) < (?, ?)
+            ORDER BY o.created_at DESC, o.order_id DESC
+            LIMIT ?
+            """.formatted(ORDER_TOTAL_MINOR);
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
+        try (Connection conn = database.getReadConnection("OrderDAO.getUserOrdersPage")) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int param = 1;
+                pstmt.setString(param++, username);
+                if (cursor != null) {
+                    pstmt.setString(param++, cursor.getCreatedAt());
+                    pstmt.setInt(param++, cursor.getOrderId());
+                }
+                // One extra row tells us whether another page exists
+                pstmt.setInt(param, limit + 1);
+                ResultSet rs = pstmt.executeQuery();
+                
+                while (rs.next()) {
+                    OrderEntity order = new OrderEntity(
+                        rs.getInt("order_id"),
+                        rs.getString("username"),
+                        rs.getString("status"),
+                        Money.ofMinor(rs.getLong("total_minor")),
+                        rs.getString("created_at")
+                    );
+                    order.setDeliveryAddress(rs.getString("delivery_address"));
+                    orders.add(order);
+                }
+            }
             
-            while (rs.next()) {
-                // You'll need to modify OrderEntity to have proper constructor
-                // For now, using a simple version
-                OrderEntity order = new OrderEntity(
-                    rs.getInt("order_id"),
-                    rs.getString("username"),
-                    rs.getString("status"),
-                    rs.getDouble("total_amount"),
-                    rs.getString("created_at")
-                );
-                orders.add(order);
+            String nextCursor = null;
+            if (orders.size() > limit) {
+                orders.remove(orders.size() - 1);
+                OrderEntity last = orders.get(orders.size() - 1);
+                nextCursor = new OrderPage.Cursor(last.getCreatedAt(), last.getOrderId()).encode();
             }
+            
+            loadOrderItems(conn, orders);
+            return new OrderPage(orders, nextCursor);
         } catch (SQLException e) {
-            System.err.println("❌ Error getting user orders: " + e.getMessage());
+            log.error("❌ Error getting user orders: " + e.getMessage());
+            return new OrderPage(new ArrayList<>(), null);
+        }
+    }
+    
+    // Line items for a whole page in one query instead of one per order
+    private void loadOrderItems(Connection conn, List<OrderEntity> orders) throws SQLException {
+        if (orders.isEmpty()) return;
+        
+        StringBuilder sql = new StringBuilder("""
+            SELECT oi.order_id, oi.item_id, fi.name, oi.quantity, %s AS price_minor
+            FROM order_items oi
+            LEFT JOIN food_items fi ON oi.item_id = fi.item_id
+            WHERE oi.order_id IN (""".formatted(ITEM_PRICE_MINOR));
+        for (int i = 0; i < orders.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY oi.order_id, oi.order_item_id");
+        
+        Map<Integer, List<OrderItemEntity>> itemsByOrder = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < orders.size(); i++) {
+                pstmt.setInt(i + 1, orders.get(i).getOrderId());
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                itemsByOrder.computeIfAbsent(rs.getInt("order_id"), id -> new ArrayList<>()).add(new OrderItemEntity(
+                    rs.getInt("item_id"),
+                    rs.getString("name"),
+                    rs.getInt("quantity"),
+                    Money.ofMinor(rs.getLong("price_minor"))
+                ));
+            }
+        }
+        
+        for (OrderEntity order : orders) {
+            List<OrderItemEntity> items = itemsByOrder.get(order.getOrderId());
+            if (items != null) {
+                order.setItems(items);
+            }
+        }
+    }
+    
+    /**
+     * Streams every order created in [from, to) to the sink, oldest first.
+     *
+     * Orders are read in keyset chunks on (created_at, order_id), each from a
+     * forward-only result set. A chunk is collected, the read connection goes
+     * back to the pool, and only then is the chunk written to the sink, so a
+     * slow client never holds a reader or a WAL read snapshot. At most one
+     * chunk of export.chunkOrders orders is held in memory.
+     *
+     * @return the number of orders exported
+     */
+    public long exportOrders(String from, String to, ExportSink sink) throws SQLException, IOException {
+        String sql = """
+            SELECT o.order_id, o.username, o.status, %s AS total_minor, o.delivery_address,
+                   o.phone_number, o.payment_method, o.created_at,
+                   oi.item_id, fi.name, oi.quantity, %s AS price_minor
+            FROM (
+                SELECT * FROM orders
+                WHERE created_at >= ? AND created_at < ?
+                  AND (created_at, order_id) > (?, ?)
+                ORDER BY created_at, order_id
+                LIMIT ?
+            ) o
+            LEFT JOIN order_items oi ON oi.order_id = o.order_id
+            LEFT JOIN food_items fi ON fi.item_id = oi.item_id
+            ORDER BY o.created_at, o.order_id, oi.order_item_id
+            """.formatted(ORDER_TOTAL_MINOR, ITEM_PRICE_MINOR);
+        
+        long exported = 0;
+        String lastCreatedAt = "";
+        int lastOrderId = 0;
+        
+        List<OrderEntity> chunk = new ArrayList<>();
+        while (true) {
+            chunk.clear();
+            OrderEntity current = null;
+            
+            try (Connection conn = database.getReadConnection("OrderDAO.exportOrders");
+                 PreparedStatement pstmt = conn.prepareStatement(sql,
+                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+                pstmt.setString(1, from);
+                pstmt.setString(2, to);
+                pstmt.setString(3, lastCreatedAt);
+                pstmt.setInt(4, lastOrderId);
+                pstmt.setInt(5, EXPORT_CHUNK_ORDERS);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int orderId = rs.getInt("order_id");
+                        if (current == null || current.getOrderId() != orderId) {
+                            current = new OrderEntity(
+                                orderId,
+                                rs.getString("username"),
+                                rs.getString("status"),
+                                Money.ofMinor(rs.getLong("total_minor")),
+                                rs.getString("created_at")
+                            );
+                            current.setDeliveryAddress(rs.getString("delivery_address"));
+                            current.setPhoneNumber(rs.getString("phone_number"));
+                            current.setPaymentMethod(rs.getString("payment_method"));
+                            current.setItems(new ArrayList<>());
+                            chunk.add(current);
+                        }
+                        
+                        int itemId = rs.getInt("item_id");
+                        if (!rs.wasNull()) {
+                            current.getItems().add(new OrderItemEntity(
+                                itemId,
+                                rs.getString("name"),
+                                rs.getInt("quantity"),
+                                Money.ofMinor(rs.getLong("price_minor"))
+                            ));
+                        }
+                    }
+                }
+            }
+            
+            // Written with the connection already back in the pool
+            for (OrderEntity order : chunk) {
+                sink.accept(order);
+            }
+            if (current != null) {
+                lastCreatedAt = current.getCreatedAt();
+                lastOrderId = current.getOrderId();
+            }
+            exported += chunk.size();
+            
+            if (chunk.size() < EXPORT_CHUNK_ORDERS) {
+                return exported;
+            }
         }
-        return orders;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import Order.OrderRequest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for orders.
+ *
+ * Callers enqueue an {@link OrderRequest} and get a future for its order id.
+ * One writer thread drains the queue and commits up to maxBatchSize orders
+ * in a single transaction, waiting at most maxBatchDelay for a batch to fill.
+ * Each order runs under its own savepoint, so one bad order only fails its
+ * own future.
+ *
+ * A caller that gives up waiting cancels the future. Cancelling succeeds
+ * only while the order is still queued, and a cancelled order is never
+ * written; once the writer has taken an order, cancel() returns false and
+ * the future completes with the outcome of its batch.
+ */
+public class OrderIngestionPipeline {
+    private static final Logger log = Log.getLogger(OrderIngestionPipeline.class);
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
+    private final BlockingQueue<PendingOrder> queue;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final long enqueueTimeoutMillis;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile OrderCommitListener commitListener;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder ordersCommitted = new LongAdder();
+    private final LongAdder ordersFailed = new LongAdder();
+    private final LongAdder ordersRejected = new LongAdder();
+    private final LongAdder ordersCancelled = new LongAdder();
+    private volatile int lastBatchSize;
+
+    private static class PendingOrder {
+        private final OrderRequest request;
+        private final OrderFuture result = new OrderFuture();
+        private int orderId;
+
+        PendingOrder(OrderRequest request) {
+            this.request = request;
+        }
+    }
+
+    // A future that can only be cancelled before the writer claims its order
+    private static class OrderFuture extends CompletableFuture<Integer> {
+        private static final int QUEUED = 0, CLAIMED = 1, CANCELLED = 2;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return state.compareAndSet(QUEUED, CANCELLED) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    public OrderIngestionPipeline(int queueCapacity, int maxBatchSize, long maxBatchDelayMillis, long enqueueTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMillis);
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.writer = new Thread(this::writeLoop, "order-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /** Set before start(); called on the writer thread for every committed order. */
+    public void setCommitListener(OrderCommitListener listener) {
+        this.commitListener = listener;
+    }
+
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues an order. The future completes with the generated order id once
+     * its batch commits, or exceptionally if the queue is full or the write fails.
+     * Cancel it to withdraw an order the writer has not taken yet.
+     */
+    public CompletableFuture<Integer> submit(OrderRequest request) {
+        PendingOrder pending = new PendingOrder(request);
+        boolean accepted = false;
+        if (running) {
+            try {
+                accepted = queue.offer(pending, enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!accepted) {
+            ordersRejected.increment();
+            pending.result.completeExceptionally(new RejectedExecutionException("Order queue is full"));
+        }
+        return pending.result;
+    }
+
+    /** Stops accepting orders and waits for everything queued to be written. */
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() { return queue.size(); }
+    public int getQueueCapacity() { return queue.size() + queue.remainingCapacity(); }
+    public long getBatchCount() { return batches.sum(); }
+    public long getCommittedCount() { return ordersCommitted.sum(); }
+    public long getFailedCount() { return ordersFailed.sum(); }
+    public long getRejectedCount() { return ordersRejected.sum(); }
+    public long getCancelledCount() { return ordersCancelled.sum(); }
+    public int getLastBatchSize() { return lastBatchSize; }
+    public boolean isRunning() { return running && writer.isAlive(); }
+
+    private void writeLoop() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("❌ Order writer error: " + e.getMessage());
+                for (PendingOrder pending : batch) {
+                    pending.result.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Take whatever is already queued, then linger briefly for stragglers
+    private void fillBatch(List<PendingOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxBatchDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.size() >= maxBatchSize) {
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<PendingOrder> batch) {
+        List<PendingOrder> written = new ArrayList<>(batch.size());
+        Connection conn = null;
+        try {
+            conn = database.getWriteConnection("OrderIngestionPipeline.writeBatch");
+            conn.setAutoCommit(false);
+
+            try (OrderDAO.OrderInserter inserter = new OrderDAO.OrderInserter(conn)) {
+                for (PendingOrder pending : batch) {
+                    // The caller gave up on it; writing it now would duplicate a retry
+                    if (!pending.result.claim()) {
+                        ordersCancelled.increment();
+                        continue;
+                    }
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        pending.orderId = inserter.insert(pending.request);
+                        conn.releaseSavepoint(savepoint);
+                        written.add(pending);
+                    } catch (SQLException e) {
+                        conn.rollback(savepoint);
+                        conn.releaseSavepoint(savepoint);
+                        ordersFailed.increment();
+                        log.error("❌ Error creating order: " + e.getMessage());
+                        pending.result.completeExceptionally(e);
+                    }
+                }
+            }
+
+            // One commit (and one fsync) for the whole batch
+            conn.commit();
+            batches.increment();
+            ordersCommitted.add(written.size());
+            lastBatchSize = batch.size();
+            for (PendingOrder pending : written) {
+                OrderDAO.notifyCommitted(commitListener, pending.orderId, pending.request);
+                pending.result.complete(pending.orderId);
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error committing order batch: " + e.getMessage());
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                log.error("❌ Error rolling back: " + ex.getMessage());
+            }
+            ordersFailed.add(written.size());
+            for (PendingOrder pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.error("❌ Error returning connection: " + e.getMessage());
+            }
+        }
+    }
+}
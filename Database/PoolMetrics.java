@@ -0,0 +1,99 @@
+package Database;
+
+import Metrics.LatencyHistogram;
+import Metrics.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for {@link ConnectionPool}.
+ * Recording is lock-free so it is safe on every borrow and return.
+ *
+ * When a connection is borrowed for a named operation, such as
+ * "UserDAO.getUserByUsername", how long it was held is also recorded in
+ * db_operation_duration_seconds under that name.
+ */
+public class PoolMetrics {
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder replaced = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final LatencyHistogram waitHistogram;
+    private final LatencyHistogram holdHistogram;
+    private final Map<String, LatencyHistogram> operations = new ConcurrentHashMap<>();
+
+    PoolMetrics() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        waitHistogram = registry.histogram("db_pool_wait_seconds", "Time spent waiting to borrow a connection");
+        holdHistogram = registry.histogram("db_pool_hold_seconds", "Time a borrowed connection was held");
+        registry.counter("db_pool_timeouts_total", "Borrows that timed out", timeouts::sum);
+        registry.counter("db_pool_leaks_total", "Connections held past the leak threshold", leaks::sum);
+        registry.gauge("db_pool_active", "Connections currently borrowed", activeCount::get);
+    }
+
+    void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        waitHistogram.record(nanos);
+    }
+
+    void recordBorrow() {
+        borrows.increment();
+        activeCount.incrementAndGet();
+    }
+
+    void recordRelease(String operation, long heldNanos) {
+        activeCount.decrementAndGet();
+        holdHistogram.record(heldNanos);
+        if (operation != null) {
+            operations.computeIfAbsent(operation, op -> MetricsRegistry.getInstance().histogram(
+                    "db_operation_duration_seconds", "Time a connection was held, by DAO operation",
+                    "operation", op)).record(heldNanos);
+        }
+    }
+
+    void recordTimeout() { timeouts.increment(); }
+    void recordLeak() { leaks.increment(); }
+    void recordReplaced() { replaced.increment(); }
+
+    public long getBorrowCount() { return borrows.sum(); }
+    public long getTimeoutCount() { return timeouts.sum(); }
+    public long getLeakCount() { return leaks.sum(); }
+    public long getReplacedCount() { return replaced.sum(); }
+    public int getActiveCount() { return activeCount.get(); }
+
+    public double getAverageWaitMillis() {
+        long count = borrows.sum() + timeouts.sum();
+        return count == 0 ? 0.0 : totalWaitNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    /** Approximate percentile (upper bucket bound) of time spent waiting to borrow. */
+    public double getWaitPercentileMillis(double percentile) {
+        return waitHistogram.getPercentileMillis(percentile);
+    }
+
+    /** Approximate percentile (upper bucket bound) of time a connection was held. */
+    public double getHoldPercentileMillis(double percentile) {
+        return holdHistogram.getPercentileMillis(percentile);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("borrows", getBorrowCount());
+        snapshot.put("active", getActiveCount());
+        snapshot.put("timeouts", getTimeoutCount());
+        snapshot.put("leaks", getLeakCount());
+        snapshot.put("replaced", getReplacedCount());
+        snapshot.put("avgWaitMs", getAverageWaitMillis());
+        snapshot.put("p50WaitMs", getWaitPercentileMillis(50));
+        snapshot.put("p99WaitMs", getWaitPercentileMillis(99));
+        snapshot.put("p50HoldMs", getHoldPercentileMillis(50));
+        snapshot.put("p99HoldMs", getHoldPercentileMillis(99));
+        return snapshot;
+    }
+}
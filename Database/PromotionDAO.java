@@ -0,0 +1,58 @@
+package Database;
+
+import Pricing.Promotion;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PromotionDAO {
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
+    
+    /**
+     * Every enabled promotion that has not ended, including ones that start
+     * later. Throws like the other catalog loads so the menu cache keeps its
+     * previous snapshot when a reload fails.
+     */
+    public List<Promotion> loadPromotions(long now) throws SQLException {
+        List<Promotion> promotions = new ArrayList<>();
+        String sql = """
+            SELECT promo_id, name, kind, item_id, category_id, percent_bp, amount_minor,
+                   buy_quantity, get_quantity, min_subtotal_minor, coupon_code, starts_at, ends_at
+            FROM promotions
+            WHERE active = 1 AND (ends_at IS NULL OR ends_at = 0 OR ends_at > ?)
+            ORDER BY promo_id
+            """;
+        
+        try (Connection conn = database.getReadConnection("PromotionDAO.loadPromotions");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, now);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Promotion.Kind kind;
+                try {
+                    kind = Promotion.Kind.valueOf(rs.getString("kind"));
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    throw new SQLException("Promotion " + rs.getInt("promo_id") + " has unknown kind " + rs.getString("kind"));
+                }
+                // getInt/getLong read NULL as 0, which every field treats as unset
+                promotions.add(new Promotion(
+                    rs.getInt("promo_id"),
+                    rs.getString("name"),
+                    kind,
+                    rs.getInt("item_id"),
+                    rs.getInt("category_id"),
+                    rs.getInt("percent_bp"),
+                    rs.getLong("amount_minor"),
+                    rs.getInt("buy_quantity"),
+                    rs.getInt("get_quantity"),
+                    rs.getLong("min_subtotal_minor"),
+                    rs.getString("coupon_code"),
+                    rs.getLong("starts_at"),
+                    rs.getLong("ends_at")
+                ));
+            }
+        }
+        return promotions;
+    }
+}
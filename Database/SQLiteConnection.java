@@ -1,22 +1,44 @@
 package Database;
 
+import Logging.Log;
+import Logging.Logger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class SQLiteConnection {
-    private static SQLiteConnection instance;
-    private Connection connection;
-    private static final String DATABASE_URL = "jdbc:sqlite:database/food_delivery.db";
+    private static final Logger log = Log.getLogger(SQLiteConnection.class);
+    private static volatile SQLiteConnection instance;
+    private ConnectionPool pool;
+    private final StorageProfile profile = StorageProfile.fromSystemProperties();
+    // Another file can be used with -Ddb.path=/tmp/bench.db, e.g. for benchmarks
+    private static final String DATABASE_PATH = System.getProperty("db.path", "database/food_delivery.db");
+    private static final String DATABASE_URL = "jdbc:sqlite:" + DATABASE_PATH;
+
+    // Pool sizing can be tuned with -Ddb.pool.readers=8 etc.
+    private static final int READER_COUNT = Integer.getInteger("db.pool.readers",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final long MAX_WAIT_MILLIS = Long.getLong("db.pool.maxWaitMs", 5000);
+    private static final long LEAK_THRESHOLD_MILLIS = Long.getLong("db.pool.leakThresholdMs", 30000);
+    private static final long VALIDATION_INTERVAL_MILLIS = Long.getLong("db.pool.validationIntervalMs", 30000);
 
     private SQLiteConnection() {
         try {
             // Load SQLite JDBC driver
             Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(DATABASE_URL);
-            System.out.println("✅ Database connection established");
-        } catch (ClassNotFoundException | SQLException e) {
-            System.err.println("❌ Database connection failed: " + e.getMessage());
+            // SQLite creates the file but not its folder
+            Path parent = Paths.get(DATABASE_PATH).toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            pool = new ConnectionPool(DATABASE_URL, profile, READER_COUNT, MAX_WAIT_MILLIS,
+                    LEAK_THRESHOLD_MILLIS, VALIDATION_INTERVAL_MILLIS);
+            log.info("✅ Database connection pool established (1 writer, " + READER_COUNT + " readers)");
+        } catch (ClassNotFoundException | SQLException | IOException e) {
+            log.error("❌ Database connection failed: " + e.getMessage());
         }
     }
 
@@ -31,25 +53,52 @@ public class SQLiteConnection {
         return instance;
     }
 
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DATABASE_URL);
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to get database connection: " + e.getMessage());
+    /** Borrows a read-only connection; close it to return it to the pool. */
+    public Connection getReadConnection() throws SQLException {
+        return requirePool().getReadConnection();
+    }
+
+    /** Borrows the writer connection; close it to return it to the pool. */
+    public Connection getWriteConnection() throws SQLException {
+        return requirePool().getWriteConnection();
+    }
+
+    /** Like getReadConnection(), with the hold time reported under the operation's name. */
+    public Connection getReadConnection(String operation) throws SQLException {
+        return requirePool().getReadConnection(operation);
+    }
+
+    /** Like getWriteConnection(), with the hold time reported under the operation's name. */
+    public Connection getWriteConnection(String operation) throws SQLException {
+        return requirePool().getWriteConnection(operation);
+    }
+
+    public static String getDatabasePath() {
+        return DATABASE_PATH;
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+    
+    public StorageProfile getStorageProfile() {
+        return profile;
+    }
+
+    private ConnectionPool requirePool() throws SQLException {
+        if (pool == null) {
+            throw new SQLException("Database connection pool is not available");
         }
-        return connection;
+        return pool;
     }
 
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✅ Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Error closing database connection: " + e.getMessage());
+        profile.stopMaintenance();
+        if (pool != null) {
+            // Leave fresh statistics behind for the next start
+            profile.optimize(this);
+            pool.close();
+            log.info("✅ Database connection pool closed");
         }
     }
 }
\ No newline at end of file
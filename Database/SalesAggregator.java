@@ -0,0 +1,485 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import Order.OrderRequest;
+import Pricing.Money;
+import Pricing.PriceBreakdown;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Running sales totals per item, per category and per hour.
+ *
+ * Revenue is net sales: line totals less the order's discounts, without
+ * fees or tax. Each order's discounts are spread over its lines in
+ * proportion to their totals, so item, category and order revenue all
+ * add up to the same amount.
+ *
+ * Counters live in memory and are bumped as each order commits, so reading
+ * them never touches the orders table. Every snapshotIntervalMillis the
+ * changed counters are written to sales_summary along with the id of the
+ * last order they include. On start the snapshot is loaded and only orders
+ * after that id are replayed.
+ */
+public class SalesAggregator implements OrderCommitListener {
+    private static final Logger log = Log.getLogger(SalesAggregator.class);
+    private static final String TOTAL = "total";
+    private static final String ITEM = "item";
+    private static final String CATEGORY = "category";
+    private static final String HOUR = "hour";
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final DateTimeFormatter SQLITE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
+    private final IntUnaryOperator categoryOf;
+    private final long snapshotIntervalMillis;
+    private final int hoursRetained;
+
+    // Guarded by this; updates come from the single order writer
+    private final Counter totals = new Counter(TOTAL, 0);
+    private final Map<Integer, Counter> items = new HashMap<>();
+    private final Map<Integer, Counter> categories = new HashMap<>();
+    private final TreeMap<Long, Counter> hours = new TreeMap<>();
+    private int lastOrderId;
+    private int persistedOrderId;
+
+    private ScheduledExecutorService snapshotter;
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder failedSnapshots = new LongAdder();
+    private volatile long lastSnapshotAt;
+
+    /** Order count, units sold and revenue for one item, category or hour. */
+    public static class Counter {
+        private final String dimension;
+        private final long bucket;
+        private long orders;
+        private long quantity;
+        private long revenueMinor;
+        private boolean dirty;
+
+        Counter(String dimension, long bucket) {
+            this.dimension = dimension;
+            this.bucket = bucket;
+        }
+
+        void add(long orders, long quantity, long revenueMinor) {
+            this.orders += orders;
+            this.quantity += quantity;
+            this.revenueMinor += revenueMinor;
+            this.dirty = true;
+        }
+
+        Counter copy() {
+            Counter copy = new Counter(dimension, bucket);
+            copy.orders = orders;
+            copy.quantity = quantity;
+            copy.revenueMinor = revenueMinor;
+            return copy;
+        }
+
+        /** Item id, category id or epoch hour, depending on the dimension. */
+        public long getBucket() { return bucket; }
+        public long getOrders() { return orders; }
+        public long getQuantity() { return quantity; }
+        public long getRevenueMinor() { return revenueMinor; }
+        public BigDecimal getRevenue() { return Money.ofMinor(revenueMinor).toBigDecimal(); }
+    }
+
+    /**
+     * @param categoryOf maps an item id to its category id, or a negative value if unknown
+     */
+    public SalesAggregator(IntUnaryOperator categoryOf, long snapshotIntervalMillis, int hoursRetained) {
+        this.categoryOf = categoryOf;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.hoursRetained = Math.max(1, hoursRetained);
+    }
+
+    @Override
+    public void onOrderCommitted(int orderId, OrderRequest request) {
+        record(orderId, request, System.currentTimeMillis());
+    }
+
+    private synchronized void record(int orderId, OrderRequest request, long committedAt) {
+        List<OrderRequest.Line> lines = request.getLines();
+        long[] lineRevenue = netRevenue(lines, request.getPrice().getDiscounts().getMinor());
+        long revenue = 0;
+        for (long amount : lineRevenue) {
+            revenue += amount;
+        }
+        long quantity = request.getItemCount();
+        totals.add(1, quantity, revenue);
+        counter(hours, HOUR, committedAt / HOUR_MILLIS).add(1, quantity, revenue);
+
+        // An order counts once per item and category, however many lines it has there
+        List<Integer> seenItems = new ArrayList<>(lines.size());
+        List<Integer> seenCategories = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            OrderRequest.Line line = lines.get(i);
+            int itemId = line.getItemId() > 0 ? line.getItemId() : OrderDAO.OrderInserter.UNKNOWN_ITEM_ID;
+
+            counter(items, ITEM, itemId).add(seenItems.contains(itemId) ? 0 : 1, line.getQuantity(), lineRevenue[i]);
+            seenItems.add(itemId);
+
+            int categoryId = categoryOf.applyAsInt(itemId);
+            if (categoryId >= 0) {
+                counter(categories, CATEGORY, categoryId).add(seenCategories.contains(categoryId) ? 0 : 1,
+                        line.getQuantity(), lineRevenue[i]);
+                seenCategories.add(categoryId);
+            }
+        }
+        lastOrderId = Math.max(lastOrderId, orderId);
+    }
+
+    // Line totals less each line's share of the discount. Shares are rounded down,
+    // then the leftover minor units go to the lines with the largest remainders
+    private static long[] netRevenue(List<OrderRequest.Line> lines, long discount) {
+        long[] net = new long[lines.size()];
+        long gross = 0;
+        for (int i = 0; i < net.length; i++) {
+            OrderRequest.Line line = lines.get(i);
+            net[i] = line.getPricePerUnit().times(line.getQuantity()).getMinor();
+            gross += net[i];
+        }
+        if (discount <= 0 || gross <= 0) {
+            return net;
+        }
+        discount = Math.min(discount, gross);
+
+        long[] remainders = new long[net.length];
+        long allocated = 0;
+        for (int i = 0; i < net.length; i++) {
+            long product = Math.multiplyExact(net[i], discount);
+            long share = product / gross;
+            remainders[i] = product % gross;
+            net[i] -= share;
+            allocated += share;
+        }
+        for (long left = discount - allocated; left > 0; left--) {
+            int largest = 0;
+            for (int i = 1; i < remainders.length; i++) {
+                if (remainders[i] > remainders[largest]) largest = i;
+            }
+            net[largest]--;
+            remainders[largest] = -1;
+        }
+        return net;
+    }
+
+    private static <K extends Number> Counter counter(Map<K, Counter> counters, String dimension, K key) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = new Counter(dimension, key.longValue());
+            counters.put(key, counter);
+        }
+        return counter;
+    }
+
+    public synchronized Counter getTotals() {
+        return totals.copy();
+    }
+
+    public synchronized List<Counter> getItems() {
+        return copyOf(items.values());
+    }
+
+    public synchronized List<Counter> getCategories() {
+        return copyOf(categories.values());
+    }
+
+    /** The most recent hours, oldest first, with empty hours left out. */
+    public synchronized List<Counter> getHours(int count) {
+        long currentHour = System.currentTimeMillis() / HOUR_MILLIS;
+        return copyOf(hours.tailMap(currentHour - Math.min(count, hoursRetained) + 1, true).values());
+    }
+
+    public synchronized int getLastOrderId() { return lastOrderId; }
+    public long getSnapshotCount() { return snapshots.sum(); }
+    public long getFailedSnapshotCount() { return failedSnapshots.sum(); }
+    public long getLastSnapshotAt() { return lastSnapshotAt; }
+
+    private static List<Counter> copyOf(Iterable<Counter> counters) {
+        List<Counter> copies = new ArrayList<>();
+        for (Counter counter : counters) {
+            copies.add(counter.copy());
+        }
+        return copies;
+    }
+
+    /** Loads the last snapshot, catches up on newer orders and starts snapshotting. */
+    public synchronized void start() {
+        if (snapshotter != null) return;
+
+        int replayed = 0;
+        try {
+            loadSnapshot();
+            replayed = replayOrders();
+        } catch (SQLException e) {
+            log.error("❌ Error loading sales aggregates: " + e.getMessage());
+        }
+        log.info("📊 Sales aggregates ready: " + totals.getOrders() + " orders ("
+                + replayed + " replayed since last snapshot)");
+
+        snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sales-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotter.scheduleWithFixedDelay(this::snapshotSafely, 0, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops snapshotting and writes a final snapshot. */
+    public void stop() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = snapshotter;
+            snapshotter = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        snapshot();
+    }
+
+    private void loadSnapshot() throws SQLException {
+        long oldestHour = System.currentTimeMillis() / HOUR_MILLIS - hoursRetained + 1;
+
+        try (Connection conn = database.getReadConnection("SalesAggregator.loadSnapshot");
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT last_order_id FROM sales_summary_state WHERE id = 1");
+            if (rs.next()) {
+                lastOrderId = rs.getInt("last_order_id");
+                persistedOrderId = lastOrderId;
+            }
+
+            rs = stmt.executeQuery("SELECT dimension, bucket, order_count, quantity, revenue_cents FROM sales_summary");
+            while (rs.next()) {
+                String dimension = rs.getString("dimension");
+                long bucket = rs.getLong("bucket");
+                Counter counter;
+                switch (dimension) {
+                    case TOTAL: counter = totals; break;
+                    case ITEM: counter = counter(items, ITEM, (int) bucket); break;
+                    case CATEGORY: counter = counter(categories, CATEGORY, (int) bucket); break;
+                    case HOUR:
+                        if (bucket < oldestHour) continue;
+                        counter = counter(hours, HOUR, bucket);
+                        break;
+                    default: continue;
+                }
+                counter.add(rs.getLong("order_count"), rs.getLong("quantity"), rs.getLong("revenue_cents"));
+                counter.dirty = false;
+            }
+        }
+    }
+
+    // Orders committed after the last snapshot, e.g. before a crash, streamed in id order
+    private int replayOrders() throws SQLException {
+        String sql = """
+            SELECT o.order_id, o.discount_minor, o.fee_minor, o.tax_minor, o.created_at,
+                   oi.item_id, oi.quantity, %s AS price_minor
+            FROM orders o
+            LEFT JOIN order_items oi ON oi.order_id = o.order_id
+            WHERE o.order_id > ?
+            ORDER BY o.order_id, oi.order_item_id
+            """.formatted(OrderDAO.ITEM_PRICE_MINOR);
+
+        int replayed = 0;
+        try (Connection conn = database.getReadConnection("SalesAggregator.replayOrders");
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(500);
+            pstmt.setInt(1, lastOrderId);
+            ResultSet rs = pstmt.executeQuery();
+
+            // Orders from before the breakdown was stored read as undiscounted
+            int orderId = -1;
+            long discount = 0, fee = 0, tax = 0;
+            long createdAt = 0;
+            List<OrderRequest.Line> lines = new ArrayList<>();
+            while (rs.next()) {
+                int rowOrderId = rs.getInt("order_id");
+                if (rowOrderId != orderId) {
+                    if (orderId != -1) {
+                        record(orderId, replayRequest(lines, discount, fee, tax), createdAt);
+                        replayed++;
+                    }
+                    orderId = rowOrderId;
+                    discount = rs.getLong("discount_minor");
+                    fee = rs.getLong("fee_minor");
+                    tax = rs.getLong("tax_minor");
+                    createdAt = parseTimestamp(rs.getString("created_at"));
+                    lines = new ArrayList<>();
+                }
+                int itemId = rs.getInt("item_id");
+                if (!rs.wasNull()) {
+                    lines.add(new OrderRequest.Line(itemId, rs.getInt("quantity"), Money.ofMinor(rs.getLong("price_minor"))));
+                }
+            }
+            if (orderId != -1) {
+                record(orderId, replayRequest(lines, discount, fee, tax), createdAt);
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private static OrderRequest replayRequest(List<OrderRequest.Line> lines, long discount, long fee, long tax) {
+        Money subtotal = Money.zero();
+        for (OrderRequest.Line line : lines) {
+            subtotal = subtotal.plus(line.getPricePerUnit().times(line.getQuantity()));
+        }
+        PriceBreakdown price = PriceBreakdown.builder(subtotal)
+                .addDiscount("Discounts", Money.ofMinor(discount))
+                .addFee("Fees", Money.ofMinor(fee))
+                .addTax("Tax", Money.ofMinor(tax))
+                .build();
+        return new OrderRequest(null, null, null, null, price, lines);
+    }
+
+    /** Writes every counter that changed since the last snapshot in one transaction. */
+    public void snapshot() {
+        List<Counter> changed = new ArrayList<>();
+        List<Counter> copies = new ArrayList<>();
+        int watermark;
+        synchronized (this) {
+            if (lastOrderId == persistedOrderId) {
+                return;
+            }
+            // Counters and watermark are captured together so a restart neither skips nor repeats an order
+            collectDirty(changed, copies, totals);
+            for (Counter counter : items.values()) collectDirty(changed, copies, counter);
+            for (Counter counter : categories.values()) collectDirty(changed, copies, counter);
+            for (Counter counter : hours.values()) collectDirty(changed, copies, counter);
+            watermark = lastOrderId;
+        }
+
+        String upsertSql = """
+            INSERT INTO sales_summary (dimension, bucket, order_count, quantity, revenue_cents, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(dimension, bucket) DO UPDATE SET
+                order_count = excluded.order_count,
+                quantity = excluded.quantity,
+                revenue_cents = excluded.revenue_cents,
+                updated_at = excluded.updated_at
+            """;
+        String stateSql = """
+            INSERT INTO sales_summary_state (id, last_order_id, updated_at) VALUES (1, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET last_order_id = excluded.last_order_id, updated_at = excluded.updated_at
+            """;
+
+        Connection conn = null;
+        try {
+            conn = database.getWriteConnection("SalesAggregator.snapshot");
+            conn.setAutoCommit(false);
+            long now = System.currentTimeMillis();
+
+            try (PreparedStatement upsert = conn.prepareStatement(upsertSql);
+                 PreparedStatement state = conn.prepareStatement(stateSql)) {
+                for (Counter counter : copies) {
+                    upsert.setString(1, counter.dimension);
+                    upsert.setLong(2, counter.bucket);
+                    upsert.setLong(3, counter.orders);
+                    upsert.setLong(4, counter.quantity);
+                    upsert.setLong(5, counter.revenueMinor);
+                    upsert.setLong(6, now);
+                    upsert.addBatch();
+                }
+                upsert.executeBatch();
+
+                state.setInt(1, watermark);
+                state.setLong(2, now);
+                state.executeUpdate();
+            }
+
+            conn.commit();
+            snapshots.increment();
+            lastSnapshotAt = now;
+            synchronized (this) {
+                persistedOrderId = watermark;
+                evictOldHours();
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error snapshotting sales aggregates: " + e.getMessage());
+            failedSnapshots.increment();
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                log.error("❌ Error rolling back: " + ex.getMessage());
+            }
+            // Written again on the next tick
+            synchronized (this) {
+                for (Counter counter : changed) {
+                    counter.dirty = true;
+                }
+            }
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.error("❌ Error returning connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void collectDirty(List<Counter> changed, List<Counter> copies, Counter counter) {
+        if (counter.dirty) {
+            counter.dirty = false;
+            changed.add(counter);
+            copies.add(counter.copy());
+        }
+    }
+
+    // Old hours stay in sales_summary; memory keeps only the retained window
+    private void evictOldHours() {
+        long oldestHour = System.currentTimeMillis() / HOUR_MILLIS - hoursRetained + 1;
+        NavigableMap<Long, Counter> expired = hours.headMap(oldestHour, false);
+        expired.values().removeIf(counter -> !counter.dirty);
+    }
+
+    private void snapshotSafely() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            log.error("❌ Sales snapshot failed: " + e.getMessage());
+        }
+    }
+
+    private static long parseTimestamp(String value) {
+        if (value == null) {
+            return System.currentTimeMillis();
+        }
+        try {
+            // CURRENT_TIMESTAMP is UTC "yyyy-MM-dd HH:mm:ss"
+            return LocalDateTime.parse(value.length() > 19 ? value.substring(0, 19) : value, SQLITE_TIMESTAMP)
+                    .toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return System.currentTimeMillis();
+        }
+    }
+}
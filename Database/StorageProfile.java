@@ -0,0 +1,133 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQLite tuning applied to every pooled connection, plus the indexes and
+ * periodic statistics maintenance the hot queries rely on.
+ *
+ * WAL lets readers run alongside the single writer and mmap serves reads
+ * straight from the page cache. synchronous=NORMAL skips the fsync on each
+ * commit: committed transactions survive an application crash, but an OS
+ * crash or power loss can roll back the last few (never corrupt the file).
+ * Use -Ddb.synchronous=FULL where that matters.
+ */
+public class StorageProfile {
+    private static final Logger log = Log.getLogger(StorageProfile.class);
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSizeBytes;
+    private final int cacheSizeKib;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+    private final long optimizeIntervalMillis;
+    private ScheduledExecutorService maintenance;
+
+    public StorageProfile(String journalMode, String synchronous, long mmapSizeBytes, int cacheSizeKib,
+                          String tempStore, int busyTimeoutMillis, long optimizeIntervalMillis) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.cacheSizeKib = cacheSizeKib;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.optimizeIntervalMillis = optimizeIntervalMillis;
+    }
+
+    /** Reads the profile from -Ddb.* system properties, defaulting to the tuned values. */
+    public static StorageProfile fromSystemProperties() {
+        return new StorageProfile(
+                System.getProperty("db.journalMode", "WAL"),
+                System.getProperty("db.synchronous", "NORMAL"),
+                Long.getLong("db.mmapSizeBytes", 256L * 1024 * 1024),
+                Integer.getInteger("db.cacheSizeKib", 64 * 1024),
+                System.getProperty("db.tempStore", "MEMORY"),
+                Integer.getInteger("db.busyTimeoutMs", 5000),
+                TimeUnit.MINUTES.toMillis(Long.getLong("db.optimizeIntervalMinutes", 60)));
+    }
+
+    /** Per-connection settings; journal mode is persistent and only set by the writer. */
+    void applyTo(Connection conn, boolean readOnly) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            if (!readOnly) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = " + journalMode)) {
+                    if (rs.next() && !journalMode.equalsIgnoreCase(rs.getString(1))) {
+                        log.warn("⚠️  journal_mode is " + rs.getString(1) + ", wanted " + journalMode);
+                    }
+                }
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            // Negative cache_size is in KiB rather than pages
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKib);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /** Indexes for the order history, menu and order item lookups. */
+    public static void createIndexes(Statement stmt) throws SQLException {
+        // OrderDAO.getUserOrders: WHERE username = ? ORDER BY created_at DESC
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_username_created ON orders(username, created_at DESC, order_id DESC)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_created ON orders(created_at)");
+        // Covers the order_items side of the order history join; migration 13 adds price_minor
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items(order_id, item_id, quantity, price_per_unit)");
+        // FoodItemDAO: available items sorted by name, items per category
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_food_items_available_name ON food_items(available, name)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_food_items_category ON food_items(category_id)");
+    }
+
+    /** Gathers statistics once if the planner has none yet, then refreshes them periodically. */
+    public synchronized void startMaintenance(SQLiteConnection database) {
+        if (maintenance != null) return;
+
+        try (Connection conn = database.getWriteConnection();
+             Statement stmt = conn.createStatement()) {
+            boolean hasStats;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_stat1'")) {
+                hasStats = rs.next() && rs.getInt(1) > 0;
+            }
+            if (!hasStats) {
+                stmt.execute("ANALYZE");
+                log.info("📊 Collected query planner statistics");
+            }
+        } catch (SQLException e) {
+            log.error("❌ Error analyzing database: " + e.getMessage());
+        }
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(() -> optimize(database),
+                optimizeIntervalMillis, optimizeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopMaintenance() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+            maintenance = null;
+        }
+    }
+
+    // PRAGMA optimize only re-analyzes tables whose statistics look stale
+    void optimize(SQLiteConnection database) {
+        try (Connection conn = database.getWriteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA optimize");
+        } catch (SQLException e) {
+            log.error("❌ Error optimizing database: " + e.getMessage());
+        }
+    }
+}
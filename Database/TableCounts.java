@@ -0,0 +1,79 @@
+package Database;
+
+import Logging.Log;
+import Logging.Logger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Row counts of the main tables for diagnostics, cached for ttlMillis.
+ *
+ * COUNT(*) walks a whole table in SQLite, so the counts are computed at
+ * most once per TTL no matter how often they are requested. While one
+ * caller recounts, the others get the previous counts.
+ */
+public class TableCounts {
+    private static final Logger log = Log.getLogger(TableCounts.class);
+    private static final String[] TABLES = { "users", "categories", "food_items", "orders", "order_items", "carts" };
+
+    private final SQLiteConnection database;
+    private final long ttlMillis;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Map<String, Long> counts = Collections.emptyMap();
+    private volatile long computedAt;
+
+    public TableCounts(SQLiteConnection database, long ttlMillis) {
+        this.database = database;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /** Table name to row count; served from cache while it is fresh. */
+    public Map<String, Long> get() {
+        if (System.currentTimeMillis() - computedAt < ttlMillis) {
+            return counts;
+        }
+
+        // Only the first caller ever waits; after that a recount in progress means stale is fine
+        if (computedAt == 0) {
+            refreshLock.lock();
+        } else if (!refreshLock.tryLock()) {
+            return counts;
+        }
+        try {
+            if (System.currentTimeMillis() - computedAt < ttlMillis) {
+                return counts;
+            }
+            refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+        return counts;
+    }
+
+    private void refresh() {
+        Map<String, Long> fresh = new LinkedHashMap<>();
+        try (Connection conn = database.getReadConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                    fresh.put(table, rs.next() ? rs.getLong(1) : 0L);
+                }
+            }
+            counts = Collections.unmodifiableMap(fresh);
+        } catch (SQLException e) {
+            // Keep serving the previous counts rather than none
+            log.error("❌ Error counting tables: " + e.getMessage());
+        }
+        computedAt = System.currentTimeMillis();
+    }
+
+    public long getComputedAt() {
+        return computedAt;
+    }
+}
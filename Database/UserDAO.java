@@ -1,19 +1,19 @@
 package Database;
 
+import Logging.Log;
+import Logging.Logger;
 import Login.User;
 import java.sql.*;
 
 public class UserDAO {
-    private Connection connection;
-    
-    public UserDAO() {
-        connection = SQLiteConnection.getInstance().getConnection();
-    }
+    private static final Logger log = Log.getLogger(UserDAO.class);
+    private final SQLiteConnection database = SQLiteConnection.getInstance();
     
     public User authenticate(String username, String password) {
         String sql = "SELECT * FROM users WHERE username = ? AND password_hash = ? AND is_active = 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = database.getReadConnection("UserDAO.authenticate");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, password);
             
@@ -30,7 +30,7 @@ public class UserDAO {
                 return user;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Authentication error: " + e.getMessage());
+            log.error("❌ Authentication error: " + e.getMessage());
         }
         return null;
     }
@@ -38,12 +38,13 @@ public class UserDAO {
     public boolean usernameExists(String username) {
         String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = database.getReadConnection("UserDAO.usernameExists");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             return rs.getInt(1) > 0;
         } catch (SQLException e) {
-            System.err.println("❌ Error checking username: " + e.getMessage());
+            log.error("❌ Error checking username: " + e.getMessage());
             return false;
         }
     }
@@ -51,12 +52,13 @@ public class UserDAO {
     public boolean emailExists(String email) {
         String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = database.getReadConnection("UserDAO.emailExists");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, email);
             ResultSet rs = pstmt.executeQuery();
             return rs.getInt(1) > 0;
         } catch (SQLException e) {
-            System.err.println("❌ Error checking email: " + e.getMessage());
+            log.error("❌ Error checking email: " + e.getMessage());
             return false;
         }
     }
@@ -64,7 +66,8 @@ public class UserDAO {
     public boolean registerUser(User user, String email, String fullName, String phone) {
         String sql = "INSERT INTO users (username, password_hash, email, full_name, phone, role) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = database.getWriteConnection("UserDAO.registerUser");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getPasswordHash());
             pstmt.setString(3, email);
@@ -74,7 +77,7 @@ public class UserDAO {
             
             return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("❌ Registration error: " + e.getMessage());
+            log.error("❌ Registration error: " + e.getMessage());
             return false;
         }
     }
@@ -82,7 +85,8 @@ public class UserDAO {
     public User getUserByUsername(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = database.getReadConnection("UserDAO.getUserByUsername");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             
             ResultSet rs = pstmt.executeQuery();
@@ -98,7 +102,7 @@ public class UserDAO {
                 return user;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting user: " + e.getMessage());
+            log.error("❌ Error getting user: " + e.getMessage());
         }
         return null;
     }
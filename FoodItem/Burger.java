@@ -1,11 +0,0 @@
-package FoodItem;
-
-public class Burger implements FoodItem {
-    public String getDescription() {
-        return "Burger";
-    }
-
-    public double getPrice() {
-        return 200;
-    }
-}
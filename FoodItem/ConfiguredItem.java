@@ -0,0 +1,77 @@
+package FoodItem;
+
+import Pricing.Money;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A menu item with its chosen modifier options: the item plus a sorted
+ * array of option ids, with the price and description worked out once.
+ * Immutable; the catalog interns these, so every cart line holding the
+ * same configuration shares one instance.
+ */
+public final class ConfiguredItem implements FoodItem {
+    private static final int[] NO_OPTIONS = new int[0];
+
+    private final FoodItemEntity item;
+    private final int[] optionIds;     // ascending
+    private final Money price;
+    private final String description;
+    private final String modifierKey;  // option ids joined by ',', "" for none
+
+    public ConfiguredItem(FoodItemEntity item, ModifierOption... options) {
+        ModifierOption[] sorted = options.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(ModifierOption::getOptionId));
+
+        int[] ids = sorted.length == 0 ? NO_OPTIONS : new int[sorted.length];
+        Money total = item.getPrice();
+        StringBuilder description = new StringBuilder(item.getName());
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getOptionId();
+            total = total.plus(sorted[i].getPriceDelta());
+            description.append(" + ").append(sorted[i].getName());
+            if (i > 0) key.append(',');
+            key.append(ids[i]);
+        }
+
+        this.item = item;
+        this.optionIds = ids;
+        this.price = total;
+        this.description = description.toString();
+        this.modifierKey = key.toString();
+    }
+
+    /** Parses a modifier key back into option ids; throws IllegalArgumentException when malformed. */
+    public static int[] parseModifierKey(String key) {
+        if (key == null || key.isEmpty()) return NO_OPTIONS;
+        String[] parts = key.split(",");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                ids[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid modifier key: " + key);
+            }
+        }
+        return ids;
+    }
+
+    public FoodItemEntity getItem() { return item; }
+    public int getItemId() { return item.getItemId(); }
+    public int getOptionCount() { return optionIds.length; }
+    public int getOptionId(int index) { return optionIds[index]; }
+    public String getModifierKey() { return modifierKey; }
+    public boolean isAvailable() { return item.isAvailable(); }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Money getPrice() {
+        return price;
+    }
+}
@@ -1,8 +1,9 @@
 package FoodItem;
 
+import Pricing.Money;
 
 public interface FoodItem {
     String getDescription();
-    double getPrice();
+    Money getPrice();
 }
 
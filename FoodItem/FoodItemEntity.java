@@ -1,18 +1,20 @@
 package FoodItem;
 
+import Pricing.Money;
+
 public class FoodItemEntity {
     private int itemId;
     private String name;
     private String description;
     private int categoryId;
     private String categoryName;
-    private double price;
+    private Money price;
     private boolean available;
     private boolean vegetarian;
     
     // 8-parameter constructor
     public FoodItemEntity(int itemId, String name, String description, 
-                         int categoryId, String categoryName, double price, 
+                         int categoryId, String categoryName, Money price, 
                          boolean available, boolean vegetarian) {
         this.itemId = itemId;
         this.name = name;
@@ -30,7 +32,7 @@ public class FoodItemEntity {
     public String getDescription() { return description; }
     public int getCategoryId() { return categoryId; }
     public String getCategoryName() { return categoryName; }
-    public double getPrice() { return price; }
+    public Money getPrice() { return price; }
     public boolean isAvailable() { return available; }
     public boolean isVegetarian() { return vegetarian; }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package FoodItem;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of options offered on some menu items, e.g. "Pizza Extras". A
+ * configured item picks between minSelect and maxSelect of its options.
+ */
+public final class ModifierGroup {
+    private final int groupId;
+    private final String name;
+    private final int minSelect;
+    private final int maxSelect;
+    private final List<ModifierOption> options;   // in display order, unavailable ones included
+
+    public ModifierGroup(int groupId, String name, int minSelect, int maxSelect, List<ModifierOption> options) {
+        this.groupId = groupId;
+        this.name = name;
+        this.minSelect = minSelect;
+        this.maxSelect = maxSelect;
+        this.options = Collections.unmodifiableList(options);
+    }
+
+    public int getGroupId() { return groupId; }
+    public String getName() { return name; }
+    public int getMinSelect() { return minSelect; }
+    public int getMaxSelect() { return maxSelect; }
+    public List<ModifierOption> getOptions() { return options; }
+}
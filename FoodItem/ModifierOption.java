@@ -0,0 +1,26 @@
+package FoodItem;
+
+import Pricing.Money;
+
+/** One choice inside a modifier group, e.g. "Extra Cheese" for +1.50. */
+public final class ModifierOption {
+    private final int optionId;
+    private final int groupId;
+    private final String name;
+    private final Money priceDelta;
+    private final boolean available;
+
+    public ModifierOption(int optionId, int groupId, String name, Money priceDelta, boolean available) {
+        this.optionId = optionId;
+        this.groupId = groupId;
+        this.name = name;
+        this.priceDelta = priceDelta;
+        this.available = available;
+    }
+
+    public int getOptionId() { return optionId; }
+    public int getGroupId() { return groupId; }
+    public String getName() { return name; }
+    public Money getPriceDelta() { return priceDelta; }
+    public boolean isAvailable() { return available; }
+}
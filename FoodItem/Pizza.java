@@ -1,12 +0,0 @@
-package FoodItem;
-
-public class Pizza implements FoodItem {
-    public String getDescription() {
-        return "Pizza";
-    }
-
-    public double getPrice() {
-        return 300;
-    }
-}
-
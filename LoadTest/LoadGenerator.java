@@ -0,0 +1,311 @@
+package LoadTest;
+
+import Server.ServerExecutors;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-model load generator for capacity tests.
+ *
+ * Customer visits (see {@link Scenario}) arrive at a fixed average rate
+ * regardless of how fast the server answers, the way real traffic does.
+ * Each rate in load.rate is run as a step and reported on its own, e.g.
+ *
+ *   java -cp ".;lib\*" -Dload.rate=10,20,40,80 -Dload.durationSeconds=60 LoadTest.LoadGenerator
+ *
+ * finds the highest order rate whose p99 stays within load.sloP99Ms.
+ */
+public final class LoadGenerator {
+    private static final URI TARGET = URI.create(System.getProperty("load.target", "http://localhost:8080/"));
+    // Scenario arrivals per second; a comma-separated list runs one step per rate
+    private static final String RATES = System.getProperty("load.rate", "10");
+    private static final long DURATION_SECONDS = Long.getLong("load.durationSeconds", 60);
+    private static final long WARMUP_SECONDS = Long.getLong("load.warmupSeconds", 10);
+    // poisson (exponential gaps, like independent customers) or uniform (fixed gaps)
+    private static final boolean POISSON = !"uniform".equalsIgnoreCase(System.getProperty("load.arrivals", "poisson"));
+    // Customers registered before the run; 0 uses the default admin account for everything
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int CART_ADDS = Integer.getInteger("load.cartAdds", 3);
+    private static final long THINK_MILLIS = Long.getLong("load.thinkMs", 0);
+    private static final long TIMEOUT_MILLIS = Long.getLong("load.timeoutMs", 10000);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("load.maxInFlight", 10000);
+    private static final double SLO_P99_MILLIS = Double.parseDouble(System.getProperty("load.sloP99Ms", "500"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+    // Optional JSON copy of the summary, e.g. -Dload.report=load-report.json
+    private static final String REPORT_FILE = System.getProperty("load.report");
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        double[] rates = parseRates(RATES);
+        Duration timeout = Duration.ofMillis(TIMEOUT_MILLIS);
+
+        ExecutorService executor = ServerExecutors.newVirtualThreadPerTaskExecutor();
+        if (executor == null) {
+            System.err.println("⚠️  Virtual threads need JDK 21+, using a cached platform thread pool");
+            executor = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "load-scenario");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+
+        if (!isUp(client, timeout)) {
+            System.err.println("❌ " + TARGET + " is not answering /health/live");
+            System.exit(1);
+        }
+        List<String[]> users = prepareUsers(client, timeout);
+        Scenario scenario = new Scenario(client, TARGET, users, CART_ADDS,
+                TimeUnit.MILLISECONDS.toNanos(THINK_MILLIS), timeout);
+
+        System.out.println("🚦 Load test against " + TARGET + ": " + users.size() + " users, "
+                + CART_ADDS + " cart adds per order, " + (POISSON ? "Poisson" : "uniform") + " arrivals");
+
+        if (WARMUP_SECONDS > 0) {
+            System.out.println("🔥 Warming up at " + rates[0] + " scenarios/s for " + WARMUP_SECONDS + "s");
+            runStep(scenario, executor, new LoadStats(rates[0], TimeUnit.SECONDS.toNanos(WARMUP_SECONDS)));
+        }
+
+        List<LoadStats> steps = new ArrayList<>();
+        for (int i = 0; i < rates.length; i++) {
+            System.out.println("\n▶️  Step " + (i + 1) + "/" + rates.length + ": " + rates[i]
+                    + " scenarios/s for " + DURATION_SECONDS + "s");
+            LoadStats stats = new LoadStats(rates[i], TimeUnit.SECONDS.toNanos(DURATION_SECONDS));
+            runStep(scenario, executor, stats);
+            printStep(stats);
+            steps.add(stats);
+        }
+
+        printSummary(steps);
+        if (REPORT_FILE != null) {
+            writeReport(steps);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts scenarios at their scheduled arrival times for the step's
+     * duration, then waits for the ones still running. A scenario that
+     * starts late still counts from its scheduled time.
+     */
+    private static void runStep(Scenario scenario, ExecutorService executor, LoadStats stats) throws InterruptedException {
+        double meanGapNanos = 1e9 / stats.getTargetRate();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(Math.round(stats.getDurationSeconds()));
+        double due = start;
+
+        while (true) {
+            due += POISSON ? -Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos : meanGapNanos;
+            long arrival = (long) due;
+            if (arrival >= end) break;
+
+            long wait;
+            while ((wait = arrival - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+
+            // The generator's own limit; hitting it means the server is far behind
+            if (stats.inFlight.get() >= MAX_IN_FLIGHT) {
+                stats.dropped.increment();
+                continue;
+            }
+            stats.started.increment();
+            stats.inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    scenario.run(arrival, stats);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    // Unexpected response shape; the request itself was already recorded
+                    stats.failed.increment();
+                } finally {
+                    stats.inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        // Every request of a scenario may take up to the timeout
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS * (CART_ADDS + 4));
+        while (stats.inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static boolean isUp(HttpClient client, Duration timeout) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(TARGET.resolve("/health/live")).timeout(timeout).build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Registers the load test customers; ones left over from an earlier run are reused. */
+    private static List<String[]> prepareUsers(HttpClient client, Duration timeout) throws IOException, InterruptedException {
+        List<String[]> users = new ArrayList<>();
+        if (USERS <= 0) {
+            users.add(new String[] { "admin", "1234" });
+            return users;
+        }
+
+        for (int i = 1; i <= USERS; i++) {
+            String username = "loadtest" + i;
+            JsonObject body = new JsonObject();
+            body.addProperty("username", username);
+            body.addProperty("password", "loadtest");
+            body.addProperty("email", username + "@loadtest.local");
+            body.addProperty("fullName", "Load Test " + i);
+            HttpRequest request = HttpRequest.newBuilder(TARGET.resolve("/api/register"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            JsonObject reply = JsonParser.parseString(response.body()).getAsJsonObject();
+            String message = reply.has("message") ? reply.get("message").getAsString() : "";
+            if (!reply.get("success").getAsBoolean() && !message.contains("already exists")) {
+                throw new IOException("Cannot register " + username + ": " + message);
+            }
+            users.add(new String[] { username, "loadtest" });
+        }
+        return users;
+    }
+
+    private static double[] parseRates(String value) {
+        String[] parts = value.split(",");
+        double[] rates = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            rates[i] = Double.parseDouble(parts[i].trim());
+            if (rates[i] <= 0) {
+                throw new IllegalArgumentException("load.rate must be positive: " + value);
+            }
+        }
+        return rates;
+    }
+
+    private static boolean meetsSlo(LoadStats stats) {
+        return stats.getCompleted() > 0
+                && stats.dropped.sum() == 0
+                && stats.getWorstP99Millis() <= SLO_P99_MILLIS
+                && stats.getErrorRate() <= MAX_ERROR_RATE;
+    }
+
+    private static void printStep(LoadStats stats) {
+        System.out.printf("   Scenarios: %d started, %d completed, %d failed, %d dropped by the generator%n",
+                stats.started.sum(), stats.getCompleted(), stats.failed.sum(), stats.dropped.sum());
+        System.out.printf("   Orders/s: %.1f achieved of %.1f offered%n", stats.getAchievedRate(), stats.getTargetRate());
+        System.out.println("   Response time from when each request was due, in ms (service p99 from when it was sent):");
+        System.out.printf("   %-10s %8s %7s %5s %9s %9s %9s %9s %9s %12s%n",
+                "request", "count", "errors", "503s", "p50", "p90", "p99", "p99.9", "max", "service p99");
+        for (Map.Entry<String, LoadStats.RequestStats> entry : stats.getRequests().entrySet()) {
+            LoadStats.RequestStats request = entry.getValue();
+            System.out.printf("   %-10s %8d %7d %5d %9.1f %9.1f %9.1f %9.1f %9.1f %12.1f%n",
+                    entry.getKey(), request.response.getCount(), request.errors.sum(), request.shed.sum(),
+                    request.response.getPercentileMillis(50), request.response.getPercentileMillis(90),
+                    request.response.getPercentileMillis(99), request.response.getPercentileMillis(99.9),
+                    request.response.getMaxMillis(), request.service.getPercentileMillis(99));
+        }
+        System.out.printf("   %-10s %8d %7s %5s %9.1f %9.1f %9.1f %9.1f %9.1f%n", "scenario", stats.getCompleted(),
+                "", "", stats.scenarios.getPercentileMillis(50), stats.scenarios.getPercentileMillis(90),
+                stats.scenarios.getPercentileMillis(99), stats.scenarios.getPercentileMillis(99.9),
+                stats.scenarios.getMaxMillis());
+        System.out.println(meetsSlo(stats)
+                ? String.format("   ✅ Within SLO: worst p99 %.1f ms, %.2f%% errors", stats.getWorstP99Millis(), stats.getErrorRate() * 100)
+                : String.format("   ❌ Outside SLO: worst p99 %.1f ms (limit %.1f), %.2f%% errors (limit %.2f%%), %d dropped",
+                        stats.getWorstP99Millis(), SLO_P99_MILLIS, stats.getErrorRate() * 100, MAX_ERROR_RATE * 100,
+                        stats.dropped.sum()));
+    }
+
+    private static void printSummary(List<LoadStats> steps) {
+        LoadStats best = null;
+        for (LoadStats stats : steps) {
+            if (meetsSlo(stats) && (best == null || stats.getAchievedRate() > best.getAchievedRate())) {
+                best = stats;
+            }
+        }
+        System.out.println("\n" + "=".repeat(60));
+        if (best != null) {
+            System.out.printf("🏁 Highest rate within SLO: %.1f orders/s (offered %.1f), worst p99 %.1f ms%n",
+                    best.getAchievedRate(), best.getTargetRate(), best.getWorstP99Millis());
+        } else {
+            System.out.printf("🏁 No step stayed within SLO (p99 <= %.1f ms, errors <= %.2f%%)%n",
+                    SLO_P99_MILLIS, MAX_ERROR_RATE * 100);
+        }
+        System.out.println("=".repeat(60));
+    }
+
+    private static void writeReport(List<LoadStats> steps) throws IOException {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (LoadStats stats : steps) {
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("offeredRate", stats.getTargetRate());
+            step.put("achievedRate", stats.getAchievedRate());
+            step.put("durationSeconds", stats.getDurationSeconds());
+            step.put("started", stats.started.sum());
+            step.put("completed", stats.getCompleted());
+            step.put("failed", stats.failed.sum());
+            step.put("dropped", stats.dropped.sum());
+            step.put("errorRate", stats.getErrorRate());
+            step.put("withinSlo", meetsSlo(stats));
+
+            Map<String, Object> requests = new LinkedHashMap<>();
+            for (Map.Entry<String, LoadStats.RequestStats> entry : stats.getRequests().entrySet()) {
+                LoadStats.RequestStats request = entry.getValue();
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("count", request.response.getCount());
+                values.put("errors", request.errors.sum());
+                values.put("shed", request.shed.sum());
+                for (double percentile : PERCENTILES) {
+                    values.put("p" + percentileLabel(percentile) + "Ms", request.response.getPercentileMillis(percentile));
+                    values.put("serviceP" + percentileLabel(percentile) + "Ms", request.service.getPercentileMillis(percentile));
+                }
+                values.put("maxMs", request.response.getMaxMillis());
+                requests.put(entry.getKey(), values);
+            }
+            step.put("requests", requests);
+            report.add(step);
+        }
+
+        try (Writer out = Files.newBufferedWriter(Paths.get(REPORT_FILE), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(report, out);
+        }
+        System.out.println("📝 Report written to " + REPORT_FILE);
+    }
+
+    // 99.9 -> "99_9", 50 -> "50"
+    private static String percentileLabel(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? Long.toString((long) percentile)
+                : Double.toString(percentile).replace('.', '_');
+    }
+}
@@ -0,0 +1,109 @@
+package LoadTest;
+
+import Metrics.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of one load step, per request kind.
+ *
+ * Every request, failed or not, is recorded twice. Service time runs from the
+ * moment the request was sent; response time runs from the moment it was
+ * due. In an open model a scenario is due at its arrival time whether or
+ * not the server (or the generator) kept up, so response time is free of
+ * coordinated omission: a stall shows up as latency rather than as fewer
+ * samples.
+ */
+final class LoadStats {
+    static final String[] REQUESTS = { "login", "menu", "cart_add", "order", "orders" };
+
+    static final class RequestStats {
+        final LatencyHistogram response = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        // 503s from admission control or the order queue
+        final LongAdder shed = new LongAdder();
+
+        // Failures are timed too, so the histogram counts every attempt
+        long attempts() {
+            return response.getCount();
+        }
+    }
+
+    private final double targetRate;
+    private final long durationNanos;
+    // Fixed keys, filled in the constructor and only read afterwards
+    private final Map<String, RequestStats> requests = new LinkedHashMap<>();
+    final LatencyHistogram scenarios = new LatencyHistogram();
+    final LongAdder started = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    // Arrivals not started because load.maxInFlight scenarios were already running
+    final LongAdder dropped = new LongAdder();
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadStats(double targetRate, long durationNanos) {
+        this.targetRate = targetRate;
+        this.durationNanos = durationNanos;
+        for (String name : REQUESTS) {
+            requests.put(name, new RequestStats());
+        }
+    }
+
+    RequestStats get(String request) {
+        return requests.get(request);
+    }
+
+    Map<String, RequestStats> getRequests() {
+        return requests;
+    }
+
+    double getTargetRate() {
+        return targetRate;
+    }
+
+    double getDurationSeconds() {
+        return durationNanos / 1e9;
+    }
+
+    long getCompleted() {
+        return scenarios.getCount();
+    }
+
+    /** Completed scenarios, and so placed orders, per second. */
+    double getAchievedRate() {
+        return getCompleted() / getDurationSeconds();
+    }
+
+    long getErrors() {
+        long errors = 0;
+        for (RequestStats stats : requests.values()) {
+            errors += stats.errors.sum();
+        }
+        return errors;
+    }
+
+    long getAttempts() {
+        long attempts = 0;
+        for (RequestStats stats : requests.values()) {
+            attempts += stats.attempts();
+        }
+        return attempts;
+    }
+
+    double getErrorRate() {
+        long attempts = getAttempts();
+        return attempts == 0 ? 0.0 : (double) getErrors() / attempts;
+    }
+
+    /** The slowest request kind's corrected p99, in milliseconds. */
+    double getWorstP99Millis() {
+        double worst = 0.0;
+        for (RequestStats stats : requests.values()) {
+            worst = Math.max(worst, stats.response.getPercentileMillis(99));
+        }
+        return worst;
+    }
+}
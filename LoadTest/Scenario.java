@@ -0,0 +1,182 @@
+package LoadTest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One customer visit, the way the frontend drives the API:
+ * login, browse the menu, add items to the cart, place the order and
+ * look at the order history.
+ *
+ * Each request is due when the previous one finished plus the think time,
+ * and the first one at the scenario's arrival time.
+ */
+final class Scenario {
+    private final HttpClient client;
+    private final URI base;
+    private final List<String[]> users;
+    private final int cartAdds;
+    private final long thinkNanos;
+    private final Duration timeout;
+
+    // A response that passed the checks, and when it arrived
+    private static final class Reply {
+        final JsonElement body;
+        final long doneNanos;
+
+        Reply(JsonElement body, long doneNanos) {
+            this.body = body;
+            this.doneNanos = doneNanos;
+        }
+    }
+
+    Scenario(HttpClient client, URI base, List<String[]> users, int cartAdds, long thinkNanos, Duration timeout) {
+        this.client = client;
+        this.base = base;
+        this.users = users;
+        this.cartAdds = cartAdds;
+        this.thinkNanos = thinkNanos;
+        this.timeout = timeout;
+    }
+
+    void run(long arrivalNanos, LoadStats stats) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] user = users.get(random.nextInt(users.size()));
+        String username = user[0];
+
+        JsonObject credentials = new JsonObject();
+        credentials.addProperty("username", username);
+        credentials.addProperty("password", user[1]);
+        Reply login = send(stats, "login", arrivalNanos, post("/api/login", credentials));
+        if (login == null) {
+            stats.failed.increment();
+            return;
+        }
+        String sessionId = login.body.getAsJsonObject().get("sessionId").getAsString();
+
+        Reply menu = send(stats, "menu", nextDue(login), get("/api/menu"));
+        if (menu == null || menu.body.getAsJsonArray().size() == 0) {
+            stats.failed.increment();
+            return;
+        }
+        JsonArray items = menu.body.getAsJsonArray();
+
+        Reply previous = menu;
+        for (int i = 0; i < cartAdds; i++) {
+            JsonObject item = items.get(random.nextInt(items.size())).getAsJsonObject();
+            JsonObject add = new JsonObject();
+            add.addProperty("sessionId", sessionId);
+            add.addProperty("itemId", item.get("id").getAsInt());
+            add.addProperty("quantity", 1 + random.nextInt(3));
+            previous = send(stats, "cart_add", nextDue(previous), post("/api/cart/add", add));
+            if (previous == null) {
+                stats.failed.increment();
+                return;
+            }
+        }
+
+        JsonObject order = new JsonObject();
+        order.addProperty("sessionId", sessionId);
+        order.addProperty("username", username);
+        order.addProperty("address", "1 Load Test Road");
+        order.addProperty("phone", "0123456789");
+        order.addProperty("paymentMethod", "Cash on Delivery");
+        Reply placed = send(stats, "order", nextDue(previous), post("/api/order", order));
+        if (placed == null) {
+            stats.failed.increment();
+            return;
+        }
+
+        Reply history = send(stats, "orders", nextDue(placed),
+                get("/api/orders?username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)));
+        if (history == null) {
+            stats.failed.increment();
+            return;
+        }
+        stats.scenarios.record(history.doneNanos - arrivalNanos);
+    }
+
+    private long nextDue(Reply previous) {
+        return previous.doneNanos + thinkNanos;
+    }
+
+    /**
+     * Waits until the request is due, sends it and records it. Returns null
+     * when the request failed; the failure is already counted. Failed,
+     * timed-out and shed requests are timed like the rest, so the
+     * percentiles include them.
+     */
+    private Reply send(LoadStats stats, String name, long dueNanos, HttpRequest request) throws InterruptedException {
+        LoadStats.RequestStats requestStats = stats.get(name);
+        long wait;
+        while ((wait = dueNanos - System.nanoTime()) > 0) {
+            Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        }
+
+        long sentNanos = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            record(requestStats, dueNanos, sentNanos, System.nanoTime());
+            requestStats.errors.increment();
+            return null;
+        }
+        long doneNanos = System.nanoTime();
+        record(requestStats, dueNanos, sentNanos, doneNanos);
+
+        if (response.statusCode() != 200) {
+            requestStats.errors.increment();
+            if (response.statusCode() == 503) {
+                requestStats.shed.increment();
+            }
+            return null;
+        }
+
+        JsonElement body;
+        try {
+            body = JsonParser.parseString(response.body());
+        } catch (RuntimeException e) {
+            requestStats.errors.increment();
+            return null;
+        }
+        // Login, cart and order report failures as success=false with a 200
+        if (body.isJsonObject() && body.getAsJsonObject().has("success")
+                && !body.getAsJsonObject().get("success").getAsBoolean()) {
+            requestStats.errors.increment();
+            return null;
+        }
+
+        return new Reply(body, doneNanos);
+    }
+
+    private static void record(LoadStats.RequestStats requestStats, long dueNanos, long sentNanos, long doneNanos) {
+        requestStats.response.record(doneNanos - dueNanos);
+        requestStats.service.record(doneNanos - sentNanos);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest post(String path, JsonObject body) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+}
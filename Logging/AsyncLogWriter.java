@@ -0,0 +1,192 @@
+package Logging;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The single thread that turns log records into output.
+ *
+ * Callers only put records on a ring buffer; formatting, console output
+ * and file writes all happen here. When the buffer is full records are
+ * dropped and counted rather than making the caller wait.
+ */
+final class AsyncLogWriter implements Runnable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RingBuffer<LogRecord> buffer;
+    private final RollingFileWriter appLog;
+    private final RollingFileWriter accessLog;
+    private final boolean console;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private long reportedDrops;
+
+    AsyncLogWriter(int capacity, RollingFileWriter appLog, RollingFileWriter accessLog, boolean console) {
+        this.buffer = new RingBuffer<>(capacity);
+        this.appLog = appLog;
+        this.accessLog = accessLog;
+        this.console = console;
+        this.thread = new Thread(this, "log-writer");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void offer(LogRecord record) {
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    /** Writes out everything already queued, then stops. */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long getDroppedCount() { return dropped.sum(); }
+    long getWrittenCount() { return written.sum(); }
+    int getCapacity() { return buffer.capacity(); }
+
+    @Override
+    public void run() {
+        while (true) {
+            LogRecord record = buffer.poll();
+            if (record != null) {
+                write(record);
+                continue;
+            }
+            // Drained: push buffered output out while there is nothing else to do
+            reportDrops();
+            flush();
+            if (!running) {
+                break;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        close();
+    }
+
+    private void write(LogRecord record) {
+        try {
+            if (record.access) {
+                accessLog.writeLine(formatAccess(record));
+            } else {
+                appLog.writeLine(formatApp(record));
+                if (console) {
+                    printToConsole(record);
+                }
+            }
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            // The log itself is broken, so stderr is all that is left
+            System.err.println("❌ Log write failed: " + e.getMessage());
+        }
+    }
+
+    private void reportDrops() {
+        long total = dropped.sum();
+        if (total > reportedDrops) {
+            write(new LogRecord(Level.WARN, "logging",
+                    "⚠️  Log buffer full, dropped " + (total - reportedDrops) + " records", null));
+            reportedDrops = total;
+        }
+    }
+
+    private void printToConsole(LogRecord record) {
+        if (record.level.compareTo(Level.WARN) >= 0) {
+            System.err.println(record.message);
+            if (record.error != null) {
+                record.error.printStackTrace();
+            }
+        } else {
+            System.out.println(record.message);
+        }
+    }
+
+    private void flush() {
+        try {
+            appLog.flush();
+            accessLog.flush();
+        } catch (IOException e) {
+            System.err.println("❌ Log flush failed: " + e.getMessage());
+        }
+    }
+
+    private void close() {
+        try {
+            appLog.close();
+            accessLog.close();
+        } catch (IOException e) {
+            System.err.println("❌ Log close failed: " + e.getMessage());
+        }
+    }
+
+    private static String formatApp(LogRecord record) {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"ts\":\"").append(Instant.ofEpochMilli(record.timestamp)).append('"');
+        json.append(",\"level\":\"").append(record.level).append('"');
+        field(json, "logger", record.logger);
+        field(json, "thread", record.thread);
+        field(json, "msg", record.message);
+        if (record.error != null) {
+            StringWriter trace = new StringWriter();
+            record.error.printStackTrace(new PrintWriter(trace));
+            field(json, "error", trace.toString());
+        }
+        return json.append('}').toString();
+    }
+
+    private static String formatAccess(LogRecord record) {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"ts\":\"").append(Instant.ofEpochMilli(record.timestamp)).append('"');
+        field(json, "method", record.method);
+        field(json, "path", record.path);
+        json.append(",\"status\":").append(record.status);
+        json.append(",\"durationMs\":").append(record.durationMicros / 1000.0);
+        field(json, "remote", record.remoteAddress);
+        field(json, "thread", record.thread);
+        return json.append('}').toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
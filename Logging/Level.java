@@ -0,0 +1,17 @@
+package Logging;
+
+/** Log severity, lowest first. A logger set to a level drops everything below it. */
+public enum Level {
+    DEBUG, INFO, WARN, ERROR, OFF;
+
+    public static Level parse(String value, Level fallback) {
+        if (value == null || value.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
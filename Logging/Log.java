@@ -0,0 +1,78 @@
+package Logging;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entry point of the logging subsystem.
+ *
+ * Application records go to logs/app.log as one JSON object per line and,
+ * by default, to the console as plain text. HTTP access records go to
+ * logs/access.log. Both files rotate by size. Everything is written by a
+ * single background thread fed through a lock-free ring buffer.
+ *
+ * Configuration, e.g. -Dlog.level=WARN -Dlog.level.OrderDAO=DEBUG:
+ * log.level, log.level.&lt;logger&gt;, log.dir, log.maxFileBytes, log.maxFiles,
+ * log.bufferSize, log.console, log.sampleEvery, log.access.sampleEvery,
+ * log.access.slowMs.
+ */
+public final class Log {
+    private static final Level ROOT_LEVEL = Level.parse(System.getProperty("log.level"), Level.INFO);
+    private static final long SAMPLE_EVERY = Long.getLong("log.sampleEvery", 100);
+    private static final long ACCESS_SAMPLE_EVERY = Math.max(1, Long.getLong("log.access.sampleEvery", 1));
+    private static final long ACCESS_SLOW_MICROS = Long.getLong("log.access.slowMs", 500) * 1000;
+    private static final AtomicLong accessCount = new AtomicLong();
+
+    private static final AsyncLogWriter WRITER;
+    static {
+        Path dir = Paths.get(System.getProperty("log.dir", "logs"));
+        long maxBytes = Long.getLong("log.maxFileBytes", 10L * 1024 * 1024);
+        int maxFiles = Integer.getInteger("log.maxFiles", 5);
+        WRITER = new AsyncLogWriter(
+                Integer.getInteger("log.bufferSize", 8192),
+                new RollingFileWriter(dir.resolve("app.log"), maxBytes, maxFiles),
+                new RollingFileWriter(dir.resolve("access.log"), maxBytes, maxFiles),
+                Boolean.parseBoolean(System.getProperty("log.console", "true")));
+        WRITER.start();
+    }
+
+    private Log() {}
+
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getSimpleName());
+    }
+
+    public static Logger getLogger(String name) {
+        return new Logger(name, Level.parse(System.getProperty("log.level." + name), ROOT_LEVEL));
+    }
+
+    /**
+     * Records one HTTP request. Errors and slow requests are always kept;
+     * the rest are kept one in log.access.sampleEvery.
+     */
+    public static void access(String method, String path, int status, long durationMicros, String remoteAddress) {
+        boolean always = status >= 400 || durationMicros >= ACCESS_SLOW_MICROS;
+        if (!always && accessCount.getAndIncrement() % ACCESS_SAMPLE_EVERY != 0) {
+            return;
+        }
+        enqueue(new LogRecord(method, path, status, durationMicros, remoteAddress));
+    }
+
+    static void enqueue(LogRecord record) {
+        WRITER.offer(record);
+    }
+
+    static long getSampleEvery() {
+        return SAMPLE_EVERY;
+    }
+
+    public static long getDroppedCount() { return WRITER.getDroppedCount(); }
+    public static long getWrittenCount() { return WRITER.getWrittenCount(); }
+    public static int getBufferCapacity() { return WRITER.getCapacity(); }
+
+    /** Writes out whatever is still queued. Call last during shutdown. */
+    public static void shutdown() {
+        WRITER.stop();
+    }
+}
@@ -0,0 +1,48 @@
+package Logging;
+
+/**
+ * One log event as captured on the calling thread. Formatting happens
+ * later, on the writer thread.
+ */
+final class LogRecord {
+    final long timestamp = System.currentTimeMillis();
+    final String thread = Thread.currentThread().getName();
+    final Level level;
+    final String logger;
+    final String message;
+    final Throwable error;
+
+    // Access records only
+    final boolean access;
+    final String method;
+    final String path;
+    final int status;
+    final long durationMicros;
+    final String remoteAddress;
+
+    LogRecord(Level level, String logger, String message, Throwable error) {
+        this.level = level;
+        this.logger = logger;
+        this.message = message;
+        this.error = error;
+        this.access = false;
+        this.method = null;
+        this.path = null;
+        this.status = 0;
+        this.durationMicros = 0;
+        this.remoteAddress = null;
+    }
+
+    LogRecord(String method, String path, int status, long durationMicros, String remoteAddress) {
+        this.level = Level.INFO;
+        this.logger = "access";
+        this.message = null;
+        this.error = null;
+        this.access = true;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.durationMicros = durationMicros;
+        this.remoteAddress = remoteAddress;
+    }
+}
@@ -0,0 +1,66 @@
+package Logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Named logger. Every call only enqueues a record for the log writer
+ * thread, so logging never waits on the console or the disk.
+ */
+public final class Logger {
+    private final String name;
+    private final Level level;
+
+    Logger(String name, Level level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    public boolean isEnabled(Level candidate) {
+        return candidate.compareTo(level) >= 0 && candidate != Level.OFF;
+    }
+
+    public void debug(String message) { log(Level.DEBUG, message, null); }
+    public void info(String message) { log(Level.INFO, message, null); }
+    public void warn(String message) { log(Level.WARN, message, null); }
+    public void warn(String message, Throwable error) { log(Level.WARN, message, error); }
+    public void error(String message) { log(Level.ERROR, message, null); }
+    public void error(String message, Throwable error) { log(Level.ERROR, message, error); }
+
+    /** Builds the message only when DEBUG is enabled. */
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    private void log(Level candidate, String message, Throwable error) {
+        if (isEnabled(candidate)) {
+            Log.enqueue(new LogRecord(candidate, name, message, error));
+        }
+    }
+
+    /** An INFO line for a high-volume event that is logged once every n occurrences. */
+    public Sampler sampled() {
+        return new Sampler(Log.getSampleEvery());
+    }
+
+    public final class Sampler {
+        private final long every;
+        private final AtomicLong occurrences = new AtomicLong();
+
+        Sampler(long every) {
+            this.every = Math.max(1, every);
+        }
+
+        /** Logs the first occurrence and every n-th after it; the message is only built then. */
+        public void info(Supplier<String> message) {
+            if (!isEnabled(Level.INFO)) return;
+            long n = occurrences.getAndIncrement();
+            if (n % every == 0) {
+                String text = message.get();
+                log(Level.INFO, every == 1 ? text : text + " (1 in " + every + ", " + (n + 1) + " so far)", null);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package Logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends lines to a file and rotates it by size: name.log becomes
+ * name.log.1, the old .1 becomes .2, and so on up to maxFiles.
+ *
+ * Only the log writer thread uses an instance, so it is not thread-safe.
+ */
+final class RollingFileWriter {
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private Writer writer;
+    private long size;
+
+    RollingFileWriter(Path file, long maxBytes, int maxFiles) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    void writeLine(String line) throws IOException {
+        if (writer == null) {
+            open();
+        }
+        writer.write(line);
+        writer.write('\n');
+        // Close enough for rotation; most log lines are ASCII
+        size += line.length() + 1;
+        if (size >= maxBytes) {
+            rotate();
+        }
+    }
+
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        size = Files.exists(file) ? Files.size(file) : 0;
+        writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+    }
+
+    private void rotate() throws IOException {
+        close();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = sibling(i);
+            if (Files.exists(older)) {
+                Files.move(older, sibling(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, sibling(1), StandardCopyOption.REPLACE_EXISTING);
+        size = 0;
+    }
+
+    private Path sibling(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -2,7 +2,10 @@
 
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpContext;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -11,38 +14,179 @@ import FoodItem.*;
 import Cart.*;
 import Login.*;
 import Order.*;
+import Server.*;
+import User.Session;
+import User.SessionStore;
+import Catalog.CatalogSnapshot;
+import Catalog.MenuCatalog;
+import Catalog.MenuJson;
+import Logging.Log;
+import Logging.Logger;
+import Metrics.JvmMetrics;
+import Metrics.MetricsRegistry;
+import Pricing.Money;
+import Pricing.PriceBreakdown;
+import Pricing.PricingPipeline;
+import Pricing.Promotion;
+import Pricing.PromotionDiscounts;
 import Database.OrderDAO;
 import Database.FoodItemDAO;
 import Order.OrderEntity;
 
 import java.io.*;
 import java.net.InetSocketAddress;
-import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.sql.*;
 
 public class Main {
+    private static final Logger log = Log.getLogger(Main.class);
+    // Per-request success lines are sampled; the access log has every request
+    private static final Logger.Sampler menuLog = log.sampled();
+    private static final Logger.Sampler menuItemLog = log.sampled();
+    private static final Logger.Sampler categoriesLog = log.sampled();
+    private static final Logger.Sampler cartAddLog = log.sampled();
+    private static final Logger.Sampler cartLog = log.sampled();
+    private static final Logger.Sampler ordersLog = log.sampled();
+    private static final Logger.Sampler profileLog = log.sampled();
+    private static final Logger.Sampler restoreLog = log.sampled();
+    
     private static Gson gson = new Gson();
     private static UserDAO userDAO = new UserDAO();
     private static FoodItemDAO foodDAO = new FoodItemDAO();
     private static OrderDAO orderDAO = new OrderDAO();
+    private static MenuCatalog menuCatalog = new MenuCatalog(foodDAO, new PromotionDAO(), new ModifierDAO());
+    
+    // How often the menu cache checks the catalog version, e.g. -Dcatalog.refreshMs=5000
+    private static final long CATALOG_REFRESH_MILLIS = Long.getLong("catalog.refreshMs", 10000);
+    
+    // Active sessions and their carts, e.g. -Dsession.idleTtlMinutes=30 -Dsession.max=100000
+    private static final SessionStore sessionStore = new SessionStore(
+            TimeUnit.MINUTES.toMillis(Long.getLong("session.idleTtlMinutes", 30)),
+            TimeUnit.HOURS.toMillis(Long.getLong("session.absoluteTtlHours", 12)),
+            Integer.getInteger("session.max", 100_000));
+    
+    // Carts survive restarts; changes are flushed in batches every cart.flushMs
+    private static final CartRepository cartRepository = new CartRepository(
+            Long.getLong("cart.flushMs", 250),
+            TimeUnit.HOURS.toMillis(Long.getLong("session.absoluteTtlHours", 12)));
+    
+    // Cart pricing after the subtotal, e.g. -Dpricing.deliveryFeeMinor=299 -Dpricing.taxBasisPoints=1000
+    private static final CartTotalStrategy PRICING = new PricingPipeline(
+            List.of(new PromotionDiscounts(menuCatalog::getPromotions)),
+            List.of(new PricingPipeline.FlatFee("Delivery fee", Money.ofMinor(Long.getLong("pricing.deliveryFeeMinor", 299)))),
+            List.of(new PricingPipeline.PercentageTax("Tax", Integer.getInteger("pricing.taxBasisPoints", 1000))));
+    
+    // Orders are group-committed by a single writer, e.g. -Dorder.maxBatchSize=128 -Dorder.maxBatchDelayMs=5
+    private static final OrderIngestionPipeline orderPipeline = new OrderIngestionPipeline(
+            Integer.getInteger("order.queueCapacity", 1024),
+            Integer.getInteger("order.maxBatchSize", 64),
+            Long.getLong("order.maxBatchDelayMs", 2),
+            Long.getLong("order.enqueueTimeoutMs", 100));
+    private static final long ORDER_TIMEOUT_MILLIS = Long.getLong("order.timeoutMs", 10000);
+    
+    // Sales counters updated on commit, snapshotted every stats.snapshotMs
+    private static final SalesAggregator salesAggregator = new SalesAggregator(
+            itemId -> {
+                FoodItemEntity item = menuCatalog.getItem(itemId);
+                return item != null ? item.getCategoryId() : -1;
+            },
+            Long.getLong("stats.snapshotMs", 60000),
+            Integer.getInteger("stats.hoursRetained", 168));
+    // Order history page size; clients may ask for fewer or more up to the cap
+    private static final int ORDER_PAGE_SIZE = Integer.getInteger("orders.pageSize", 20);
+    private static final int MAX_ORDER_PAGE_SIZE = Integer.getInteger("orders.maxPageSize", 100);
+    // Most lines one /api/cart/add request may carry, e.g. -Dcart.maxBatchItems=100
+    private static final int MAX_CART_BATCH = Integer.getInteger("cart.maxBatchItems", 100);
+    private static final java.util.regex.Pattern EXPORT_DATE =
+            java.util.regex.Pattern.compile("\\d{4}-\\d{2}-\\d{2}( \\d{2}:\\d{2}(:\\d{2})?)?");
+    
+    // Health probes: SELECT 1 at most every health.probeIntervalMs, table counts cached for diag.countsTtlMs
+    private static final DatabaseProbe databaseProbe = new DatabaseProbe(SQLiteConnection.getInstance(),
+            Long.getLong("health.probeIntervalMs", 5000));
+    private static final TableCounts tableCounts = new TableCounts(SQLiteConnection.getInstance(),
+            Long.getLong("diag.countsTtlMs", 30000));
+    private static final double MAX_ORDER_QUEUE_FILL = Double.parseDouble(System.getProperty("health.maxOrderQueueFill", "0.9"));
+    private static final long START_TIME = System.currentTimeMillis();
     
-    // Store active carts in memory (session-based)
-    private static Map<String, Cart> userCarts = new HashMap<>();
+    // Routes reported by name in /metrics; any other /api path is counted as /api/other
+    private static final Set<String> API_ROUTES = Set.of(
+            "/api/test", "/api/diagnostics", "/api/login", "/api/register", "/api/menu", "/api/categories",
+            "/api/cart/add", "/api/cart", "/api/cart/clear", "/api/cart/coupon", "/api/order", "/api/orders", "/api/user/profile",
+            "/api/admin/orders/export", "/api/admin/stats/sales", "/health/live", "/health/ready");
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    
+    // Request execution settings, e.g. -Dserver.executor=platform -Dserver.maxInFlight=64
+    private static final ServerExecutors.Mode EXECUTOR_MODE = ServerExecutors.Mode.parse(System.getProperty("server.executor"));
+    private static final int PLATFORM_THREADS = Integer.getInteger("server.threads", Runtime.getRuntime().availableProcessors() * 4);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("server.maxInFlight", 256);
+    private static final int MAX_QUEUED = Integer.getInteger("server.maxQueued", 512);
+    private static final long QUEUE_TIMEOUT_MILLIS = Long.getLong("server.queueTimeoutMs", 2000);
+    private static final int RETRY_AFTER_SECONDS = Integer.getInteger("server.retryAfterSeconds", 1);
+    
+    // 0 picks a free port, as the CDS training run does
+    private static final int SERVER_PORT = Integer.getInteger("server.port", 8080);
+    // Exercise the endpoints once started, then exit; used to build class-data sharing archives
+    private static final boolean TRAINING_RUN = Boolean.getBoolean("server.trainingRun");
+    private static final int TRAINING_ROUNDS = Integer.getInteger("server.trainingRounds", 20);
+    
+    private static AdmissionFilter admissionFilter;
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static final AtomicBoolean stopped = new AtomicBoolean();
+    
+    // Frontend files are served from memory, e.g. -Dstatic.maxAgeSeconds=86400 -Dstatic.watch=false
+    private static final StaticAssetServer staticAssets = new StaticAssetServer(
+            Paths.get("frontend"), Integer.getInteger("static.maxAgeSeconds", 3600));
     
     public static void main(String[] args) throws IOException {
         System.out.println(getAsciiArt());
-        System.out.println("🚀 Starting Food Delivery System Backend Server...");
+        log.info("🚀 Starting Food Delivery System Backend Server...");
         
         // Initialize database
         initializeDatabase();
         
-        // Create HTTP server on port 8080
-        HttpServer server = HttpServer.create(new InetSocketAddress(8080), 0);
-        System.out.println("🌐 HTTP Server created on port 8080");
+        // Expire idle sessions in the background; a session that ends takes its stored cart with it
+        sessionStore.onEnd(session -> cartRepository.discard(session.getSessionId()));
+        sessionStore.startSweeper(TimeUnit.SECONDS.toMillis(30));
+        
+        // Write cart changes behind the request path
+        cartRepository.start();
+        
+        // Sales aggregates catch up before any new order can commit
+        salesAggregator.start();
+        orderDAO.setCommitListener(salesAggregator);
+        orderPipeline.setCommitListener(salesAggregator);
+        
+        // Start the order writer
+        orderPipeline.start();
+        
+        // Preload frontend assets
+        staticAssets.load();
+        if (Boolean.parseBoolean(System.getProperty("static.watch", "true"))) {
+            staticAssets.startWatching();
+        }
+        
+        // The JDK server leaves Nagle on, which holds small keep-alive responses
+        // back until the client's delayed ACK (~40ms); read once, when the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        
+        // Create HTTP server, on port 8080 unless -Dserver.port is set
+        server = HttpServer.create(new InetSocketAddress(SERVER_PORT), 0);
+        int port = server.getAddress().getPort();
+        log.info("🌐 HTTP Server created on port " + port);
         
         // Set up request handler
-        server.createContext("/", exchange -> {
+        HttpContext context = server.createContext("/", exchange -> {
             try {
                 // Handle preflight requests
                 if ("OPTIONS".equals(exchange.getRequestMethod())) {
@@ -58,25 +202,95 @@ public class Main {
                     handleApiRequest(exchange);
                 } else {
                     // Serve static files from frontend folder
-                    serveStaticFile(exchange);
+                    staticAssets.serve(exchange);
                 }
             } catch (Exception e) {
-                e.printStackTrace();
+                log.error("❌ Unhandled error for " + exchange.getRequestURI().getPath(), e);
                 sendErrorResponse(exchange, 500, "Internal server error: " + e.getMessage());
             }
         });
         
-        server.setExecutor(null);
+        // Metrics and access log come first so requests shed by admission control are recorded too
+        MetricsFilter metricsFilter = new MetricsFilter(metrics, Main::routeOf);
+        AccessLogFilter accessLogFilter = new AccessLogFilter();
+        context.getFilters().add(metricsFilter);
+        context.getFilters().add(accessLogFilter);
+        
+        // Admission control: bounded in-flight requests, 503 + Retry-After when saturated
+        admissionFilter = new AdmissionFilter(MAX_IN_FLIGHT, MAX_QUEUED, QUEUE_TIMEOUT_MILLIS, RETRY_AFTER_SECONDS);
+        if (EXECUTOR_MODE != ServerExecutors.Mode.LEGACY) {
+            context.getFilters().add(admissionFilter);
+        }
+        
+        // Load balancer probes get their own context, outside admission control
+        HttpContext healthContext = server.createContext("/health/", exchange -> {
+            try {
+                switch (exchange.getRequestURI().getPath()) {
+                    case "/health/live": handleLiveness(exchange); break;
+                    case "/health/ready": handleReadiness(exchange); break;
+                    default: sendErrorResponse(exchange, 404, "Health endpoint not found");
+                }
+            } catch (Exception e) {
+                log.error("❌ Health check error", e);
+                sendErrorResponse(exchange, 500, "Health check error: " + e.getMessage());
+            }
+        });
+        healthContext.getFilters().add(metricsFilter);
+        healthContext.getFilters().add(accessLogFilter);
+        
+        // Prometheus scrape endpoint, also outside admission control
+        registerMetrics();
+        server.createContext("/metrics", Main::handleMetrics);
+        
+        // Enough platform threads for every admitted and queued request, plus
+        // the same again as the core pool for health checks and metrics
+        executor = ServerExecutors.create(EXECUTOR_MODE, PLATFORM_THREADS, MAX_IN_FLIGHT + MAX_QUEUED + PLATFORM_THREADS);
+        server.setExecutor(executor);
         server.start();
+        log.info("⚙️  Executor mode: " + EXECUTOR_MODE);
         
-        displayStartupInfo();
+        displayStartupInfo(port);
         
         // Add shutdown hook
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("\n🔴 Shutting down server...");
-            SQLiteConnection.getInstance().closeConnection();
-            System.out.println("👋 Goodbye!");
-        }));
+        Runtime.getRuntime().addShutdownHook(new Thread(Main::stop));
+        
+        if (TRAINING_RUN) {
+            boolean passed;
+            try {
+                passed = TrainingRun.run(java.net.URI.create("http://localhost:" + port + "/"), TRAINING_ROUNDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                passed = false;
+            }
+            System.exit(passed ? 0 : 1);
+        }
+    }
+    
+    /** Stops the server and every background worker; runs once, from the shutdown hook or an embedding caller. */
+    public static void stop() {
+        if (server == null || !stopped.compareAndSet(false, true)) {
+            return;
+        }
+        log.info("🔴 Shutting down server...");
+        server.stop(1);
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        staticAssets.stop();
+        sessionStore.stop();
+        menuCatalog.stop();
+        DatabaseInitializer.stopBackfills();
+        orderPipeline.stop();
+        salesAggregator.stop();
+        cartRepository.stop();
+        SQLiteConnection.getInstance().closeConnection();
+        log.info("👋 Goodbye!");
+        Log.shutdown();
     }
     
     private static String getAsciiArt() {
@@ -89,44 +303,50 @@ public class Main {
     }
     
     private static void initializeDatabase() {
-        System.out.println("🗄️  Initializing database...");
+        log.info("🗄️  Initializing database...");
         DatabaseInitializer.initializeDatabase();
         
+        // Planner statistics and periodic PRAGMA optimize
+        SQLiteConnection.getInstance().getStorageProfile().startMaintenance(SQLiteConnection.getInstance());
+        
+        // Warm the menu cache and keep it in sync with catalog edits
+        menuCatalog.invalidate();
+        menuCatalog.startPolling(CATALOG_REFRESH_MILLIS);
+        
         // Test database connection
-        try {
-            Connection conn = SQLiteConnection.getInstance().getConnection();
-            if (conn != null && !conn.isClosed()) {
-                System.out.println("✅ Database connection successful");
-                
-                // Count users and menu items
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users");
-                if (rs.next()) {
-                    System.out.println("👤 Users in database: " + rs.getInt(1));
-                }
-                
-                rs = stmt.executeQuery("SELECT COUNT(*) FROM food_items");
-                if (rs.next()) {
-                    System.out.println("🍕 Menu items in database: " + rs.getInt(1));
-                }
-                
-                stmt.close();
+        try (Connection conn = SQLiteConnection.getInstance().getReadConnection();
+             Statement stmt = conn.createStatement()) {
+            log.info("✅ Database connection successful");
+            
+            // Count users and menu items
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users");
+            if (rs.next()) {
+                log.info("👤 Users in database: " + rs.getInt(1));
+            }
+            
+            rs = stmt.executeQuery("SELECT COUNT(*) FROM food_items");
+            if (rs.next()) {
+                log.info("🍕 Menu items in database: " + rs.getInt(1));
             }
         } catch (SQLException e) {
-            System.err.println("❌ Database connection test failed: " + e.getMessage());
+            log.error("❌ Database connection test failed: " + e.getMessage());
         }
     }
     
-    private static void displayStartupInfo() {
+    private static void displayStartupInfo(int port) {
         System.out.println("\n" + "=".repeat(60));
         System.out.println("✅ BACKEND SERVER STARTED SUCCESSFULLY!");
         System.out.println("=".repeat(60));
-        System.out.println("📡 Server URL: http://localhost:8080");
-        System.out.println("🔌 API Base: http://localhost:8080/api");
-        System.out.println("📁 Frontend: http://localhost:8080/index.html");
-        System.out.println("🗄️  Database: database/food_delivery.db");
+        System.out.println("📡 Server URL: http://localhost:" + port);
+        System.out.println("🔌 API Base: http://localhost:" + port + "/api");
+        System.out.println("📁 Frontend: http://localhost:" + port + "/index.html");
+        System.out.println("🗄️  Database: " + SQLiteConnection.getDatabasePath());
         System.out.println("\n📋 AVAILABLE ENDPOINTS:");
-        System.out.println("   • GET  /api/test          - Health check");
+        System.out.println("   • GET  /api/test          - Server status");
+        System.out.println("   • GET  /health/live       - Liveness probe");
+        System.out.println("   • GET  /health/ready      - Readiness probe");
+        System.out.println("   • GET  /api/diagnostics   - Cached table counts");
+        System.out.println("   • GET  /metrics           - Prometheus metrics");
         System.out.println("   • POST /api/login         - User login");
         System.out.println("   • POST /api/register      - User registration");
         System.out.println("   • GET  /api/menu          - Get all menu items");
@@ -134,9 +354,12 @@ public class Main {
         System.out.println("   • POST /api/cart/add      - Add item to cart");
         System.out.println("   • GET  /api/cart          - Get cart items");
         System.out.println("   • POST /api/cart/clear    - Clear cart");
+        System.out.println("   • POST /api/cart/coupon   - Apply or remove a coupon code");
         System.out.println("   • POST /api/order         - Place order");
         System.out.println("   • GET  /api/orders        - Get user orders");
         System.out.println("   • GET  /api/user/profile  - Get user profile");
+        System.out.println("   • GET  /api/admin/orders/export - Export orders as NDJSON (admin)");
+        System.out.println("   • GET  /api/admin/stats/sales   - Sales dashboard (admin)");
         System.out.println("\n👤 DEFAULT USERS:");
         System.out.println("   • Username: admin");
         System.out.println("   • Password: 1234");
@@ -157,13 +380,15 @@ public class Main {
         String path = exchange.getRequestURI().getPath();
         String method = exchange.getRequestMethod();
         
-        System.out.println("📨 " + method + " " + path);
-        
         try {
             switch (path) {
                 case "/api/test":
                     handleTestEndpoint(exchange);
                     break;
+                case "/api/diagnostics":
+                    if ("GET".equals(method)) handleDiagnostics(exchange);
+                    else sendErrorResponse(exchange, 405, "Method not allowed");
+                    break;
                 case "/api/login":
                     if ("POST".equals(method)) handleLogin(exchange);
                     else sendErrorResponse(exchange, 405, "Method not allowed");
@@ -192,11 +417,27 @@ public class Main {
                     if ("POST".equals(method)) handleClearCart(exchange);
                     else sendErrorResponse(exchange, 405, "Method not allowed");
                     break;
+                case "/api/cart/coupon":
+                    if ("POST".equals(method)) handleApplyCoupon(exchange);
+                    else sendErrorResponse(exchange, 405, "Method not allowed");
+                    break;
                 case "/api/order":
                     if ("POST".equals(method)) handlePlaceOrder(exchange);
                     else if ("GET".equals(method)) handleGetOrders(exchange);
                     else sendErrorResponse(exchange, 405, "Method not allowed");
                     break;
+                case "/api/orders":
+                    if ("GET".equals(method)) handleGetOrders(exchange);
+                    else sendErrorResponse(exchange, 405, "Method not allowed");
+                    break;
+                case "/api/admin/orders/export":
+                    if ("GET".equals(method)) handleExportOrders(exchange);
+                    else sendErrorResponse(exchange, 405, "Method not allowed");
+                    break;
+                case "/api/admin/stats/sales":
+                    if ("GET".equals(method)) handleSalesStats(exchange);
+                    else sendErrorResponse(exchange, 405, "Method not allowed");
+                    break;
                 case "/api/user/profile":
                     if ("GET".equals(method)) handleGetUserProfile(exchange);
                     else sendErrorResponse(exchange, 405, "Method not allowed");
@@ -211,7 +452,7 @@ public class Main {
                     }
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Error handling " + method + " " + path, e);
             sendErrorResponse(exchange, 500, "Server error: " + e.getMessage());
         }
     }
@@ -224,28 +465,176 @@ public class Main {
         response.addProperty("timestamp", System.currentTimeMillis());
         response.addProperty("version", "1.0.0");
         
-        try {
-            Connection conn = SQLiteConnection.getInstance().getConnection();
-            if (conn != null && !conn.isClosed()) {
-                response.addProperty("databaseStatus", "connected");
-                
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users");
-                if (rs.next()) response.addProperty("userCount", rs.getInt(1));
-                
-                rs = stmt.executeQuery("SELECT COUNT(*) FROM food_items");
-                if (rs.next()) response.addProperty("menuItemCount", rs.getInt(1));
-                
-                rs = stmt.executeQuery("SELECT COUNT(*) FROM orders");
-                if (rs.next()) response.addProperty("orderCount", rs.getInt(1));
-                
-                stmt.close();
-            }
-        } catch (SQLException e) {
-            response.addProperty("databaseStatus", "error: " + e.getMessage());
+        DatabaseProbe.Result probe = databaseProbe.check();
+        response.addProperty("databaseStatus", probe.isHealthy() ? "connected" : "error: " + probe.getError());
+        Long userCount = tableCounts.get().get("users");
+        if (userCount != null) response.addProperty("userCount", userCount);
+        
+        // Precomputed, so the health check no longer scans food_items or orders
+        response.addProperty("menuItemCount", menuCatalog.getSnapshot().getItemCount());
+        response.addProperty("orderCount", salesAggregator.getTotals().getOrders());
+        
+        // Request admission state
+        JsonObject admission = new JsonObject();
+        admission.addProperty("executorMode", EXECUTOR_MODE.toString());
+        admission.addProperty("inFlight", admissionFilter.getInFlight());
+        admission.addProperty("queued", admissionFilter.getQueued());
+        admission.addProperty("rejected", admissionFilter.getRejectedCount());
+        response.add("admission", admission);
+        
+        response.add("sessions", gson.toJsonTree(sessionStore.getMetrics()));
+        
+        // Order writer state
+        JsonObject orders = new JsonObject();
+        orders.addProperty("queueDepth", orderPipeline.getQueueDepth());
+        orders.addProperty("batches", orderPipeline.getBatchCount());
+        orders.addProperty("committed", orderPipeline.getCommittedCount());
+        orders.addProperty("failed", orderPipeline.getFailedCount());
+        orders.addProperty("rejected", orderPipeline.getRejectedCount());
+        orders.addProperty("cancelled", orderPipeline.getCancelledCount());
+        orders.addProperty("lastBatchSize", orderPipeline.getLastBatchSize());
+        response.add("orderPipeline", orders);
+        
+        // Connection pool state
+        ConnectionPool pool = SQLiteConnection.getInstance().getPool();
+        if (pool != null) {
+            JsonObject poolStats = gson.toJsonTree(pool.getMetrics().snapshot()).getAsJsonObject();
+            poolStats.addProperty("readers", pool.getReaderCount());
+            poolStats.addProperty("idleReaders", pool.getIdleReaders());
+            poolStats.addProperty("writerIdle", pool.isWriterIdle());
+            response.add("connectionPool", poolStats);
+        }
+        
+        sendJsonResponse(exchange, 200, response);
+    }
+    
+    private static String routeOf(String path) {
+        if (API_ROUTES.contains(path)) return path;
+        if (path.startsWith("/api/menu/")) return "/api/menu/{id}";
+        if (path.startsWith("/api/")) return "/api/other";
+        if (path.startsWith("/health/")) return "/health/other";
+        return "static";
+    }
+    
+    // Gauges read from existing components at scrape time
+    private static void registerMetrics() {
+        JvmMetrics.register(metrics);
+        
+        metrics.gauge("admission_in_flight", "Requests holding an admission slot", admissionFilter::getInFlight);
+        metrics.gauge("admission_queued", "Requests waiting for an admission slot", admissionFilter::getQueued);
+        metrics.counter("admission_rejected_total", "Requests answered with 503 by admission control",
+                admissionFilter::getRejectedCount);
+        
+        metrics.gauge("order_queue_depth", "Orders waiting for the order writer", orderPipeline::getQueueDepth);
+        metrics.counter("order_batches_total", "Order batches committed", orderPipeline::getBatchCount);
+        metrics.counter("orders_committed_total", "Orders committed", orderPipeline::getCommittedCount);
+        metrics.counter("orders_failed_total", "Orders that failed to write", orderPipeline::getFailedCount);
+        metrics.counter("orders_rejected_total", "Orders rejected by a full queue", orderPipeline::getRejectedCount);
+        metrics.counter("orders_cancelled_total", "Orders withdrawn by callers that stopped waiting",
+                orderPipeline::getCancelledCount);
+        
+        metrics.counter("log_records_dropped_total", "Log records dropped because the log buffer was full",
+                Log::getDroppedCount);
+        metrics.counter("log_records_written_total", "Log records written by the log writer", Log::getWrittenCount);
+        
+        metrics.gauge("sessions_active", "Sessions held in memory", sessionStore::size);
+        metrics.gauge("cart_pending_writes", "Carts waiting for the write-behind flush", cartRepository::getPendingCount);
+        metrics.gauge("catalog_version", "Menu catalog version being served", () -> menuCatalog.getSnapshot().getVersion());
+        metrics.counter("catalog_reloads_total", "Menu catalog reloads", menuCatalog::getReloadCount);
+        
+        ConnectionPool pool = SQLiteConnection.getInstance().getPool();
+        if (pool != null) {
+            metrics.gauge("db_pool_idle_readers", "Read connections idle in the pool", pool::getIdleReaders);
+        }
+    }
+    
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        StringBuilder body = new StringBuilder(16 * 1024);
+        metrics.writeTo(body);
+        byte[] bytes = body.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
         }
+    }
+    
+    /** Liveness: the process is up and serving; never touches the database. */
+    private static void handleLiveness(HttpExchange exchange) throws IOException {
+        JsonObject response = new JsonObject();
+        response.addProperty("status", "UP");
+        response.addProperty("uptimeMs", System.currentTimeMillis() - START_TIME);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        sendJsonResponse(exchange, 200, response);
+    }
+    
+    /**
+     * Readiness: 503 unless the pool, order writer, menu cache and a
+     * rate-limited SELECT 1 all look healthy. Everything but the probe is
+     * read from memory.
+     */
+    private static void handleReadiness(HttpExchange exchange) throws IOException {
+        JsonObject checks = new JsonObject();
+        boolean ready = true;
+        
+        ConnectionPool pool = SQLiteConnection.getInstance().getPool();
+        JsonObject poolCheck = new JsonObject();
+        boolean poolUp = pool != null;
+        poolCheck.addProperty("up", poolUp);
+        if (poolUp) {
+            poolCheck.addProperty("idleReaders", pool.getIdleReaders());
+            poolCheck.addProperty("readers", pool.getReaderCount());
+            poolCheck.addProperty("writerIdle", pool.isWriterIdle());
+        }
+        checks.add("connectionPool", poolCheck);
+        ready &= poolUp;
+        
+        JsonObject writerCheck = new JsonObject();
+        int depth = orderPipeline.getQueueDepth();
+        int capacity = orderPipeline.getQueueCapacity();
+        boolean writerUp = orderPipeline.isRunning() && depth < capacity * MAX_ORDER_QUEUE_FILL;
+        writerCheck.addProperty("up", writerUp);
+        writerCheck.addProperty("running", orderPipeline.isRunning());
+        writerCheck.addProperty("queueDepth", depth);
+        writerCheck.addProperty("queueCapacity", capacity);
+        checks.add("orderWriter", writerCheck);
+        ready &= writerUp;
+        
+        // The catalog polls its version every CATALOG_REFRESH_MILLIS; missing a few polls means it is stuck
+        JsonObject catalogCheck = new JsonObject();
+        long sinceCheck = System.currentTimeMillis() - menuCatalog.getLastVersionCheck();
+        boolean catalogUp = menuCatalog.getSnapshot().getItemCount() > 0 && sinceCheck <= 3 * CATALOG_REFRESH_MILLIS;
+        catalogCheck.addProperty("up", catalogUp);
+        catalogCheck.addProperty("version", menuCatalog.getSnapshot().getVersion());
+        catalogCheck.addProperty("msSinceVersionCheck", sinceCheck);
+        checks.add("menuCatalog", catalogCheck);
+        ready &= catalogUp;
+        
+        DatabaseProbe.Result probe = databaseProbe.check();
+        JsonObject databaseCheck = new JsonObject();
+        databaseCheck.addProperty("up", probe.isHealthy());
+        databaseCheck.addProperty("latencyMicros", probe.getLatencyMicros());
+        databaseCheck.addProperty("checkedAt", probe.getCheckedAt());
+        if (probe.getError() != null) databaseCheck.addProperty("error", probe.getError());
+        checks.add("database", databaseCheck);
+        ready &= probe.isHealthy();
         
-        sendJsonResponse(exchange, 200, response.toString());
+        JsonObject response = new JsonObject();
+        response.addProperty("status", ready ? "UP" : "DOWN");
+        response.add("checks", checks);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        sendJsonResponse(exchange, ready ? 200 : 503, response);
+    }
+    
+    /** Detailed row counts, recomputed at most once per diag.countsTtlMs. */
+    private static void handleDiagnostics(HttpExchange exchange) throws IOException {
+        JsonObject response = new JsonObject();
+        response.add("tableCounts", gson.toJsonTree(tableCounts.get()));
+        response.addProperty("countedAt", tableCounts.getComputedAt());
+        response.addProperty("catalogItems", menuCatalog.getSnapshot().getItemCount());
+        response.addProperty("ordersSinceStart", orderPipeline.getCommittedCount());
+        response.addProperty("salesOrderTotal", salesAggregator.getTotals().getOrders());
+        sendJsonResponse(exchange, 200, response);
     }
     
     private static void handleLogin(HttpExchange exchange) throws IOException {
@@ -255,7 +644,7 @@ public class Main {
         String username = json.get("username").getAsString();
         String password = json.get("password").getAsString();
         
-        System.out.println("🔐 Login attempt for: " + username);
+        log.debug(() -> "🔐 Login attempt for: " + username);
         
         // Authenticate user from database
         User user = userDAO.authenticate(username, password);
@@ -266,8 +655,10 @@ public class Main {
             String sessionId = generateSessionId(username);
             
             // Initialize cart for this session
-            userCarts.put(sessionId, new Cart());
-            userCarts.get(sessionId).setStrategy(new NormalTotal());
+            Cart cart = new Cart();
+            cart.setStrategy(PRICING);
+            Session session = sessionStore.create(sessionId, user.getUsername(), cart);
+            cartRepository.markDirty(sessionId, user.getUsername(), session.getCreatedAt(), cart);
             
             response.addProperty("success", true);
             response.addProperty("message", "Login successful");
@@ -276,14 +667,14 @@ public class Main {
             response.addProperty("role", user.getRole());
             response.addProperty("email", user.getEmail() != null ? user.getEmail() : "");
             
-            System.out.println("✅ Login successful: " + username + " (Role: " + user.getRole() + ")");
+            log.info("✅ Login successful: " + username + " (Role: " + user.getRole() + ")");
         } else {
             response.addProperty("success", false);
             response.addProperty("message", "Invalid username or password");
-            System.out.println("❌ Login failed: " + username);
+            log.warn("❌ Login failed: " + username);
         }
         
-        sendJsonResponse(exchange, 200, response.toString());
+        sendJsonResponse(exchange, 200, response);
     }
     
     private static void handleRegister(HttpExchange exchange) throws IOException {
@@ -296,7 +687,7 @@ public class Main {
         String fullName = json.has("fullName") ? json.get("fullName").getAsString() : username;
         String phone = json.has("phone") ? json.get("phone").getAsString() : "";
         
-        System.out.println("📝 Registration attempt: " + username);
+        log.debug(() -> "📝 Registration attempt: " + username);
         
         JsonObject response = new JsonObject();
         
@@ -327,44 +718,26 @@ public class Main {
                 response.addProperty("username", username);
                 response.addProperty("email", email);
                 response.addProperty("role", "CUSTOMER");
-                System.out.println("✅ New user registered: " + username);
+                log.info("✅ New user registered: " + username);
             } else {
                 response.addProperty("success", false);
                 response.addProperty("message", "Registration failed - database error");
             }
         }
         
-        sendJsonResponse(exchange, 200, response.toString());
+        sendJsonResponse(exchange, 200, response);
     }
     
     private static void handleGetMenu(HttpExchange exchange) throws IOException {
-        // Get menu items from database
-        List<FoodItemEntity> menuItems = foodDAO.getAllAvailableItems();
-        
-        // Convert to JSON
-        List<Map<String, Object>> responseItems = new ArrayList<>();
-        for (FoodItemEntity item : menuItems) {
-            Map<String, Object> itemMap = new HashMap<>();
-            itemMap.put("id", item.getItemId());
-            itemMap.put("name", item.getName());
-            itemMap.put("description", item.getDescription());
-            itemMap.put("price", item.getPrice());
-            itemMap.put("category", item.getCategoryName());
-            itemMap.put("available", item.isAvailable());
-            itemMap.put("vegetarian", item.isVegetarian());
-            
-            // Map to factory types for cart operations
-            String factoryType = getFactoryType(item.getCategoryName());
-            itemMap.put("factoryType", factoryType);
-            
-            // Add image URL (placeholder for now)
-            itemMap.put("imageUrl", "/images/food/" + factoryType + ".jpg");
-            
-            responseItems.add(itemMap);
+        // Menu JSON is rendered once per catalog version
+        CatalogSnapshot snapshot = menuCatalog.getSnapshot();
+        if (snapshot == null) {
+            sendErrorResponse(exchange, 503, "Menu is temporarily unavailable");
+            return;
         }
         
-        sendJsonResponse(exchange, 200, gson.toJson(responseItems));
-        System.out.println("📋 Sent menu: " + menuItems.size() + " items");
+        snapshot.getMenuResponse().send(exchange);
+        menuLog.info(() -> "📋 Sent menu: " + snapshot.getAvailableItems().size() + " items");
     }
     
     private static void handleGetMenuItem(HttpExchange exchange, String path) throws IOException {
@@ -376,26 +749,16 @@ public class Main {
         
         try {
             int itemId = Integer.parseInt(parts[3]);
-            FoodItemEntity item = foodDAO.getItemById(itemId);
+            CatalogSnapshot snapshot = menuCatalog.getSnapshot();
+            FoodItemEntity item = snapshot != null ? snapshot.getItem(itemId) : null;
             
             if (item == null) {
                 sendErrorResponse(exchange, 404, "Menu item not found");
                 return;
             }
             
-            Map<String, Object> itemMap = new HashMap<>();
-            itemMap.put("id", item.getItemId());
-            itemMap.put("name", item.getName());
-            itemMap.put("description", item.getDescription());
-            itemMap.put("price", item.getPrice());
-            itemMap.put("category", item.getCategoryName());
-            itemMap.put("available", item.isAvailable());
-            itemMap.put("vegetarian", item.isVegetarian());
-            itemMap.put("factoryType", getFactoryType(item.getCategoryName()));
-            itemMap.put("imageUrl", "/images/food/" + getFactoryType(item.getCategoryName()) + ".jpg");
-            
-            sendJsonResponse(exchange, 200, gson.toJson(itemMap));
-            System.out.println("📋 Sent menu item: " + item.getName());
+            sendJsonResponse(exchange, 200, MenuJson.toMap(item, snapshot.getModifierGroups(itemId)));
+            menuItemLog.info(() -> "📋 Sent menu item: " + item.getName());
             
         } catch (NumberFormatException e) {
             sendErrorResponse(exchange, 400, "Invalid menu item ID format");
@@ -403,20 +766,14 @@ public class Main {
     }
     
     private static void handleGetCategories(HttpExchange exchange) throws IOException {
-        List<FoodItemDAO.Category> categories = foodDAO.getAllCategories();
-        
-        List<Map<String, Object>> responseCategories = new ArrayList<>();
-        for (FoodItemDAO.Category category : categories) {
-            Map<String, Object> categoryMap = new HashMap<>();
-            categoryMap.put("id", category.getCategoryId());
-            categoryMap.put("name", category.getName());
-            categoryMap.put("description", category.getDescription());
-            categoryMap.put("imageUrl", category.getImageUrl());
-            responseCategories.add(categoryMap);
+        CatalogSnapshot snapshot = menuCatalog.getSnapshot();
+        if (snapshot == null) {
+            sendErrorResponse(exchange, 503, "Menu is temporarily unavailable");
+            return;
         }
         
-        sendJsonResponse(exchange, 200, gson.toJson(responseCategories));
-        System.out.println("📋 Sent categories: " + categories.size() + " categories");
+        snapshot.getCategoriesResponse().send(exchange);
+        categoriesLog.info(() -> "📋 Sent categories: " + snapshot.getCategories().size() + " categories");
     }
     
     private static void handleAddToCart(HttpExchange exchange) throws IOException {
@@ -424,54 +781,94 @@ public class Main {
         JsonObject json = JsonParser.parseString(requestBody).getAsJsonObject();
         
         String sessionId = json.get("sessionId").getAsString();
-        String foodType = json.get("foodType").getAsString();
-        int quantity = json.get("quantity").getAsInt();
-        int itemId = json.has("itemId") ? json.get("itemId").getAsInt() : -1;
+        // One line inline, or many under "items": [{"itemId": 1, "quantity": 2, "modifiers": [1, 3]}, ...]
+        JsonArray entries;
+        if (json.has("items")) {
+            entries = json.getAsJsonArray("items");
+        } else {
+            entries = new JsonArray(1);
+            entries.add(json);
+        }
+        if (entries.size() == 0 || entries.size() > MAX_CART_BATCH) {
+            sendErrorResponse(exchange, 400, "Add between 1 and " + MAX_CART_BATCH + " items at a time");
+            return;
+        }
         
         // Get cart for session
-        Cart cart = userCarts.get(sessionId);
+        Cart cart = getSessionCart(sessionId);
         if (cart == null) {
             sendErrorResponse(exchange, 401, "Session expired. Please login again.");
             return;
         }
         
-        // Get item details from database if itemId is provided
-        double price = 0.0;
-        String itemName = foodType;
+        CatalogSnapshot snapshot = menuCatalog.getSnapshot();
+        if (snapshot == null) {
+            sendErrorResponse(exchange, 503, "Menu is temporarily unavailable");
+            return;
+        }
         
-        if (itemId > 0) {
-            FoodItemEntity item = foodDAO.getItemById(itemId);
-            if (item != null) {
-                price = item.getPrice();
-                itemName = item.getName();
+        // Every line is resolved against the in-memory catalog before any is added,
+        // so a bad line rejects the whole request and nothing reads the database
+        List<CartItem> lines = new ArrayList<>(entries.size());
+        for (JsonElement element : entries) {
+            JsonObject entry = element.getAsJsonObject();
+            int itemId = entry.has("itemId") ? entry.get("itemId").getAsInt() : -1;
+            int quantity = entry.has("quantity") ? entry.get("quantity").getAsInt() : 1;
+            if (itemId <= 0) {
+                sendErrorResponse(exchange, 400, "itemId is required");
+                return;
+            }
+            if (quantity <= 0) {
+                sendErrorResponse(exchange, 400, "Quantity must be positive");
+                return;
+            }
+            
+            ConfiguredItem food;
+            try {
+                food = snapshot.configure(itemId, readModifiers(entry));
+            } catch (IllegalArgumentException e) {
+                sendErrorResponse(exchange, 400, e.getMessage());
+                return;
+            }
+            if (!food.isAvailable()) {
+                sendErrorResponse(exchange, 400, food.getItem().getName() + " is currently unavailable");
+                return;
             }
+            lines.add(new CartItem(food, quantity, itemId, food.getItem().getCategoryName(), food.getModifierKey()));
         }
         
-        // Create food item using factory
-        FoodItem foodItem = FoodFactory.createFood(foodType);
-        if (foodItem == null) {
-            sendErrorResponse(exchange, 400, "Invalid food type: " + foodType);
+        try {
+            cart.addItems(lines);
+        } catch (ArithmeticException e) {
+            sendErrorResponse(exchange, 400, "Cart is too large");
             return;
         }
-        
-        // Override price if we have it from database
-        if (price > 0) {
-            // We need to modify FoodItem interface or create a new class
-            // For now, use the factory price
-        }
-        
-        // Add to cart
-        cart.addItem(foodItem, quantity);
+        persistCart(sessionId);
         
         // Prepare response
         JsonObject response = new JsonObject();
         response.addProperty("success", true);
-        response.addProperty("message", itemName + " added to cart");
-        response.addProperty("cartTotal", cart.getTotal());
-        response.addProperty("itemCount", cart.getItems().size());
-        
-        sendJsonResponse(exchange, 200, response.toString());
-        System.out.println("🛒 Added to cart: " + quantity + "x " + foodType + " for session " + sessionId);
+        response.addProperty("message", lines.size() == 1
+                ? lines.get(0).getFood().getDescription() + " added to cart"
+                : lines.size() + " items added to cart");
+        response.addProperty("cartTotal", cart.getSubtotal().toBigDecimal());
+        response.addProperty("itemCount", cart.getLineCount());
+        
+        sendJsonResponse(exchange, 200, response);
+        cartAddLog.info(() -> "🛒 Added to cart: " + lines.size() + " line(s) for session " + sessionId);
+    }
+    
+    // Modifier option ids of one add-to-cart line, in any order
+    private static int[] readModifiers(JsonObject entry) {
+        if (!entry.has("modifiers") || entry.get("modifiers").isJsonNull()) {
+            return new int[0];
+        }
+        JsonArray modifiers = entry.getAsJsonArray("modifiers");
+        int[] optionIds = new int[modifiers.size()];
+        for (int i = 0; i < optionIds.length; i++) {
+            optionIds[i] = modifiers.get(i).getAsInt();
+        }
+        return optionIds;
     }
     
     private static void handleGetCart(HttpExchange exchange) throws IOException {
@@ -483,50 +880,102 @@ public class Main {
             return;
         }
         
-        Cart cart = userCarts.get(sessionId);
+        Cart cart = getSessionCart(sessionId);
         if (cart == null) {
-            // Return empty cart
-            Map<String, Object> emptyCart = new HashMap<>();
-            emptyCart.put("items", new ArrayList<>());
-            emptyCart.put("subtotal", 0.0);
-            emptyCart.put("deliveryFee", 2.99);
-            emptyCart.put("tax", 0.0);
-            emptyCart.put("total", 2.99);
-            emptyCart.put("itemCount", 0);
-            
-            sendJsonResponse(exchange, 200, gson.toJson(emptyCart));
-            return;
+            // Return empty cart, priced like any other so the fees match
+            cart = new Cart();
+            cart.setStrategy(PRICING);
         }
         
-        // Calculate totals
-        cart.setStrategy(new NormalTotal());
-        double subtotal = cart.getTotal();
-        double deliveryFee = 2.99;
-        double tax = subtotal * 0.10;
-        double total = subtotal + deliveryFee + tax;
+        // Lines and price from the same cart state; the cart keeps its price until it changes
+        PriceBreakdown price;
+        List<CartItem> lines;
+        String couponCode;
+        synchronized (cart) {
+            price = cart.getPrice();
+            lines = cart.getItems();
+            couponCode = cart.getCouponCode();
+        }
         
         // Prepare cart items
-        List<Map<String, Object>> cartItems = new ArrayList<>();
-        for (CartItem cartItem : cart.getItems()) {
+        List<Map<String, Object>> cartItems = new ArrayList<>(lines.size());
+        for (CartItem cartItem : lines) {
             Map<String, Object> item = new HashMap<>();
+            item.put("itemId", cartItem.getItemId());
             item.put("name", cartItem.getFood().getDescription());
-            item.put("price", cartItem.getFood().getPrice());
+            item.put("price", cartItem.getUnitPrice().toBigDecimal());
             item.put("quantity", cartItem.getQuantity());
-            item.put("total", cartItem.getTotalPrice());
+            item.put("total", cartItem.getTotalPrice().toBigDecimal());
             cartItems.add(item);
         }
         
         // Prepare response
         Map<String, Object> response = new HashMap<>();
         response.put("items", cartItems);
-        response.put("subtotal", subtotal);
-        response.put("deliveryFee", deliveryFee);
-        response.put("tax", tax);
-        response.put("total", total);
+        response.put("subtotal", price.getSubtotal().toBigDecimal());
+        response.put("discount", price.getDiscounts().toBigDecimal());
+        response.put("discounts", discountsJson(price));
+        response.put("couponCode", couponCode);
+        response.put("deliveryFee", price.getFees().toBigDecimal());
+        response.put("tax", price.getTax().toBigDecimal());
+        response.put("total", price.getTotal().toBigDecimal());
+        response.put("currency", price.getTotal().getCurrency().getCurrencyCode());
         response.put("itemCount", cartItems.size());
         
-        sendJsonResponse(exchange, 200, gson.toJson(response));
-        System.out.println("🛒 Sent cart: " + cartItems.size() + " items for session " + sessionId);
+        sendJsonResponse(exchange, 200, response);
+        cartLog.info(() -> "🛒 Sent cart: " + cartItems.size() + " items for session " + sessionId);
+    }
+    
+    // Each promotion applied to the cart and how much it took off
+    private static List<Map<String, Object>> discountsJson(PriceBreakdown price) {
+        List<Map<String, Object>> discounts = new ArrayList<>();
+        for (PriceBreakdown.Adjustment adjustment : price.getAdjustments()) {
+            if (adjustment.getKind() == PriceBreakdown.Kind.DISCOUNT) {
+                Map<String, Object> discount = new HashMap<>();
+                discount.put("name", adjustment.getLabel());
+                discount.put("amount", adjustment.getAmount().toBigDecimal());
+                discounts.add(discount);
+            }
+        }
+        return discounts;
+    }
+    
+    /** Sets the cart's coupon code; an empty code removes it. */
+    private static void handleApplyCoupon(HttpExchange exchange) throws IOException {
+        String requestBody = readRequestBody(exchange);
+        JsonObject json = JsonParser.parseString(requestBody).getAsJsonObject();
+        String sessionId = json.get("sessionId").getAsString();
+        String code = json.has("code") && !json.get("code").isJsonNull() ? json.get("code").getAsString() : "";
+        
+        Cart cart = getSessionCart(sessionId);
+        if (cart == null) {
+            sendErrorResponse(exchange, 401, "Session expired. Please login again.");
+            return;
+        }
+        
+        String couponCode = Promotion.normalizeCode(code);
+        if (couponCode != null && !menuCatalog.getPromotions().hasCoupon(couponCode)) {
+            sendErrorResponse(exchange, 400, "Invalid or expired coupon code");
+            return;
+        }
+        
+        PriceBreakdown price;
+        synchronized (cart) {
+            cart.setCouponCode(couponCode);
+            price = cart.getPrice();
+        }
+        persistCart(sessionId);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", couponCode != null ? "Coupon " + couponCode + " applied" : "Coupon removed");
+        response.put("couponCode", couponCode);
+        response.put("discount", price.getDiscounts().toBigDecimal());
+        response.put("discounts", discountsJson(price));
+        response.put("total", price.getTotal().toBigDecimal());
+        
+        sendJsonResponse(exchange, 200, response);
+        log.info("🏷️  Coupon " + (couponCode != null ? couponCode + " applied to" : "removed from") + " session " + sessionId);
     }
     
     private static void handleClearCart(HttpExchange exchange) throws IOException {
@@ -534,18 +983,19 @@ public class Main {
         JsonObject json = JsonParser.parseString(requestBody).getAsJsonObject();
         String sessionId = json.get("sessionId").getAsString();
         
-        Cart cart = userCarts.get(sessionId);
+        Cart cart = getSessionCart(sessionId);
         if (cart != null) {
-            int itemCount = cart.getItems().size();
+            int itemCount = cart.getLineCount();
             cart.clear();
-            System.out.println("🗑️  Cart cleared: " + itemCount + " items removed from session " + sessionId);
+            persistCart(sessionId);
+            log.info("🗑️  Cart cleared: " + itemCount + " items removed from session " + sessionId);
         }
         
         JsonObject response = new JsonObject();
         response.addProperty("success", true);
         response.addProperty("message", "Cart cleared");
         
-        sendJsonResponse(exchange, 200, response.toString());
+        sendJsonResponse(exchange, 200, response);
     }
     
     private static void handlePlaceOrder(HttpExchange exchange) throws IOException {
@@ -558,36 +1008,89 @@ public class Main {
         String phoneNumber = json.has("phone") ? json.get("phone").getAsString() : "Not provided";
         String paymentMethod = json.has("paymentMethod") ? json.get("paymentMethod").getAsString() : "Cash on Delivery";
         
-        Cart cart = userCarts.get(sessionId);
-        if (cart == null || cart.getItems().isEmpty()) {
+        Cart cart = getSessionCart(sessionId);
+        if (cart == null) {
+            sendErrorResponse(exchange, 400, "Cart is empty");
+            return;
+        }
+        
+        // Take the lines out of the cart, so a retry cannot order them again and
+        // items added while this order is written stay in the cart
+        Cart.Checkout checkout = cart.beginCheckout();
+        if (checkout == null) {
+            sendErrorResponse(exchange, 409, "An order for this cart is already being placed");
+            return;
+        }
+        if (checkout.isEmpty()) {
+            cart.finishCheckout(checkout, false);
             sendErrorResponse(exchange, 400, "Cart is empty");
             return;
         }
+        persistCart(sessionId);
+        
+        // Queue the order for the next group commit and wait for its id
+        OrderRequest orderRequest = OrderRequest.fromCheckout(checkout, username, deliveryAddress, phoneNumber, paymentMethod);
+        CompletableFuture<Integer> order = orderPipeline.submit(orderRequest);
+        int orderId;
+        try {
+            orderId = order.get(ORDER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                finishCheckout(sessionId, cart, checkout, false);
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+                sendErrorResponse(exchange, 503, "Too many orders right now, please retry");
+                return;
+            }
+            orderId = -1;
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Withdraw the order so a retry cannot place it twice. Once the writer
+            // has taken it, it can no longer be withdrawn and may still commit.
+            if (!order.cancel(false)) {
+                // The checkout stays open, refusing retries, until the writer is done with it
+                order.whenComplete((id, error) -> finishCheckout(sessionId, cart, checkout, error == null));
+                JsonObject response = new JsonObject();
+                response.addProperty("success", false);
+                response.addProperty("pending", true);
+                response.addProperty("message", "Your order is still being processed. Check your orders before trying again.");
+                sendJsonResponse(exchange, 202, response);
+                log.warn("⏳ Order for user " + username + " still being written after " + ORDER_TIMEOUT_MILLIS + "ms");
+                return;
+            }
+            orderId = -1;
+        }
         
-        // Place order using OrderDAO
-        int orderId = orderDAO.createOrder(cart, username, deliveryAddress, phoneNumber);
+        finishCheckout(sessionId, cart, checkout, orderId > 0);
         
         JsonObject response = new JsonObject();
         if (orderId > 0) {
-            // Clear cart after successful order
-            cart.clear();
-            
             response.addProperty("success", true);
             response.addProperty("orderId", orderId);
             response.addProperty("message", "Order placed successfully!");
-            response.addProperty("total", cart.getTotal());
+            response.addProperty("total", orderRequest.getTotalAmount().toBigDecimal());
             
-            sendJsonResponse(exchange, 200, response.toString());
+            sendJsonResponse(exchange, 200, response);
             
-            System.out.println("✅ Order #" + orderId + " placed for user: " + username);
-            System.out.println("   Address: " + deliveryAddress);
-            System.out.println("   Payment: " + paymentMethod);
+            log.info("✅ Order #" + orderId + " placed for user: " + username
+                    + " (Address: " + deliveryAddress + ", Payment: " + paymentMethod + ")");
         } else {
             response.addProperty("success", false);
             response.addProperty("message", "Failed to place order");
-            sendJsonResponse(exchange, 500, response.toString());
-            System.out.println("❌ Failed to place order for user: " + username);
+            sendJsonResponse(exchange, 500, response);
+            log.error("❌ Failed to place order for user: " + username);
+        }
+    }
+    
+    // Ends a checkout, putting its lines back in the cart when the order was not placed
+    private static void finishCheckout(String sessionId, Cart cart, Cart.Checkout checkout, boolean placed) {
+        try {
+            cart.finishCheckout(checkout, placed);
+        } catch (ArithmeticException e) {
+            log.error("❌ Could not return checkout lines to the cart of session " + sessionId + ": " + e.getMessage());
         }
+        persistCart(sessionId);
     }
     
     private static void handleGetOrders(HttpExchange exchange) throws IOException {
@@ -599,24 +1102,223 @@ public class Main {
             return;
         }
         
-        // Get orders from OrderDAO
-        List<OrderEntity> orders = orderDAO.getUserOrders(username);
+        OrderPage.Cursor cursor = null;
+        String cursorParam = getQueryParam(query, "cursor");
+        if (cursorParam != null && !cursorParam.isEmpty()) {
+            cursor = OrderPage.Cursor.decode(cursorParam);
+            if (cursor == null) {
+                sendErrorResponse(exchange, 400, "Invalid cursor");
+                return;
+            }
+        }
+        
+        int limit = ORDER_PAGE_SIZE;
+        String limitParam = getQueryParam(query, "limit");
+        if (limitParam != null && !limitParam.isEmpty()) {
+            try {
+                limit = Math.max(1, Math.min(MAX_ORDER_PAGE_SIZE, Integer.parseInt(limitParam)));
+            } catch (NumberFormatException e) {
+                sendErrorResponse(exchange, 400, "Invalid limit");
+                return;
+            }
+        }
+        
+        // One page of orders plus their items, two queries total
+        OrderPage page = orderDAO.getUserOrdersPage(username, cursor, limit);
+        
+        // Stream orders as JSON without building intermediate maps
+        sendJsonResponse(exchange, 200, out -> {
+            out.beginObject();
+            out.name("orders").beginArray();
+            for (OrderEntity order : page.getOrders()) {
+                out.beginObject();
+                out.name("orderId").value(order.getOrderId());
+                out.name("orderNumber").value(order.getOrderNumber());
+                out.name("totalAmount").value(order.getTotalAmount().toBigDecimal());
+                out.name("status").value(order.getStatus());
+                out.name("deliveryAddress").value(order.getDeliveryAddress());
+                out.name("createdAt").value(order.getCreatedAt());
+                out.name("items").beginArray();
+                for (OrderItemEntity item : order.getItems()) {
+                    out.beginObject();
+                    out.name("itemId").value(item.getItemId());
+                    out.name("name").value(item.getName());
+                    out.name("quantity").value(item.getQuantity());
+                    out.name("pricePerUnit").value(item.getPricePerUnit().toBigDecimal());
+                    out.endObject();
+                }
+                out.endArray();
+                out.endObject();
+            }
+            out.endArray();
+            out.name("nextCursor").value(page.getNextCursor());
+            out.name("hasMore").value(page.hasMore());
+            out.endObject();
+        });
+        ordersLog.info(() -> "📋 Sent orders: " + page.getOrders().size() + " orders for user " + username);
+    }
+    
+    /**
+     * Streams orders created in [from, to) as NDJSON, one order with its items
+     * per line. Dates are "yyyy-MM-dd" or "yyyy-MM-dd HH:mm:ss" in the same
+     * UTC form SQLite stores; either bound may be omitted.
+     */
+    private static void handleExportOrders(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        if (!requireAdmin(exchange, query)) return;
+        
+        String from = decodeQueryParam(getQueryParam(query, "from"));
+        String to = decodeQueryParam(getQueryParam(query, "to"));
+        if ((from != null && !EXPORT_DATE.matcher(from).matches())
+                || (to != null && !EXPORT_DATE.matcher(to).matches())) {
+            sendErrorResponse(exchange, 400, "from/to must be yyyy-MM-dd or yyyy-MM-dd HH:mm:ss");
+            return;
+        }
+        String fromBound = from != null ? from : "0000-01-01";
+        String toBound = to != null ? to : "9999-12-31";
+        String filename = "orders-" + fromBound.substring(0, 10) + "-" + toBound.substring(0, 10) + ".ndjson";
+        
+        long start = System.currentTimeMillis();
+        NdjsonResponseWriter out = NdjsonResponseWriter.open(exchange, gson, filename);
+        try {
+            long exported = orderDAO.exportOrders(fromBound, toBound, order -> out.write(json -> {
+                json.beginObject();
+                json.name("orderId").value(order.getOrderId());
+                json.name("orderNumber").value(order.getOrderNumber());
+                json.name("username").value(order.getUsername());
+                json.name("status").value(order.getStatus());
+                json.name("totalAmount").value(order.getTotalAmount().toBigDecimal());
+                json.name("deliveryAddress").value(order.getDeliveryAddress());
+                json.name("phoneNumber").value(order.getPhoneNumber());
+                json.name("paymentMethod").value(order.getPaymentMethod());
+                json.name("createdAt").value(order.getCreatedAt());
+                json.name("items").beginArray();
+                for (OrderItemEntity item : order.getItems()) {
+                    json.beginObject();
+                    json.name("itemId").value(item.getItemId());
+                    json.name("name").value(item.getName());
+                    json.name("quantity").value(item.getQuantity());
+                    json.name("pricePerUnit").value(item.getPricePerUnit().toBigDecimal());
+                    json.endObject();
+                }
+                json.endArray();
+                json.endObject();
+            }));
+            log.info("📤 Exported " + exported + " orders [" + fromBound + ", " + toBound + ") in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (SQLException e) {
+            // Status is already 200, so the failure is reported in-band as the last line
+            log.error("❌ Order export failed after " + out.getLineCount() + " orders: " + e.getMessage());
+            out.write(json -> json.beginObject().name("error").value("Export failed: " + e.getMessage()).endObject());
+        } finally {
+            out.close();
+        }
+    }
+    
+    /** Sales dashboard: totals, per item, per category and the last N hours, all from memory. */
+    private static void handleSalesStats(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        if (!requireAdmin(exchange, query)) return;
+        
+        int hours = 24;
+        String hoursParam = getQueryParam(query, "hours");
+        if (hoursParam != null && !hoursParam.isEmpty()) {
+            try {
+                hours = Math.max(1, Integer.parseInt(hoursParam));
+            } catch (NumberFormatException e) {
+                sendErrorResponse(exchange, 400, "Invalid hours");
+                return;
+            }
+        }
         
-        // Convert to JSON
-        List<Map<String, Object>> responseOrders = new ArrayList<>();
-        for (OrderEntity order : orders) {
-            Map<String, Object> orderMap = new HashMap<>();
-            orderMap.put("orderId", order.getOrderId());
-            orderMap.put("orderNumber", order.getOrderNumber());
-            orderMap.put("totalAmount", order.getTotalAmount());
-            orderMap.put("status", order.getStatus().toString());
-            orderMap.put("deliveryAddress", order.getDeliveryAddress());
-            orderMap.put("createdAt", order.getCreatedAt());
-            responseOrders.add(orderMap);
+        CatalogSnapshot catalog = menuCatalog.getSnapshot();
+        SalesAggregator.Counter totals = salesAggregator.getTotals();
+        List<SalesAggregator.Counter> items = salesAggregator.getItems();
+        List<SalesAggregator.Counter> categories = salesAggregator.getCategories();
+        List<SalesAggregator.Counter> hourly = salesAggregator.getHours(hours);
+        Comparator<SalesAggregator.Counter> byRevenue =
+                Comparator.comparingLong(SalesAggregator.Counter::getRevenueMinor).reversed();
+        items.sort(byRevenue);
+        categories.sort(byRevenue);
+        
+        sendJsonResponse(exchange, 200, out -> {
+            out.beginObject();
+            out.name("totals");
+            writeSalesCounter(out, totals);
+            
+            out.name("items").beginArray();
+            for (SalesAggregator.Counter counter : items) {
+                FoodItemEntity item = catalog.getItem((int) counter.getBucket());
+                out.beginObject();
+                out.name("itemId").value(counter.getBucket());
+                out.name("name").value(item != null ? item.getName() : null);
+                writeSalesFields(out, counter);
+                out.endObject();
+            }
+            out.endArray();
+            
+            out.name("categories").beginArray();
+            for (SalesAggregator.Counter counter : categories) {
+                FoodItemDAO.Category category = catalog.getCategory((int) counter.getBucket());
+                out.beginObject();
+                out.name("categoryId").value(counter.getBucket());
+                out.name("name").value(category != null ? category.getName() : null);
+                writeSalesFields(out, counter);
+                out.endObject();
+            }
+            out.endArray();
+            
+            out.name("hours").beginArray();
+            for (SalesAggregator.Counter counter : hourly) {
+                out.beginObject();
+                out.name("hour").value(java.time.Instant.ofEpochSecond(counter.getBucket() * 3600).toString());
+                writeSalesFields(out, counter);
+                out.endObject();
+            }
+            out.endArray();
+            
+            out.name("lastOrderId").value(salesAggregator.getLastOrderId());
+            out.name("lastSnapshotAt").value(salesAggregator.getLastSnapshotAt());
+            out.endObject();
+        });
+    }
+    
+    private static void writeSalesCounter(com.google.gson.stream.JsonWriter out, SalesAggregator.Counter counter) throws IOException {
+        out.beginObject();
+        writeSalesFields(out, counter);
+        out.endObject();
+    }
+    
+    private static void writeSalesFields(com.google.gson.stream.JsonWriter out, SalesAggregator.Counter counter) throws IOException {
+        out.name("orders").value(counter.getOrders());
+        out.name("quantity").value(counter.getQuantity());
+        out.name("revenue").value(counter.getRevenue());
+    }
+    
+    // Admin endpoints take the caller's sessionId and check the user's role
+    private static boolean requireAdmin(HttpExchange exchange, String query) throws IOException {
+        String sessionId = getQueryParam(query, "sessionId");
+        Session session = sessionId != null ? sessionStore.get(sessionId) : null;
+        if (session == null) {
+            sendErrorResponse(exchange, 401, "Admin session required");
+            return false;
         }
         
-        sendJsonResponse(exchange, 200, gson.toJson(responseOrders));
-        System.out.println("📋 Sent orders: " + orders.size() + " orders for user " + username);
+        User user = userDAO.getUserByUsername(session.getUsername());
+        if (user == null || !"ADMIN".equalsIgnoreCase(user.getRole())) {
+            sendErrorResponse(exchange, 403, "Admin role required");
+            return false;
+        }
+        return true;
+    }
+    
+    private static String decodeQueryParam(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return java.net.URLDecoder.decode(value, "UTF-8");
+        } catch (IllegalArgumentException | UnsupportedEncodingException e) {
+            return value;
+        }
     }
     
     private static void handleGetUserProfile(HttpExchange exchange) throws IOException {
@@ -641,126 +1343,17 @@ public class Main {
         profile.put("phone", user.getPhone());
         profile.put("role", user.getRole());
         
-        sendJsonResponse(exchange, 200, gson.toJson(profile));
-        System.out.println("👤 Sent profile for user: " + username);
+        sendJsonResponse(exchange, 200, profile);
+        profileLog.info(() -> "👤 Sent profile for user: " + username);
     }
     
-    private static void serveStaticFile(HttpExchange exchange) throws IOException {
-        String path = exchange.getRequestURI().getPath();
-        
-        // Default to index.html
-        if (path.equals("/") || path.equals("")) {
-            path = "/index.html";
-        }
-        
-        // Map common routes to HTML files
-        Map<String, String> routeMap = new HashMap<>();
-        routeMap.put("/login", "/login.html");
-        routeMap.put("/register", "/register.html");
-        routeMap.put("/menu", "/menu.html");
-        routeMap.put("/cart", "/cart.html");
-        routeMap.put("/checkout", "/checkout.html");
-        routeMap.put("/order-confirmation", "/order-confirmation.html");
-        routeMap.put("/profile", "/profile.html");
-        
-        if (routeMap.containsKey(path)) {
-            path = routeMap.get(path);
-        }
-        
-        File file = new File("frontend" + path);
-        
-        if (file.exists() && !file.isDirectory()) {
-            byte[] bytes = Files.readAllBytes(file.toPath());
-            String contentType = getContentType(path);
-            
-            exchange.getResponseHeaders().set("Content-Type", contentType);
-            exchange.sendResponseHeaders(200, bytes.length);
-            
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(bytes);
-            }
-            
-            System.out.println("📄 Served: " + path + " (" + contentType + ")");
-        } else {
-            // Try with .html extension
-            File altFile = new File("frontend" + path + ".html");
-            if (altFile.exists()) {
-                byte[] bytes = Files.readAllBytes(altFile.toPath());
-                exchange.getResponseHeaders().set("Content-Type", "text/html");
-                exchange.sendResponseHeaders(200, bytes.length);
-                exchange.getResponseBody().write(bytes);
-            } else {
-                // File not found
-                String notFoundPage = """
-                    <!DOCTYPE html>
-                    <html>
-                    <head>
-                        <title>404 - Food Not Found</title>
-                        <style>
-                            body { 
-                                font-family: Arial, sans-serif; 
-                                text-align: center; 
-                                padding: 50px; 
-                                background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
-                                color: white;
-                                min-height: 100vh;
-                                display: flex;
-                                flex-direction: column;
-                                justify-content: center;
-                                align-items: center;
-                            }
-                            h1 { 
-                                font-size: 4rem; 
-                                margin-bottom: 20px;
-                                color: #ff6b6b;
-                            }
-                            p { 
-                                font-size: 1.2rem; 
-                                margin-bottom: 30px; 
-                                max-width: 600px;
-                            }
-                            a { 
-                                color: #4ecdc4; 
-                                text-decoration: none; 
-                                font-weight: bold;
-                                font-size: 1.1rem;
-                                padding: 10px 30px;
-                                background: rgba(255,255,255,0.1);
-                                border-radius: 50px;
-                                transition: all 0.3s;
-                            }
-                            a:hover {
-                                background: rgba(255,255,255,0.2);
-                                transform: translateY(-2px);
-                            }
-                        </style>
-                    </head>
-                    <body>
-                        <h1>🍕 404 - Food Not Found!</h1>
-                        <p>The delicious page you're looking for doesn't exist. Maybe it was eaten?</p>
-                        <a href="/">🏠 Back to Home</a>
-                    </body>
-                    </html>
-                    """;
-                
-                exchange.getResponseHeaders().set("Content-Type", "text/html");
-                exchange.sendResponseHeaders(404, notFoundPage.length());
-                
-                try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(notFoundPage.getBytes());
-                }
-                
-                System.out.println("❌ File not found: " + path);
-            }
-        }
+    private static void sendJsonResponse(HttpExchange exchange, int statusCode, Object payload) throws IOException {
+        // Serialized straight into the response body, no intermediate String
+        JsonResponseWriter.send(exchange, statusCode, gson, payload);
     }
     
-    private static void sendJsonResponse(HttpExchange exchange, int statusCode, String json) throws IOException {
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        exchange.sendResponseHeaders(statusCode, json.length());
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(json.getBytes());
-        }
+    private static void sendJsonResponse(HttpExchange exchange, int statusCode, JsonResponseWriter.JsonBody body) throws IOException {
+        JsonResponseWriter.send(exchange, statusCode, gson, body);
     }
     
     private static void sendErrorResponse(HttpExchange exchange, int statusCode, String message) throws IOException {
@@ -769,8 +1362,13 @@ public class Main {
         error.addProperty("message", message);
         error.addProperty("statusCode", statusCode);
         
-        sendJsonResponse(exchange, statusCode, error.toString());
-        System.out.println("❌ Error " + statusCode + ": " + message);
+        sendJsonResponse(exchange, statusCode, error);
+        if (statusCode >= 500) {
+            log.error("❌ Error " + statusCode + ": " + message);
+        } else {
+            // Client errors are all in the access log already
+            log.debug(() -> "❌ Error " + statusCode + ": " + message);
+        }
     }
     
     private static String readRequestBody(HttpExchange exchange) throws IOException {
@@ -796,32 +1394,53 @@ public class Main {
         return null;
     }
     
-    private static String getContentType(String path) {
-        if (path.endsWith(".css")) return "text/css";
-        if (path.endsWith(".js")) return "application/javascript";
-        if (path.endsWith(".png")) return "image/png";
-        if (path.endsWith(".jpg") || path.endsWith(".jpeg")) return "image/jpeg";
-        if (path.endsWith(".gif")) return "image/gif";
-        if (path.endsWith(".svg")) return "image/svg+xml";
-        if (path.endsWith(".ico")) return "image/x-icon";
-        if (path.endsWith(".json")) return "application/json";
-        return "text/html";
+    private static Cart getSessionCart(String sessionId) {
+        // Not in memory, e.g. after a restart: fall back to the stored cart if the session is still valid
+        Session session = sessionStore.getOrRestore(sessionId, Main::restoreSession);
+        return session != null ? session.getCart() : null;
     }
     
-    private static String generateSessionId(String username) {
-        return "sess_" + System.currentTimeMillis() + "_" + username.hashCode() + "_" + UUID.randomUUID().toString().substring(0, 8);
+    // Rebuilds the session as stored; SessionStore refuses it if it is past its TTLs
+    private static Session restoreSession(String sessionId) {
+        CartRepository.StoredCart stored = cartRepository.load(sessionId);
+        if (stored == null) return null;
+        
+        CatalogSnapshot snapshot = menuCatalog.getSnapshot();
+        Cart cart = new Cart();
+        cart.setStrategy(PRICING);
+        cart.setCouponCode(stored.getCouponCode());
+        int dropped = 0;
+        for (CartRepository.StoredItem item : stored.getItems()) {
+            // Lines are re-priced from the current catalog; ones it can no longer sell are dropped
+            ConfiguredItem food = null;
+            if (snapshot != null && item.getItemId() > 0 && item.getQuantity() > 0) {
+                try {
+                    food = snapshot.configure(item.getItemId(), item.getModifiers());
+                } catch (IllegalArgumentException e) {
+                    // Options no longer offered on the item; the line is dropped below
+                }
+            }
+            if (food != null && food.isAvailable()) {
+                cart.addItem(food, item.getQuantity(), item.getItemId(), item.getFoodType(), food.getModifierKey());
+            } else {
+                dropped++;
+            }
+        }
+        
+        int droppedLines = dropped;
+        restoreLog.info(() -> "♻️  Loaded stored cart for session " + sessionId + ": " + stored.getItems().size() + " items"
+                + (droppedLines > 0 ? ", " + droppedLines + " no longer on the menu" : ""));
+        return new Session(sessionId, stored.getUsername(), cart, stored.getSessionCreatedAt(), stored.getUpdatedAt());
     }
     
-    private static String getFactoryType(String categoryName) {
-        if (categoryName == null) return "pizza";
-        
-        String category = categoryName.toLowerCase();
-        if (category.contains("pizza")) return "pizza";
-        if (category.contains("burger")) return "burger";
-        if (category.contains("pasta")) return "pizza";
-        if (category.contains("sushi")) return "pizza";
-        if (category.contains("salad")) return "pizza";
-        if (category.contains("drink")) return "pizza";
-        return "pizza";
+    private static void persistCart(String sessionId) {
+        Session session = sessionStore.get(sessionId);
+        if (session != null) {
+            cartRepository.markDirty(sessionId, session.getUsername(), session.getCreatedAt(), session.getCart());
+        }
+    }
+    
+    private static String generateSessionId(String username) {
+        return "sess_" + System.currentTimeMillis() + "_" + username.hashCode() + "_" + UUID.randomUUID().toString().substring(0, 8);
     }
 }
\ No newline at end of file
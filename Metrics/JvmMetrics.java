@@ -0,0 +1,53 @@
+package Metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Heap, GC, thread and uptime figures from the platform MXBeans, read on
+ * every scrape.
+ */
+public final class JvmMetrics {
+
+    private JvmMetrics() {}
+
+    public static void register(MetricsRegistry registry) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        registry.gauge("jvm_memory_used_bytes", "Used memory by area",
+                () -> memory.getHeapMemoryUsage().getUsed(), "area", "heap");
+        registry.gauge("jvm_memory_used_bytes", "Used memory by area",
+                () -> memory.getNonHeapMemoryUsage().getUsed(), "area", "nonheap");
+        registry.gauge("jvm_memory_committed_bytes", "Committed memory by area",
+                () -> memory.getHeapMemoryUsage().getCommitted(), "area", "heap");
+        registry.gauge("jvm_memory_committed_bytes", "Committed memory by area",
+                () -> memory.getNonHeapMemoryUsage().getCommitted(), "area", "nonheap");
+        registry.gauge("jvm_memory_max_bytes", "Maximum heap size",
+                () -> memory.getHeapMemoryUsage().getMax(), "area", "heap");
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            registry.gauge("jvm_memory_pool_used_bytes", "Used memory by pool", () -> {
+                MemoryUsage usage = pool.getUsage();
+                return usage != null ? usage.getUsed() : 0;
+            }, "pool", pool.getName());
+        }
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            registry.counter("jvm_gc_collections_total", "Garbage collections by collector",
+                    () -> Math.max(0, gc.getCollectionCount()), "gc", gc.getName());
+            registry.counter("jvm_gc_collection_seconds_total", "Time spent in garbage collection by collector",
+                    () -> Math.max(0, gc.getCollectionTime()) / 1000.0, "gc", gc.getName());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        registry.gauge("jvm_threads_live", "Live platform threads", threads::getThreadCount);
+        registry.gauge("jvm_threads_daemon", "Live daemon threads", threads::getDaemonThreadCount);
+        registry.gauge("jvm_uptime_seconds", "Time since the JVM started",
+                () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+        registry.gauge("jvm_available_processors", "Processors available to the JVM",
+                () -> Runtime.getRuntime().availableProcessors());
+    }
+}
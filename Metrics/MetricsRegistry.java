@@ -0,0 +1,173 @@
+package Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide metrics, written out in the Prometheus text format.
+ *
+ * Metrics are created once, by name plus label pairs, and then updated
+ * without locks. Values that already live elsewhere (pool sizes, JVM
+ * memory) are registered as suppliers and read at scrape time.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    // Prometheus histogram bounds in seconds, and the same bounds in microseconds
+    private static final String[] BUCKET_SECONDS =
+            { "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10" };
+    private static final long[] BUCKET_MICROS = new long[BUCKET_SECONDS.length];
+    static {
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            BUCKET_MICROS[i] = Math.round(Double.parseDouble(BUCKET_SECONDS[i]) * 1_000_000);
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /** A monotonically increasing count. */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() { value.increment(); }
+        public void add(long amount) { value.add(amount); }
+        public long get() { return value.sum(); }
+    }
+
+    /** A value that goes up and down, such as requests in flight. */
+    public static final class Gauge {
+        private final AtomicLong value = new AtomicLong();
+
+        public void inc() { value.incrementAndGet(); }
+        public void dec() { value.decrementAndGet(); }
+        public void set(long newValue) { value.set(newValue); }
+        public long get() { return value.get(); }
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        // Label pairs as rendered, e.g. route="/api/menu",method="GET"
+        private final Map<String, Object> children = new ConcurrentSkipListMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) child(name, help, "counter", labels, Counter::new);
+    }
+
+    public Gauge gauge(String name, String help, String... labels) {
+        return (Gauge) child(name, help, "gauge", labels, Gauge::new);
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) child(name, help, "histogram", labels, LatencyHistogram::new);
+    }
+
+    /** A gauge read from the supplier on every scrape. */
+    public void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        family(name, help, "gauge").children.put(renderLabels(labels), supplier);
+    }
+
+    /** A counter kept elsewhere, read from the supplier on every scrape. */
+    public void counter(String name, String help, DoubleSupplier supplier, String... labels) {
+        family(name, help, "counter").children.put(renderLabels(labels), supplier);
+    }
+
+    private Object child(String name, String help, String type, String[] labels,
+                         java.util.function.Supplier<Object> factory) {
+        Object metric = family(name, help, type).children.computeIfAbsent(renderLabels(labels), key -> factory.get());
+        if (metric instanceof DoubleSupplier) {
+            throw new IllegalStateException(name + " is registered as a supplier");
+        }
+        return metric;
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalStateException(name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    /** Writes every metric in the Prometheus text exposition format (version 0.0.4). */
+    public void writeTo(StringBuilder out) {
+        for (Family family : families.values()) {
+            if (family.children.isEmpty()) continue;
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> child : family.children.entrySet()) {
+                writeChild(out, family.name, child.getKey(), child.getValue());
+            }
+        }
+    }
+
+    private static void writeChild(StringBuilder out, String name, String labels, Object metric) {
+        if (metric instanceof Counter) {
+            sample(out, name, labels, ((Counter) metric).get());
+        } else if (metric instanceof Gauge) {
+            sample(out, name, labels, ((Gauge) metric).get());
+        } else if (metric instanceof DoubleSupplier) {
+            sample(out, name, labels, ((DoubleSupplier) metric).getAsDouble());
+        } else if (metric instanceof LatencyHistogram) {
+            LatencyHistogram histogram = (LatencyHistogram) metric;
+            long[] cumulative = histogram.cumulativeCounts(BUCKET_MICROS);
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+                sample(out, name + "_bucket", prefix + "le=\"" + BUCKET_SECONDS[i] + "\"", cumulative[i]);
+            }
+            long count = cumulative[BUCKET_SECONDS.length];
+            sample(out, name + "_bucket", prefix + "le=\"+Inf\"", count);
+            sample(out, name + "_sum", labels, histogram.getTotalNanos() / 1e9);
+            sample(out, name + "_count", labels, count);
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        List<String> pairs = new ArrayList<>(labels.length / 2);
+        for (int i = 0; i < labels.length; i += 2) {
+            pairs.add(labels[i] + "=\"" + escape(labels[i + 1]) + "\"");
+        }
+        return String.join(",", pairs);
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -1,16 +1,24 @@
 package Order;
 
+import Pricing.Money;
+
+import java.util.Collections;
+import java.util.List;
+
 public class OrderEntity {
     private int orderId;
     private String username;
     private String status;
-    private double totalAmount;  // Changed from total
+    private Money totalAmount;  // Changed from total
     private String createdAt;    // Changed from orderDate
     private String orderNumber;  // Add this
     private String deliveryAddress;  // Add this
+    private String phoneNumber;
+    private String paymentMethod;
+    private List<OrderItemEntity> items = Collections.emptyList();
     
     // Updated constructor
-    public OrderEntity(int orderId, String username, String status, double totalAmount, String createdAt) {
+    public OrderEntity(int orderId, String username, String status, Money totalAmount, String createdAt) {
         this.orderId = orderId;
         this.username = username;
         this.status = status;
@@ -23,11 +31,17 @@ public class OrderEntity {
     public int getOrderId() { return orderId; }
     public String getUsername() { return username; }
     public String getStatus() { return status; }
-    public double getTotal() { return totalAmount; }  // Keep this for compatibility
-    public double getTotalAmount() { return totalAmount; }  // Add this
+    public Money getTotal() { return totalAmount; }  // Keep this for compatibility
+    public Money getTotalAmount() { return totalAmount; }  // Add this
     public String getOrderDate() { return createdAt; }  // Keep for compatibility
     public String getCreatedAt() { return createdAt; }  // Add this
     public String getOrderNumber() { return orderNumber; }  // Add this
     public String getDeliveryAddress() { return deliveryAddress; }  // Add this
     public void setDeliveryAddress(String address) { this.deliveryAddress = address; }  // Add setter
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    public List<OrderItemEntity> getItems() { return items; }
+    public void setItems(List<OrderItemEntity> items) { this.items = items; }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package Order;
+
+import Pricing.Money;
+
+public class OrderItemEntity {
+    private int itemId;
+    private String name;
+    private int quantity;
+    private Money pricePerUnit;
+    
+    public OrderItemEntity(int itemId, String name, int quantity, Money pricePerUnit) {
+        this.itemId = itemId;
+        this.name = name;
+        this.quantity = quantity;
+        this.pricePerUnit = pricePerUnit;
+    }
+    
+    // Getters
+    public int getItemId() { return itemId; }
+    public String getName() { return name; }
+    public int getQuantity() { return quantity; }
+    public Money getPricePerUnit() { return pricePerUnit; }
+    public Money getTotalPrice() { return pricePerUnit.times(quantity); }
+}
@@ -0,0 +1,55 @@
+package Order;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of a user's order history, newest first. The cursor points
+ * just past the last order on the page as (created_at, order_id).
+ */
+public class OrderPage {
+    private final List<OrderEntity> orders;
+    private final String nextCursor;
+    
+    public OrderPage(List<OrderEntity> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<OrderEntity> getOrders() { return orders; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+    
+    /** Keyset position decoded from a client cursor. */
+    public static class Cursor {
+        private final String createdAt;
+        private final int orderId;
+        
+        public Cursor(String createdAt, int orderId) {
+            this.createdAt = createdAt;
+            this.orderId = orderId;
+        }
+        
+        public String getCreatedAt() { return createdAt; }
+        public int getOrderId() { return orderId; }
+        
+        public String encode() {
+            String raw = orderId + "|" + createdAt;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        /** Returns null for a missing or malformed cursor. */
+        public static Cursor decode(String token) {
+            if (token == null || token.isEmpty()) return null;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                if (separator < 0) return null;
+                return new Cursor(raw.substring(separator + 1), Integer.parseInt(raw.substring(0, separator)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package Order;
+
+import Cart.Cart;
+import Cart.CartItem;
+import Pricing.Money;
+import Pricing.PriceBreakdown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An order waiting to be written. The cart contents are copied at
+ * submission so the cart can be cleared before the order is committed.
+ */
+public class OrderRequest {
+    private final String username;
+    private final String deliveryAddress;
+    private final String phoneNumber;
+    private final String paymentMethod;
+    private final PriceBreakdown price;
+    private final List<Line> lines;
+    
+    public static class Line {
+        private final int itemId;
+        private final int quantity;
+        private final Money pricePerUnit;
+        
+        public Line(int itemId, int quantity, Money pricePerUnit) {
+            this.itemId = itemId;
+            this.quantity = quantity;
+            this.pricePerUnit = pricePerUnit;
+        }
+        
+        public int getItemId() { return itemId; }
+        public int getQuantity() { return quantity; }
+        public Money getPricePerUnit() { return pricePerUnit; }
+    }
+    
+    public OrderRequest(String username, String deliveryAddress, String phoneNumber, String paymentMethod,
+                        PriceBreakdown price, List<Line> lines) {
+        this.username = username;
+        this.deliveryAddress = deliveryAddress;
+        this.phoneNumber = phoneNumber;
+        this.paymentMethod = paymentMethod;
+        this.price = price;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+    
+    public static OrderRequest fromCart(Cart cart, String username, String deliveryAddress,
+                                        String phoneNumber, String paymentMethod) {
+        // Items and price must come from the same cart state; the price is what the cart page showed
+        synchronized (cart) {
+            return of(cart.getItems(), cart.getPrice(), username, deliveryAddress, phoneNumber, paymentMethod);
+        }
+    }
+    
+    /** The order for what a checkout took out of its cart. */
+    public static OrderRequest fromCheckout(Cart.Checkout checkout, String username, String deliveryAddress,
+                                            String phoneNumber, String paymentMethod) {
+        return of(checkout.getItems(), checkout.getPrice(), username, deliveryAddress, phoneNumber, paymentMethod);
+    }
+    
+    private static OrderRequest of(List<CartItem> items, PriceBreakdown price, String username,
+                                   String deliveryAddress, String phoneNumber, String paymentMethod) {
+        List<Line> lines = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            lines.add(new Line(item.getItemId(), item.getQuantity(), item.getUnitPrice()));
+        }
+        return new OrderRequest(username, deliveryAddress, phoneNumber, paymentMethod, price, lines);
+    }
+    
+    public String getUsername() { return username; }
+    public String getDeliveryAddress() { return deliveryAddress; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public PriceBreakdown getPrice() { return price; }
+    public Money getTotalAmount() { return price.getTotal(); }
+    public List<Line> getLines() { return lines; }
+    
+    public int getItemCount() {
+        int count = 0;
+        for (Line line : lines) {
+            count += line.getQuantity();
+        }
+        return count;
+    }
+}
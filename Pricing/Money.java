@@ -0,0 +1,153 @@
+package Pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * An amount of money as a whole number of minor units (cents for USD) plus
+ * its currency. Immutable, and exact under addition and multiplication by
+ * whole numbers; only percentages round, half away from zero, to the
+ * nearest minor unit. Amounts in different currencies never mix.
+ *
+ * Overflow throws ArithmeticException rather than wrapping.
+ */
+public final class Money implements Comparable<Money> {
+    // Currency for prices, carts and orders, e.g. -Dpricing.currency=EUR
+    public static final Currency DEFAULT_CURRENCY =
+            Currency.getInstance(System.getProperty("pricing.currency", "USD"));
+    private static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+    private static final long[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000 };
+
+    private final long minor;
+    private final Currency currency;
+
+    private Money(long minor, Currency currency) {
+        this.minor = minor;
+        this.currency = currency;
+    }
+
+    public static Money zero() {
+        return ZERO;
+    }
+
+    /** Minor units in one major unit of the default currency, e.g. 100 for USD. */
+    public static long minorUnitsPerMajor() {
+        return unitsPerMajor(DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minor, Currency currency) {
+        return currency.equals(DEFAULT_CURRENCY) ? ofMinor(minor) : new Money(minor, currency);
+    }
+
+    /**
+     * Converts a major-unit amount held as a double, e.g. a REAL column,
+     * to the nearest minor unit of the default currency.
+     */
+    public static Money ofMajor(double major) {
+        if (Double.isNaN(major) || Double.isInfinite(major)) {
+            throw new ArithmeticException("Not an amount: " + major);
+        }
+        return ofMinor(Math.round(major * unitsPerMajor(DEFAULT_CURRENCY)));
+    }
+
+    /** Exact conversion; amounts finer than the currency's minor unit are rejected. */
+    public static Money of(BigDecimal major, Currency currency) {
+        return ofMinor(major.movePointRight(fractionDigits(currency)).longValueExact(), currency);
+    }
+
+    public long getMinor() { return minor; }
+    public Currency getCurrency() { return currency; }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return other.minor == 0 ? this : ofMinor(Math.addExact(minor, other.minor), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return other.minor == 0 ? this : ofMinor(Math.subtractExact(minor, other.minor), currency);
+    }
+
+    public Money times(long factor) {
+        return factor == 1 ? this : ofMinor(Math.multiplyExact(minor, factor), currency);
+    }
+
+    /** This amount times basisPoints / 10000, e.g. 1000 for 10%, rounded half away from zero. */
+    public Money percent(int basisPoints) {
+        long product = Math.multiplyExact(minor, (long) basisPoints);
+        long result = product / 10_000;
+        if (Math.abs(product % 10_000) >= 5_000) {
+            result += Long.signum(product);
+        }
+        return ofMinor(result, currency);
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor), currency);
+    }
+
+    public Money min(Money other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    public Money max(Money other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    public boolean isZero() { return minor == 0; }
+    public boolean isNegative() { return minor < 0; }
+
+    /** Exact major-unit value, for JSON. */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, fractionDigits(currency));
+    }
+
+    /** Major-unit value as a double, only for the legacy REAL columns. */
+    public double toMajor() {
+        return (double) minor / unitsPerMajor(currency);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        Money other = (Money) o;
+        return minor == other.minor && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minor) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    private static int fractionDigits(Currency currency) {
+        // Pseudo-currencies such as XXX report -1
+        return Math.max(0, currency.getDefaultFractionDigits());
+    }
+
+    private static long unitsPerMajor(Currency currency) {
+        return POWERS_OF_TEN[fractionDigits(currency)];
+    }
+}
@@ -0,0 +1,123 @@
+package Pricing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A priced cart: the subtotal of its lines, then discounts, fees and tax,
+ * each listed as an adjustment, and the total they add up to. Immutable,
+ * so a cart can hand the same breakdown to every reader until it changes.
+ */
+public final class PriceBreakdown {
+    public enum Kind { DISCOUNT, FEE, TAX }
+
+    /** One discount, fee or tax. Amounts are positive; discounts are subtracted. */
+    public static final class Adjustment {
+        private final Kind kind;
+        private final String label;
+        private final Money amount;
+
+        Adjustment(Kind kind, String label, Money amount) {
+            this.kind = kind;
+            this.label = label;
+            this.amount = amount;
+        }
+
+        public Kind getKind() { return kind; }
+        public String getLabel() { return label; }
+        public Money getAmount() { return amount; }
+    }
+
+    private final Money subtotal;
+    private final Money discounts;
+    private final Money fees;
+    private final Money tax;
+    private final Money total;
+    private final List<Adjustment> adjustments;
+
+    private PriceBreakdown(Builder builder) {
+        this.subtotal = builder.subtotal;
+        this.discounts = builder.discounts;
+        this.fees = builder.fees;
+        this.tax = builder.tax;
+        this.total = subtotal.minus(discounts).plus(fees).plus(tax);
+        this.adjustments = builder.adjustments.isEmpty()
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(builder.adjustments);
+    }
+
+    public static Builder builder(Money subtotal) {
+        return new Builder(subtotal);
+    }
+
+    public Money getSubtotal() { return subtotal; }
+    public Money getDiscounts() { return discounts; }
+    public Money getFees() { return fees; }
+    public Money getTax() { return tax; }
+    public Money getTotal() { return total; }
+    public List<Adjustment> getAdjustments() { return adjustments; }
+
+    /**
+     * Collects adjustments while a cart is priced. Discounts never take the
+     * subtotal below zero; whatever would is dropped.
+     */
+    public static final class Builder {
+        private final Money subtotal;
+        private Money discounts;
+        private Money fees;
+        private Money tax;
+        private final List<Adjustment> adjustments = new ArrayList<>(4);
+
+        private Builder(Money subtotal) {
+            this.subtotal = subtotal;
+            Money zero = Money.ofMinor(0, subtotal.getCurrency());
+            this.discounts = zero;
+            this.fees = zero;
+            this.tax = zero;
+        }
+
+        public Money getSubtotal() { return subtotal; }
+
+        /** Subtotal less the discounts so far; what tax is charged on. */
+        public Money getDiscountedSubtotal() {
+            return subtotal.minus(discounts);
+        }
+
+        public Builder addDiscount(String label, Money amount) {
+            Money applied = checkPositive(amount).min(getDiscountedSubtotal());
+            if (!applied.isZero()) {
+                discounts = discounts.plus(applied);
+                adjustments.add(new Adjustment(Kind.DISCOUNT, label, applied));
+            }
+            return this;
+        }
+
+        public Builder addFee(String label, Money amount) {
+            if (!checkPositive(amount).isZero()) {
+                fees = fees.plus(amount);
+                adjustments.add(new Adjustment(Kind.FEE, label, amount));
+            }
+            return this;
+        }
+
+        public Builder addTax(String label, Money amount) {
+            if (!checkPositive(amount).isZero()) {
+                tax = tax.plus(amount);
+                adjustments.add(new Adjustment(Kind.TAX, label, amount));
+            }
+            return this;
+        }
+
+        public PriceBreakdown build() {
+            return new PriceBreakdown(this);
+        }
+
+        private static Money checkPositive(Money amount) {
+            if (amount.isNegative()) {
+                throw new IllegalArgumentException("Adjustments are positive amounts: " + amount);
+            }
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package Pricing;
+
+import Cart.Cart;
+import Cart.CartTotalStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prices a cart in a fixed order: subtotal, then discounts, then fees,
+ * then tax. Tax is charged on the discounted subtotal; fees are not taxed.
+ * The pipeline is itself a CartTotalStrategy, so a cart takes it like any
+ * other strategy. Immutable and shared by every cart.
+ */
+public final class PricingPipeline implements CartTotalStrategy {
+    private final CartTotalStrategy[] steps;
+
+    public PricingPipeline(List<? extends CartTotalStrategy> discounts,
+                           List<? extends CartTotalStrategy> fees,
+                           List<? extends CartTotalStrategy> taxes) {
+        List<CartTotalStrategy> ordered = new ArrayList<>(discounts.size() + fees.size() + taxes.size());
+        ordered.addAll(discounts);
+        ordered.addAll(fees);
+        ordered.addAll(taxes);
+        this.steps = ordered.toArray(new CartTotalStrategy[0]);
+    }
+
+    @Override
+    public void apply(Cart cart, PriceBreakdown.Builder price) {
+        for (CartTotalStrategy step : steps) {
+            step.apply(cart, price);
+        }
+    }
+
+    // Step versions only grow, so their sum changes whenever any of them does
+    @Override
+    public long getVersion() {
+        long version = 0;
+        for (CartTotalStrategy step : steps) {
+            version += step.getVersion();
+        }
+        return version;
+    }
+
+    /** A flat fee on every cart, empty or not. */
+    public static final class FlatFee implements CartTotalStrategy {
+        private final String label;
+        private final Money amount;
+
+        public FlatFee(String label, Money amount) {
+            this.label = label;
+            this.amount = amount;
+        }
+
+        @Override
+        public void apply(Cart cart, PriceBreakdown.Builder price) {
+            price.addFee(label, amount);
+        }
+    }
+
+    /** A percentage of the discounted subtotal, in basis points (1000 is 10%). */
+    public static final class PercentageTax implements CartTotalStrategy {
+        private final String label;
+        private final int basisPoints;
+
+        public PercentageTax(String label, int basisPoints) {
+            this.label = label;
+            this.basisPoints = basisPoints;
+        }
+
+        @Override
+        public void apply(Cart cart, PriceBreakdown.Builder price) {
+            price.addTax(label, price.getDiscountedSubtotal().percent(basisPoints));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package Pricing;
+
+import java.util.Locale;
+
+/**
+ * One row of the promotions table. What it discounts depends on its kind:
+ *
+ *   ITEM_PERCENT      percentBp off every line of itemId
+ *   CATEGORY_PERCENT  percentBp off every line of an item in categoryId
+ *   BOGO              for every buyQuantity + getQuantity units of itemId,
+ *                     getQuantity of them are free
+ *   BASKET            percentBp, or amountMinor, off the whole cart once its
+ *                     subtotal reaches minSubtotalMinor
+ *
+ * Any promotion can be limited to a time window [startsAt, endsAt), in epoch
+ * millis with 0 for open, and to carts that entered its coupon code.
+ * minSubtotalMinor gates every kind, not only BASKET.
+ */
+public final class Promotion {
+    public enum Kind { ITEM_PERCENT, CATEGORY_PERCENT, BOGO, BASKET }
+
+    private final int promoId;
+    private final String name;
+    private final Kind kind;
+    private final int itemId;
+    private final int categoryId;
+    private final int percentBp;
+    private final long amountMinor;
+    private final int buyQuantity;
+    private final int getQuantity;
+    private final long minSubtotalMinor;
+    private final String couponCode;   // normalized, null for automatic promotions
+    private final long startsAt;
+    private final long endsAt;
+
+    public Promotion(int promoId, String name, Kind kind, int itemId, int categoryId,
+                     int percentBp, long amountMinor, int buyQuantity, int getQuantity,
+                     long minSubtotalMinor, String couponCode, long startsAt, long endsAt) {
+        this.promoId = promoId;
+        this.name = name;
+        this.kind = kind;
+        this.itemId = itemId;
+        this.categoryId = categoryId;
+        this.percentBp = Math.max(0, Math.min(10_000, percentBp));
+        this.amountMinor = Math.max(0, amountMinor);
+        this.buyQuantity = buyQuantity;
+        this.getQuantity = getQuantity;
+        this.minSubtotalMinor = Math.max(0, minSubtotalMinor);
+        this.couponCode = normalizeCode(couponCode);
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+    }
+
+    /** Coupon codes match case-insensitively and ignore surrounding spaces; blank is none. */
+    public static String normalizeCode(String code) {
+        if (code == null) return null;
+        String trimmed = code.trim();
+        return trimmed.isEmpty() ? null : trimmed.toUpperCase(Locale.ROOT);
+    }
+
+    public int getPromoId() { return promoId; }
+    public String getName() { return name; }
+    public Kind getKind() { return kind; }
+    public int getItemId() { return itemId; }
+    public int getCategoryId() { return categoryId; }
+    public int getPercentBp() { return percentBp; }
+    public long getAmountMinor() { return amountMinor; }
+    public int getBuyQuantity() { return buyQuantity; }
+    public int getGetQuantity() { return getQuantity; }
+    public long getMinSubtotalMinor() { return minSubtotalMinor; }
+    public String getCouponCode() { return couponCode; }
+    public long getStartsAt() { return startsAt; }
+    public long getEndsAt() { return endsAt; }
+
+    public boolean isActiveAt(long now) {
+        return (startsAt <= 0 || startsAt <= now) && (endsAt <= 0 || now < endsAt);
+    }
+
+    /** Rows that could never discount anything are skipped when the index is built. */
+    boolean isUsable() {
+        switch (kind) {
+            case ITEM_PERCENT:     return itemId > 0 && percentBp > 0;
+            case CATEGORY_PERCENT: return categoryId > 0 && percentBp > 0;
+            case BOGO:             return itemId > 0 && buyQuantity > 0 && getQuantity > 0;
+            case BASKET:           return percentBp > 0 || amountMinor > 0;
+            default:               return false;
+        }
+    }
+
+    /** Discount on one line of the given unit price and quantity, in minor units. */
+    long lineDiscount(long unitPriceMinor, int quantity) {
+        if (kind == Kind.BOGO) {
+            long free = (long) (quantity / (buyQuantity + getQuantity)) * getQuantity;
+            return Math.multiplyExact(unitPriceMinor, free);
+        }
+        return Money.ofMinor(Math.multiplyExact(unitPriceMinor, (long) quantity)).percent(percentBp).getMinor();
+    }
+
+    /** Discount on a basket of the given amount, in minor units. */
+    long basketDiscount(long amountMinor) {
+        long percentOff = percentBp > 0 ? Money.ofMinor(amountMinor).percent(percentBp).getMinor() : 0;
+        return Math.min(amountMinor, Math.max(percentOff, this.amountMinor));
+    }
+}
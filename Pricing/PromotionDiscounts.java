@@ -0,0 +1,29 @@
+package Pricing;
+
+import Cart.Cart;
+import Cart.CartTotalStrategy;
+
+import java.util.function.Supplier;
+
+/**
+ * The discount step: applies the current {@link PromotionIndex} to the
+ * cart's lines and coupon code. The index is looked up on every use, so a
+ * catalog reload or a promotion starting or ending re-prices carts.
+ */
+public final class PromotionDiscounts implements CartTotalStrategy {
+    private final Supplier<PromotionIndex> promotions;
+
+    public PromotionDiscounts(Supplier<PromotionIndex> promotions) {
+        this.promotions = promotions;
+    }
+
+    @Override
+    public void apply(Cart cart, PriceBreakdown.Builder price) {
+        promotions.get().apply(cart.getItems(), cart.getCouponCode(), price);
+    }
+
+    @Override
+    public long getVersion() {
+        return promotions.get().getGeneration();
+    }
+}
@@ -0,0 +1,291 @@
+package Pricing;
+
+import Cart.CartItem;
+import Catalog.IntObjectMap;
+import FoodItem.FoodItemEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Promotions compiled for fast cart evaluation at one point in time.
+ *
+ * Building the index resolves everything that does not depend on the cart:
+ * which promotions are inside their time window, the line promotions of
+ * each item and each category ordered strongest first, and the best basket
+ * promotion at every spend threshold. Evaluating a cart then costs a few
+ * lookups per line plus a binary search for the basket, however many
+ * promotions are live.
+ *
+ * Each line gets its best automatic line discount, then the best automatic
+ * basket discount applies, and a coupon's promotions apply on top of both.
+ * Line discounts never exceed the line; the breakdown caps the rest.
+ *
+ * The index is immutable. It is good until {@link #getValidUntil()}, when
+ * a promotion starts or ends, and {@link #at(long)} rebuilds it then.
+ */
+public final class PromotionIndex {
+    private static final AtomicLong generations = new AtomicLong();
+    public static final PromotionIndex EMPTY = compile(List.of(), List.of(), 0);
+
+    private final long generation;
+    private final long validUntil;
+    private final int activeCount;
+    private final List<Promotion> promotions;
+    private final List<FoodItemEntity> items;
+    private final IntObjectMap<Integer> categoryOf;
+    private final RuleSet automatic;
+    private final Map<String, RuleSet> coupons;
+
+    // Line promotions of one item or one category
+    private static final class LineRules {
+        final Promotion[] percent;   // strongest first
+        final Promotion[] bogo;
+
+        LineRules(Promotion[] percent, Promotion[] bogo) {
+            this.percent = percent;
+            this.bogo = bogo;
+        }
+    }
+
+    // The automatic promotions, or those of one coupon code
+    private static final class RuleSet {
+        final IntObjectMap<LineRules> byItem;
+        final IntObjectMap<LineRules> byCategory;
+        // Basket promotions by ascending threshold, with the best of each sort up to each index
+        final long[] thresholds;
+        final Promotion[] bestPercentUpTo;
+        final Promotion[] bestAmountUpTo;
+
+        RuleSet(IntObjectMap<LineRules> byItem, IntObjectMap<LineRules> byCategory, long[] thresholds,
+                Promotion[] bestPercentUpTo, Promotion[] bestAmountUpTo) {
+            this.byItem = byItem;
+            this.byCategory = byCategory;
+            this.thresholds = thresholds;
+            this.bestPercentUpTo = bestPercentUpTo;
+            this.bestAmountUpTo = bestAmountUpTo;
+        }
+    }
+
+    private PromotionIndex(long generation, long validUntil, int activeCount, List<Promotion> promotions,
+                           List<FoodItemEntity> items, IntObjectMap<Integer> categoryOf,
+                           RuleSet automatic, Map<String, RuleSet> coupons) {
+        this.generation = generation;
+        this.validUntil = validUntil;
+        this.activeCount = activeCount;
+        this.promotions = promotions;
+        this.items = items;
+        this.categoryOf = categoryOf;
+        this.automatic = automatic;
+        this.coupons = coupons;
+    }
+
+    /**
+     * @param promotions every promotion that is or will become active
+     * @param items      the catalog, to find the category of a cart line
+     */
+    public static PromotionIndex compile(List<Promotion> promotions, List<FoodItemEntity> items, long now) {
+        long validUntil = Long.MAX_VALUE;
+        List<Promotion> automatic = new ArrayList<>();
+        Map<String, List<Promotion>> byCoupon = new HashMap<>();
+        int activeCount = 0;
+
+        for (Promotion promotion : promotions) {
+            if (!promotion.isUsable()) continue;
+            // The next start or end anywhere is when this index goes stale
+            if (promotion.getStartsAt() > now) validUntil = Math.min(validUntil, promotion.getStartsAt());
+            if (promotion.getEndsAt() > now) validUntil = Math.min(validUntil, promotion.getEndsAt());
+            if (!promotion.isActiveAt(now)) continue;
+
+            activeCount++;
+            if (promotion.getCouponCode() == null) {
+                automatic.add(promotion);
+            } else {
+                byCoupon.computeIfAbsent(promotion.getCouponCode(), code -> new ArrayList<>()).add(promotion);
+            }
+        }
+
+        IntObjectMap<Integer> categoryOf = new IntObjectMap<>(items.size());
+        for (FoodItemEntity item : items) {
+            categoryOf.put(item.getItemId(), item.getCategoryId());
+        }
+
+        Map<String, RuleSet> coupons = new HashMap<>(byCoupon.size() * 2);
+        for (Map.Entry<String, List<Promotion>> entry : byCoupon.entrySet()) {
+            coupons.put(entry.getKey(), buildRuleSet(entry.getValue()));
+        }
+
+        return new PromotionIndex(generations.incrementAndGet(), validUntil, activeCount,
+                Collections.unmodifiableList(new ArrayList<>(promotions)), items, categoryOf,
+                buildRuleSet(automatic), coupons);
+    }
+
+    private static RuleSet buildRuleSet(List<Promotion> promotions) {
+        Map<Integer, List<Promotion>> itemRules = new HashMap<>();
+        Map<Integer, List<Promotion>> categoryRules = new HashMap<>();
+        List<Promotion> basket = new ArrayList<>();
+        for (Promotion promotion : promotions) {
+            switch (promotion.getKind()) {
+                case ITEM_PERCENT:
+                case BOGO:
+                    itemRules.computeIfAbsent(promotion.getItemId(), id -> new ArrayList<>()).add(promotion);
+                    break;
+                case CATEGORY_PERCENT:
+                    categoryRules.computeIfAbsent(promotion.getCategoryId(), id -> new ArrayList<>()).add(promotion);
+                    break;
+                case BASKET:
+                    basket.add(promotion);
+                    break;
+            }
+        }
+
+        basket.sort(Comparator.comparingLong(Promotion::getMinSubtotalMinor));
+        long[] thresholds = new long[basket.size()];
+        Promotion[] bestPercent = new Promotion[basket.size()];
+        Promotion[] bestAmount = new Promotion[basket.size()];
+        for (int i = 0; i < basket.size(); i++) {
+            Promotion promotion = basket.get(i);
+            thresholds[i] = promotion.getMinSubtotalMinor();
+            Promotion previousPercent = i > 0 ? bestPercent[i - 1] : null;
+            Promotion previousAmount = i > 0 ? bestAmount[i - 1] : null;
+            bestPercent[i] = previousPercent == null || promotion.getPercentBp() > previousPercent.getPercentBp()
+                    ? promotion : previousPercent;
+            bestAmount[i] = previousAmount == null || promotion.getAmountMinor() > previousAmount.getAmountMinor()
+                    ? promotion : previousAmount;
+        }
+        return new RuleSet(toLineRules(itemRules), toLineRules(categoryRules), thresholds, bestPercent, bestAmount);
+    }
+
+    private static IntObjectMap<LineRules> toLineRules(Map<Integer, List<Promotion>> rules) {
+        IntObjectMap<LineRules> byKey = new IntObjectMap<>(rules.size());
+        Comparator<Promotion> strongestFirst = Comparator.comparingInt(Promotion::getPercentBp).reversed();
+        for (Map.Entry<Integer, List<Promotion>> entry : rules.entrySet()) {
+            List<Promotion> percent = new ArrayList<>();
+            List<Promotion> bogo = new ArrayList<>();
+            for (Promotion promotion : entry.getValue()) {
+                (promotion.getKind() == Promotion.Kind.BOGO ? bogo : percent).add(promotion);
+            }
+            percent.sort(strongestFirst);
+            byKey.put(entry.getKey(), new LineRules(percent.toArray(new Promotion[0]), bogo.toArray(new Promotion[0])));
+        }
+        return byKey;
+    }
+
+    /** This index if it is still current at now, else one rebuilt for now. */
+    public PromotionIndex at(long now) {
+        return now < validUntil ? this : compile(promotions, items, now);
+    }
+
+    /** Unique per build; a cart priced against another generation re-prices. */
+    public long getGeneration() { return generation; }
+    public long getValidUntil() { return validUntil; }
+    public int getActiveCount() { return activeCount; }
+
+    /** True when the code has at least one promotion live now. */
+    public boolean hasCoupon(String code) {
+        String normalized = Promotion.normalizeCode(code);
+        return normalized != null && coupons.containsKey(normalized);
+    }
+
+    /** Adds the discounts for these lines and coupon code to the breakdown. */
+    public void apply(List<CartItem> lines, String couponCode, PriceBreakdown.Builder price) {
+        long subtotal = price.getSubtotal().getMinor();
+        RuleSet coupon = couponCode != null ? coupons.get(Promotion.normalizeCode(couponCode)) : null;
+
+        // What is left of each line after the discounts so far
+        long[] remaining = new long[lines.size()];
+        for (int i = 0; i < remaining.length; i++) {
+            remaining[i] = lines.get(i).getTotalMinor();
+        }
+        // Line discounts are reported once per promotion, not once per line
+        Map<Promotion, Long> applied = new LinkedHashMap<>();
+        applyLines(automatic, lines, subtotal, remaining, applied);
+        if (coupon != null) {
+            applyLines(coupon, lines, subtotal, remaining, applied);
+        }
+        for (Map.Entry<Promotion, Long> entry : applied.entrySet()) {
+            price.addDiscount(entry.getKey().getName(), Money.ofMinor(entry.getValue()));
+        }
+
+        applyBasket(automatic, subtotal, price);
+        if (coupon != null) {
+            applyBasket(coupon, subtotal, price);
+        }
+    }
+
+    private void applyLines(RuleSet rules, List<CartItem> lines, long subtotal,
+                            long[] remaining, Map<Promotion, Long> applied) {
+        for (int i = 0; i < remaining.length; i++) {
+            CartItem line = lines.get(i);
+            if (line.getItemId() <= 0 || remaining[i] == 0) continue;
+            LineRules itemRules = rules.byItem.get(line.getItemId());
+            Integer categoryId = categoryOf.get(line.getItemId());
+            LineRules categoryRules = categoryId != null ? rules.byCategory.get(categoryId) : null;
+            if (itemRules == null && categoryRules == null) continue;
+
+            // The strongest eligible percentage of the item or its category, or a BOGO if that saves more
+            Promotion best = strongerOf(firstEligible(itemRules, subtotal), firstEligible(categoryRules, subtotal));
+            long bestDiscount = best != null ? best.lineDiscount(line.getUnitPriceMinor(), line.getQuantity()) : 0;
+            if (itemRules != null) {
+                for (Promotion promotion : itemRules.bogo) {
+                    if (promotion.getMinSubtotalMinor() <= subtotal) {
+                        long discount = promotion.lineDiscount(line.getUnitPriceMinor(), line.getQuantity());
+                        if (discount > bestDiscount) {
+                            best = promotion;
+                            bestDiscount = discount;
+                        }
+                    }
+                }
+            }
+
+            long discount = Math.min(bestDiscount, remaining[i]);
+            if (discount > 0) {
+                remaining[i] -= discount;
+                applied.merge(best, discount, Long::sum);
+            }
+        }
+    }
+
+    // Percentages are sorted strongest first, so the first eligible one wins
+    private static Promotion firstEligible(LineRules rules, long subtotal) {
+        if (rules == null) return null;
+        for (Promotion promotion : rules.percent) {
+            if (promotion.getMinSubtotalMinor() <= subtotal) {
+                return promotion;
+            }
+        }
+        return null;
+    }
+
+    private static Promotion strongerOf(Promotion a, Promotion b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return b.getPercentBp() > a.getPercentBp() ? b : a;
+    }
+
+    private static void applyBasket(RuleSet rules, long subtotal, PriceBreakdown.Builder price) {
+        // Last basket promotion whose threshold the subtotal reaches
+        int index = Arrays.binarySearch(rules.thresholds, subtotal);
+        if (index < 0) {
+            index = -index - 2;
+        } else {
+            while (index + 1 < rules.thresholds.length && rules.thresholds[index + 1] == subtotal) index++;
+        }
+        if (index < 0) return;
+
+        long amount = price.getDiscountedSubtotal().getMinor();
+        Promotion byPercent = rules.bestPercentUpTo[index];
+        Promotion byAmount = rules.bestAmountUpTo[index];
+        long percentDiscount = byPercent.basketDiscount(amount);
+        long amountDiscount = byAmount.basketDiscount(amount);
+        Promotion best = percentDiscount >= amountDiscount ? byPercent : byAmount;
+        price.addDiscount(best.getName(), Money.ofMinor(Math.max(percentDiscount, amountDiscount)));
+    }
+}
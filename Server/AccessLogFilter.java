@@ -0,0 +1,36 @@
+package Server;
+
+import Logging.Log;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one structured access log record per request, with its status
+ * and how long the handler took. Replaces the per-request console line.
+ */
+public class AccessLogFilter extends Filter {
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            int status = exchange.getResponseCode();
+            InetSocketAddress remote = exchange.getRemoteAddress();
+            Log.access(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                    status > 0 ? status : 500,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                    remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : null);
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Structured access log";
+    }
+}
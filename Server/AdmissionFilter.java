@@ -0,0 +1,101 @@
+package Server;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds how many requests run at once. A request that cannot get a slot
+ * waits in a bounded queue for up to queueTimeoutMillis; when the queue is
+ * full or the wait times out it is answered with 503 and Retry-After.
+ */
+public class AdmissionFilter extends Filter {
+    private final Semaphore slots;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final int retryAfterSeconds;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdmissionFilter(int maxInFlight, int maxQueued, long queueTimeoutMillis, int retryAfterSeconds) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.slots = new Semaphore(this.maxInFlight);
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!acquire()) {
+            rejected.increment();
+            sendServiceUnavailable(exchange);
+            return;
+        }
+
+        admitted.increment();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private boolean acquire() {
+        if (slots.tryAcquire()) {
+            return true;
+        }
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return slots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void sendServiceUnavailable(HttpExchange exchange) throws IOException {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", true);
+        error.addProperty("message", "Server is busy, please retry shortly");
+        error.addProperty("statusCode", 503);
+        byte[] body = error.toString().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(503, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    public int getInFlight() { return maxInFlight - slots.availablePermits(); }
+    public int getQueued() { return queued.get(); }
+    public int getMaxInFlight() { return maxInFlight; }
+    public int getMaxQueued() { return maxQueued; }
+    public long getAdmittedCount() { return admitted.sum(); }
+    public long getRejectedCount() { return rejected.sum(); }
+
+    @Override
+    public String description() {
+        return "Admission control (max in-flight " + maxInFlight + ", max queued " + maxQueued + ")";
+    }
+}
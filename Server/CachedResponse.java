@@ -0,0 +1,126 @@
+package Server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body rendered once and served many times: the identity bytes,
+ * an optional gzip variant and a strong ETag for each. Honours
+ * If-None-Match with 304 and Accept-Encoding: gzip.
+ */
+public final class CachedResponse {
+    // Below this size gzip framing costs more than it saves
+    private static final int MIN_GZIP_SIZE = 512;
+
+    private final String contentType;
+    private final String cacheControl;
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+    private CachedResponse(String contentType, String cacheControl, byte[] body, byte[] gzipBody, String etag) {
+        this.contentType = contentType;
+        this.cacheControl = cacheControl;
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = "\"" + etag + "\"";
+        this.gzipEtag = "\"" + etag + "-gz\"";
+    }
+
+    /**
+     * @param tag short prefix for the ETag, e.g. "menu-v12"; the content
+     *            checksum is appended so the tag changes whenever the bytes do
+     */
+    public static CachedResponse of(String tag, String contentType, String cacheControl, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        String etag = tag + "-" + Long.toHexString(crc.getValue());
+        return new CachedResponse(contentType, cacheControl, body, gzip(body), etag);
+    }
+
+    public byte[] getBody() { return body; }
+    public byte[] getGzipBody() { return gzipBody; }
+    public String getEtag() { return etag; }
+    public String getContentType() { return contentType; }
+
+    public void send(HttpExchange exchange) throws IOException {
+        boolean useGzip = gzipBody != null && acceptsGzip(exchange);
+        String currentEtag = useGzip ? gzipEtag : etag;
+
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("ETag", currentEtag);
+        if (cacheControl != null) {
+            exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+        }
+        if (gzipBody != null) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        }
+
+        if (matchesIfNoneMatch(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] payload = useGzip ? gzipBody : body;
+        if (useGzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(payload.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.sendResponseHeaders(200, payload.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(payload);
+        }
+    }
+
+    // Either representation's tag is a match: both describe the same content
+    private boolean matchesIfNoneMatch(String header) {
+        if (header == null) return false;
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean acceptsGzip(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept == null) return false;
+        for (String part : accept.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase("gzip")) {
+                return tokens.length < 2 || !tokens[1].trim().replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+
+    public static byte[] gzip(byte[] body) {
+        if (body.length < MIN_GZIP_SIZE) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 3 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            return null;
+        }
+        byte[] compressed = buffer.toByteArray();
+        return compressed.length < body.length ? compressed : null;
+    }
+}
@@ -0,0 +1,162 @@
+package Server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes JSON straight into the exchange body.
+ *
+ * Output goes into a pooled buffer first. If the whole document fits, it is
+ * sent with an exact Content-Length; otherwise the response switches to
+ * chunked transfer and the buffer is flushed one full chunk at a time, so a
+ * large body is never held in memory as a String or byte[] copy.
+ */
+public final class JsonResponseWriter {
+    public static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final int BUFFER_SIZE = 32 * 1024;
+    private static final BlockingQueue<byte[]> BUFFER_POOL =
+            new ArrayBlockingQueue<>(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    /** Writes a JSON document incrementally. */
+    @FunctionalInterface
+    public interface JsonBody {
+        void writeTo(JsonWriter out) throws IOException;
+    }
+
+    private JsonResponseWriter() {}
+
+    public static void send(HttpExchange exchange, int statusCode, Gson gson, Object payload) throws IOException {
+        if (payload instanceof JsonElement) {
+            send(exchange, statusCode, gson, out -> gson.toJson((JsonElement) payload, out));
+        } else {
+            send(exchange, statusCode, gson, out -> gson.toJson(payload, payload.getClass(), out));
+        }
+    }
+
+    public static void send(HttpExchange exchange, int statusCode, Gson gson, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        SpillingOutputStream out = new SpillingOutputStream(exchange, statusCode);
+        try {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            JsonWriter jsonWriter = gson.newJsonWriter(writer);
+            body.writeTo(jsonWriter);
+            jsonWriter.flush();
+            out.close();
+        } catch (IOException | RuntimeException e) {
+            // Nothing sent yet means the caller can still answer with an error
+            out.abort();
+            throw e;
+        }
+    }
+
+    /** Sends an already serialized document with its exact UTF-8 length. */
+    public static void send(HttpExchange exchange, int statusCode, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static byte[] borrowBuffer() {
+        byte[] buffer = BUFFER_POOL.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    private static void returnBuffer(byte[] buffer) {
+        BUFFER_POOL.offer(buffer);
+    }
+
+    private static final class SpillingOutputStream extends OutputStream {
+        private final HttpExchange exchange;
+        private final int statusCode;
+        private byte[] buffer = borrowBuffer();
+        private int count;
+        private OutputStream body;
+        private boolean closed;
+
+        SpillingOutputStream(HttpExchange exchange, int statusCode) {
+            this.exchange = exchange;
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                drain();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    drain();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        // Buffer full: commit to chunked transfer and ship what we have
+        private void drain() throws IOException {
+            if (body == null) {
+                exchange.sendResponseHeaders(statusCode, 0);
+                body = exchange.getResponseBody();
+            }
+            body.write(buffer, 0, count);
+            count = 0;
+        }
+
+        @Override
+        public void flush() {
+            // Bytes leave on drain() or close(); tiny chunks are not worth it
+        }
+
+        void abort() {
+            if (closed) return;
+            closed = true;
+            returnBuffer(buffer);
+            buffer = null;
+            if (body != null) {
+                // Headers are out, so the only honest signal left is a cut connection
+                exchange.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                if (body == null) {
+                    exchange.sendResponseHeaders(statusCode, count == 0 ? -1 : count);
+                    body = exchange.getResponseBody();
+                }
+                if (count > 0) {
+                    body.write(buffer, 0, count);
+                }
+                body.close();
+            } finally {
+                returnBuffer(buffer);
+                buffer = null;
+            }
+        }
+    }
+}
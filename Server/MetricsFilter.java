@@ -0,0 +1,87 @@
+package Server;
+
+import Metrics.LatencyHistogram;
+import Metrics.MetricsRegistry;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Counts requests, statuses and latency per route.
+ *
+ * Paths are mapped to route names by the function given to the
+ * constructor, so ids in URLs and unknown paths do not create a new
+ * series each.
+ */
+public class MetricsFilter extends Filter {
+    private final MetricsRegistry registry;
+    private final Function<String, String> routeOf;
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    private final class RouteMetrics {
+        private final String route;
+        private final String method;
+        private final LatencyHistogram latency;
+        private final MetricsRegistry.Gauge inFlight;
+        private final Map<Integer, MetricsRegistry.Counter> byStatus = new ConcurrentHashMap<>();
+
+        RouteMetrics(String route, String method) {
+            this.route = route;
+            this.method = method;
+            this.latency = registry.histogram("http_request_duration_seconds",
+                    "Time from request dispatch to handler return", "route", route, "method", method);
+            this.inFlight = registry.gauge("http_requests_in_flight",
+                    "Requests currently being handled", "route", route, "method", method);
+        }
+
+        MetricsRegistry.Counter status(int status) {
+            return byStatus.computeIfAbsent(status, code -> registry.counter("http_requests_total",
+                    "Requests handled, by route, method and status", "route", route, "method", method,
+                    "status", Integer.toString(code)));
+        }
+    }
+
+    public MetricsFilter(MetricsRegistry registry, Function<String, String> routeOf) {
+        this.registry = registry;
+        this.routeOf = routeOf;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        String method = normalizeMethod(exchange.getRequestMethod());
+        String route = routeOf.apply(exchange.getRequestURI().getPath());
+        RouteMetrics metrics = routes.computeIfAbsent(route + ' ' + method, key -> new RouteMetrics(route, method));
+
+        long start = System.nanoTime();
+        metrics.inFlight.inc();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            metrics.inFlight.dec();
+            metrics.latency.recordSince(start);
+            // -1 means the handler failed before sending headers
+            int status = exchange.getResponseCode();
+            metrics.status(status > 0 ? status : 500).inc();
+        }
+    }
+
+    // Clients can send any method token; only the standard ones get their own series
+    private static String normalizeMethod(String method) {
+        switch (method) {
+            case "GET": case "POST": case "PUT": case "DELETE":
+            case "PATCH": case "HEAD": case "OPTIONS":
+                return method;
+            default:
+                return "OTHER";
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Per-route request metrics";
+    }
+}
@@ -0,0 +1,81 @@
+package Server;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams newline-delimited JSON, one document per line, over chunked transfer.
+ *
+ * Lines go through a fixed-size buffer (and gzip when the client accepts it)
+ * straight into the exchange body, so memory use does not depend on how many
+ * lines are written.
+ */
+public final class NdjsonResponseWriter implements Closeable {
+    public static final String CONTENT_TYPE = "application/x-ndjson; charset=utf-8";
+
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private final Writer writer;
+    private final JsonWriter json;
+    private long lines;
+    private boolean closed;
+
+    private NdjsonResponseWriter(Writer writer, Gson gson) throws IOException {
+        this.writer = writer;
+        this.json = gson.newJsonWriter(writer);
+        // Lenient mode lets one writer emit many top-level documents
+        this.json.setLenient(true);
+    }
+
+    /** Sends 200 headers and opens the body; gzip is used when the client accepts it. */
+    public static NdjsonResponseWriter open(HttpExchange exchange, Gson gson, String filename) throws IOException {
+        boolean gzip = CachedResponse.acceptsGzip(exchange);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        if (filename != null) {
+            exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        }
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+
+        OutputStream body = exchange.getResponseBody();
+        if (gzip) {
+            body = new GZIPOutputStream(body, BUFFER_SIZE);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return new NdjsonResponseWriter(writer, gson);
+    }
+
+    /** Writes one document followed by a newline. */
+    public void write(JsonResponseWriter.JsonBody line) throws IOException {
+        // JsonWriter has no buffer of its own; flushing it would push a tiny chunk per line
+        line.writeTo(json);
+        writer.write('\n');
+        lines++;
+    }
+
+    public long getLineCount() {
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        // Finishes the gzip trailer and the terminating chunk
+        writer.close();
+    }
+}
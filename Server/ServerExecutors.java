@@ -0,0 +1,104 @@
+package Server;
+
+import Logging.Log;
+import Logging.Logger;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the executor the HttpServer dispatches requests on.
+ *
+ * VIRTUAL  - one virtual thread per request (JDK 21+, falls back to PLATFORM)
+ * PLATFORM - platform threads handed each request directly, growing on demand
+ * LEGACY   - no executor, everything runs on the single dispatcher thread
+ */
+public class ServerExecutors {
+    private static final Logger log = Log.getLogger(ServerExecutors.class);
+    // A thread that has just answered may not be waiting for work yet; the
+    // dispatcher gives it this long before the request is rejected
+    private static final long HANDOFF_WAIT_MILLIS = Long.getLong("server.handoffWaitMs", 50);
+
+    public enum Mode {
+        VIRTUAL, PLATFORM, LEGACY;
+
+        public static Mode parse(String value) {
+            if (value == null || value.isBlank()) return VIRTUAL;
+            try {
+                return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                log.warn("⚠️  Unknown executor mode '" + value + "', using VIRTUAL");
+                return VIRTUAL;
+            }
+        }
+    }
+
+    private ServerExecutors() {}
+
+    /**
+     * Creates the executor for the given mode, or null for LEGACY.
+     *
+     * PLATFORM keeps platformThreads threads and has no queue: every request
+     * gets a thread straight away, up to maxThreads, so it reaches
+     * AdmissionFilter, which does the waiting and answers 503 on overflow.
+     * maxThreads must therefore cover AdmissionFilter's in-flight and queued
+     * limits plus the requests that bypass it. Past maxThreads a request
+     * waits up to server.handoffWaitMs for a thread to come free; after that
+     * the JDK server closes its connection.
+     */
+    public static ExecutorService create(Mode mode, int platformThreads, int maxThreads) {
+        switch (mode) {
+            case LEGACY:
+                return null;
+            case VIRTUAL:
+                ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+                if (virtual != null) return virtual;
+                log.warn("⚠️  Virtual threads need JDK 21+, falling back to platform pool");
+                return newPlatformPool(platformThreads, maxThreads);
+            case PLATFORM:
+            default:
+                return newPlatformPool(platformThreads, maxThreads);
+        }
+    }
+
+    private static ExecutorService newPlatformPool(int coreThreads, int maxThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "http-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        // Threads above the core count exit after a minute idle
+        int core = Math.max(1, coreThreads);
+        return new ThreadPoolExecutor(core, Math.max(core, maxThreads), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), factory, ServerExecutors::handOffOrReject);
+    }
+
+    private static void handOffOrReject(Runnable task, ThreadPoolExecutor pool) {
+        try {
+            if (!pool.isShutdown() && pool.getQueue().offer(task, HANDOFF_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RejectedExecutionException("All " + pool.getMaximumPoolSize() + " request threads are busy");
+    }
+
+    /** One virtual thread per task, or null before JDK 21. Looked up reflectively so the sources still compile on JDK 17. */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
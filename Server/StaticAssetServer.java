@@ -0,0 +1,372 @@
+package Server;
+
+import Logging.Log;
+import Logging.Logger;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Serves the frontend/ folder from memory.
+ *
+ * Every file is read onto the heap once at startup. Nothing is
+ * memory-mapped, so a file rewritten or truncated on disk cannot change or
+ * fault the bytes being served. Compressible types also keep a gzip copy. Responses
+ * carry ETag, Last-Modified and Cache-Control and honour conditional GETs.
+ * A WatchService reloads files that change on disk.
+ */
+public class StaticAssetServer {
+    private static final Logger log = Log.getLogger(StaticAssetServer.class);
+    private static final Logger.Sampler servedLog = log.sampled();
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    // Map common routes to HTML files
+    private static final Map<String, String> ROUTES = Map.of(
+            "/login", "/login.html",
+            "/register", "/register.html",
+            "/menu", "/menu.html",
+            "/cart", "/cart.html",
+            "/checkout", "/checkout.html",
+            "/order-confirmation", "/order-confirmation.html",
+            "/profile", "/profile.html"
+    );
+
+    private static final byte[] NOT_FOUND_PAGE = """
+        <!DOCTYPE html>
+        <html>
+        <head>
+            <title>404 - Food Not Found</title>
+            <style>
+                body {
+                    font-family: Arial, sans-serif;
+                    text-align: center;
+                    padding: 50px;
+                    background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
+                    color: white;
+                    min-height: 100vh;
+                    display: flex;
+                    flex-direction: column;
+                    justify-content: center;
+                    align-items: center;
+                }
+                h1 {
+                    font-size: 4rem;
+                    margin-bottom: 20px;
+                    color: #ff6b6b;
+                }
+                p {
+                    font-size: 1.2rem;
+                    margin-bottom: 30px;
+                    max-width: 600px;
+                }
+                a {
+                    color: #4ecdc4;
+                    text-decoration: none;
+                    font-weight: bold;
+                    font-size: 1.1rem;
+                    padding: 10px 30px;
+                    background: rgba(255,255,255,0.1);
+                    border-radius: 50px;
+                    transition: all 0.3s;
+                }
+                a:hover {
+                    background: rgba(255,255,255,0.2);
+                    transform: translateY(-2px);
+                }
+            </style>
+        </head>
+        <body>
+            <h1>🍕 404 - Food Not Found!</h1>
+            <p>The delicious page you're looking for doesn't exist. Maybe it was eaten?</p>
+            <a href="/">🏠 Back to Home</a>
+        </body>
+        </html>
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final Path root;
+    private final int maxAgeSeconds;
+    private final Map<String, Asset> assets = new ConcurrentHashMap<>();
+    private WatchService watchService;
+
+    public StaticAssetServer(Path root, int maxAgeSeconds) {
+        this.root = root.toAbsolutePath().normalize();
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /** Loads every file under the root. */
+    public void load() throws IOException {
+        if (!Files.isDirectory(root)) {
+            log.warn("⚠️  Static folder not found: " + root);
+            return;
+        }
+
+        long bytes = 0;
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                Asset asset = loadAsset(file);
+                if (asset != null) {
+                    bytes += asset.body.length;
+                }
+            }
+        }
+        log.info("📦 Static assets loaded: " + assets.size() + " files, " + (bytes / 1024) + " KB");
+    }
+
+    /** Watches the root for changes and reloads affected files. */
+    public void startWatching() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            try (Stream<Path> dirs = Files.walk(root)) {
+                for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                    register(dir);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️  Static file watching disabled: " + e.getMessage());
+            return;
+        }
+
+        Thread watcher = new Thread(this::watchLoop, "static-asset-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public int getAssetCount() {
+        return assets.size();
+    }
+
+    public void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+
+        // Default to index.html
+        if (path.equals("/") || path.equals("")) {
+            path = "/index.html";
+        }
+        path = ROUTES.getOrDefault(path, path);
+
+        Asset asset = assets.get(path);
+        if (asset == null) {
+            // Try with .html extension
+            asset = assets.get(path + ".html");
+        }
+
+        if (asset == null) {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(404, NOT_FOUND_PAGE.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(NOT_FOUND_PAGE);
+            }
+            String missing = path;
+            log.debug(() -> "❌ File not found: " + missing);
+            return;
+        }
+
+        send(exchange, asset);
+        String served = path;
+        String contentType = asset.contentType;
+        servedLog.info(() -> "📄 Served: " + served + " (" + contentType + ")");
+    }
+
+    private void send(HttpExchange exchange, Asset asset) throws IOException {
+        boolean useGzip = asset.gzipBody != null && CachedResponse.acceptsGzip(exchange);
+        String etag = useGzip ? asset.gzipEtag : asset.etag;
+
+        exchange.getResponseHeaders().set("Content-Type", asset.contentType);
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Last-Modified", asset.lastModifiedHttp);
+        exchange.getResponseHeaders().set("Cache-Control", asset.cacheControl);
+        if (asset.gzipBody != null) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        }
+
+        if (isNotModified(exchange, asset)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] payload = useGzip ? asset.gzipBody : asset.body;
+        if (useGzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(payload.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.sendResponseHeaders(200, payload.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(payload);
+        }
+    }
+
+    private boolean isNotModified(HttpExchange exchange, Asset asset) {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-None-Match wins over If-Modified-Since when both are present
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) tag = tag.substring(2);
+                if (tag.equals("*") || tag.equals(asset.etag) || tag.equals(asset.gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        if (ifModifiedSince != null) {
+            try {
+                long since = ZonedDateTime.parse(ifModifiedSince, HTTP_DATE).toInstant().toEpochMilli();
+                return asset.lastModified <= since;
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private Asset loadAsset(Path file) {
+        String urlPath = "/" + root.relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+        try {
+            byte[] body = Files.readAllBytes(file);
+
+            String contentType = getContentType(urlPath);
+            long lastModified = Files.getLastModifiedTime(file).toMillis() / 1000 * 1000;
+            Asset asset = new Asset(body, contentType, lastModified,
+                    cacheControlFor(contentType), isCompressible(contentType));
+            assets.put(urlPath, asset);
+            return asset;
+        } catch (IOException e) {
+            log.error("❌ Error loading static file " + urlPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void register(Path dir) throws IOException {
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    private void watchLoop() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    continue;
+                }
+                Path changed = dir.resolve((Path) event.context());
+                String urlPath = "/" + root.relativize(changed.toAbsolutePath().normalize()).toString().replace('\\', '/');
+
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    assets.remove(urlPath);
+                    log.info("♻️  Static file removed: " + urlPath);
+                } else if (Files.isDirectory(changed)) {
+                    try {
+                        register(changed);
+                    } catch (IOException e) {
+                        log.warn("⚠️  Cannot watch " + changed + ": " + e.getMessage());
+                    }
+                } else if (Files.isRegularFile(changed) && loadAsset(changed) != null) {
+                    log.info("♻️  Static file reloaded: " + urlPath);
+                }
+            }
+            key.reset();
+        }
+    }
+
+    private String cacheControlFor(String contentType) {
+        // Pages must pick up new script/style references right away
+        if (contentType.startsWith("text/html")) {
+            return "no-cache";
+        }
+        return "public, max-age=" + maxAgeSeconds;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text/")
+                || contentType.startsWith("application/javascript")
+                || contentType.startsWith("application/json")
+                || contentType.startsWith("image/svg+xml");
+    }
+
+    private static String getContentType(String path) {
+        if (path.endsWith(".css")) return "text/css; charset=utf-8";
+        if (path.endsWith(".js")) return "application/javascript; charset=utf-8";
+        if (path.endsWith(".png")) return "image/png";
+        if (path.endsWith(".jpg") || path.endsWith(".jpeg")) return "image/jpeg";
+        if (path.endsWith(".gif")) return "image/gif";
+        if (path.endsWith(".svg")) return "image/svg+xml";
+        if (path.endsWith(".ico")) return "image/x-icon";
+        if (path.endsWith(".json")) return "application/json";
+        return "text/html; charset=utf-8";
+    }
+
+    private static final class Asset {
+        // Never modified after construction
+        private final byte[] body;
+        private final byte[] gzipBody;
+        private final String contentType;
+        private final String cacheControl;
+        private final long lastModified;
+        private final String lastModifiedHttp;
+        private final String etag;
+        private final String gzipEtag;
+
+        Asset(byte[] body, String contentType, long lastModified, String cacheControl, boolean compressible) {
+            this.body = body;
+            this.contentType = contentType;
+            this.cacheControl = cacheControl;
+            this.lastModified = lastModified;
+            this.lastModifiedHttp = HTTP_DATE.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneOffset.UTC));
+
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            String tag = Long.toHexString(body.length) + "-" + Long.toHexString(crc.getValue());
+            this.etag = "\"" + tag + "\"";
+            this.gzipEtag = "\"" + tag + "-gz\"";
+
+            this.gzipBody = compressible ? CachedResponse.gzip(body) : null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package Server;
+
+import Logging.Log;
+import Logging.Logger;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Sends a representative request mix to a freshly started server, for
+ * class-data sharing and AOT cache training runs. The JVM records the
+ * classes these requests load when it exits, and the next start maps them
+ * from the archive instead of loading and verifying them again.
+ *
+ * Orders are placed, so point the server at a scratch database.
+ */
+public final class TrainingRun {
+    private static final Logger log = Log.getLogger(TrainingRun.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final URI base;
+    private int failures;
+
+    private TrainingRun(URI base) {
+        this.base = base;
+    }
+
+    /** Runs the request mix the given number of times; true when every request succeeded. */
+    public static boolean run(URI base, int rounds) throws InterruptedException {
+        TrainingRun run = new TrainingRun(base);
+        for (int i = 0; i < rounds; i++) {
+            run.round();
+        }
+        log.info("🎓 Training run finished: " + rounds + " rounds, " + run.failures + " failed requests");
+        return run.failures == 0;
+    }
+
+    private void round() throws InterruptedException {
+        get("/health/live");
+        get("/health/ready");
+        get("/metrics");
+        get("/index.html");
+        get("/api/test");
+        get("/api/menu");
+        get("/api/menu/1");
+        get("/api/categories");
+
+        JsonObject credentials = new JsonObject();
+        credentials.addProperty("username", "admin");
+        credentials.addProperty("password", "1234");
+        String login = post("/api/login", credentials);
+        if (login == null) {
+            return;
+        }
+        String sessionId = JsonParser.parseString(login).getAsJsonObject().get("sessionId").getAsString();
+
+        JsonObject add = new JsonObject();
+        add.addProperty("sessionId", sessionId);
+        add.addProperty("itemId", 1);
+        add.addProperty("quantity", 2);
+        post("/api/cart/add", add);
+        get("/api/cart?sessionId=" + sessionId);
+
+        JsonObject order = new JsonObject();
+        order.addProperty("sessionId", sessionId);
+        order.addProperty("username", "admin");
+        order.addProperty("address", "Training Run");
+        post("/api/order", order);
+
+        get("/api/orders?username=admin");
+        get("/api/user/profile?username=admin");
+        get("/api/admin/stats/sales?sessionId=" + sessionId);
+        get("/api/admin/orders/export?sessionId=" + sessionId);
+        get("/api/diagnostics");
+
+        JsonObject clear = new JsonObject();
+        clear.addProperty("sessionId", sessionId);
+        post("/api/cart/clear", clear);
+    }
+
+    private String get(String path) throws InterruptedException {
+        return send(HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET().build());
+    }
+
+    private String post(String path, JsonObject body) throws InterruptedException {
+        return send(HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+    }
+
+    // Response body, or null after logging a failure
+    private String send(HttpRequest request) throws InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                return response.body();
+            }
+            log.warn("⚠️  Training request " + request.uri().getPath() + " returned " + response.statusCode());
+        } catch (IOException e) {
+            log.warn("⚠️  Training request " + request.uri().getPath() + " failed: " + e.getMessage());
+        }
+        failures++;
+        return null;
+    }
+}
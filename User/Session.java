@@ -0,0 +1,35 @@
+package User;
+
+import Cart.Cart;
+
+/** One logged-in browser session and the cart that belongs to it. */
+public class Session {
+    private final String sessionId;
+    private final String username;
+    private final Cart cart;
+    private final long createdAt;
+    private volatile long lastAccessedAt;
+
+    public Session(String sessionId, String username, Cart cart, long now) {
+        this(sessionId, username, cart, now, now);
+    }
+
+    /** A session brought back from storage, keeping the times it was stored with. */
+    public Session(String sessionId, String username, Cart cart, long createdAt, long lastAccessedAt) {
+        this.sessionId = sessionId;
+        this.username = username;
+        this.cart = cart;
+        this.createdAt = createdAt;
+        this.lastAccessedAt = lastAccessedAt;
+    }
+
+    public String getSessionId() { return sessionId; }
+    public String getUsername() { return username; }
+    public Cart getCart() { return cart; }
+    public long getCreatedAt() { return createdAt; }
+    public long getLastAccessedAt() { return lastAccessedAt; }
+
+    void touch(long now) {
+        lastAccessedAt = now;
+    }
+}
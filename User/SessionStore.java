@@ -0,0 +1,279 @@
+package User;
+
+import Logging.Log;
+import Logging.Logger;
+import Cart.Cart;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded, expiring store of sessions.
+ *
+ * Sessions are spread over lock-striped segments, each an access-ordered
+ * LinkedHashMap, so every segment evicts its least recently used entry
+ * once it is over its share of the cap. Idle and absolute TTLs are checked
+ * on read and by a background sweeper.
+ *
+ * Sessions that end, whether they expire, are evicted or are removed, are
+ * handed to the end listener, so their stored state can go with them. A
+ * session restored from storage keeps its stored times and must still be
+ * inside both TTLs.
+ */
+public class SessionStore {
+    private static final Logger log = Log.getLogger(SessionStore.class);
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long idleTtlMillis;
+    private final long absoluteTtlMillis;
+    private final int maxPerSegment;
+    // One restore per session id at a time; later callers wait for its result
+    private final ConcurrentHashMap<String, CompletableFuture<Session>> restoring = new ConcurrentHashMap<>();
+    private volatile Consumer<Session> endListener = session -> {};
+    private ScheduledExecutorService sweeper;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder expiredIdle = new LongAdder();
+    private final LongAdder expiredAbsolute = new LongAdder();
+    private final LongAdder evictedCapacity = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+
+    public SessionStore(long idleTtlMillis, long absoluteTtlMillis, int maxSessions) {
+        this.idleTtlMillis = idleTtlMillis;
+        this.absoluteTtlMillis = absoluteTtlMillis;
+        this.maxPerSegment = Math.max(1, (maxSessions + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /** Called, outside any lock, with every session that expires, is evicted or is removed. */
+    public void onEnd(Consumer<Session> listener) {
+        this.endListener = listener;
+    }
+
+    public Session create(String sessionId, String username, Cart cart) {
+        Session session = new Session(sessionId, username, cart, System.currentTimeMillis());
+        insert(session, true);
+        created.increment();
+        return session;
+    }
+
+    /** Returns the live session and marks it used, or null if unknown or expired. */
+    public Session get(String sessionId) {
+        if (sessionId == null) return null;
+
+        long now = System.currentTimeMillis();
+        Segment segment = segmentFor(sessionId);
+        Session ended;
+        segment.lock.lock();
+        try {
+            Session session = segment.sessions.get(sessionId);
+            if (session == null) {
+                return null;
+            }
+            if (!expire(session, now)) {
+                session.touch(now);
+                return session;
+            }
+            segment.sessions.remove(sessionId);
+            ended = session;
+        } finally {
+            segment.lock.unlock();
+        }
+        endListener.accept(ended);
+        return null;
+    }
+
+    /**
+     * The live session, or else the one the restorer rebuilds from storage.
+     * Concurrent calls for the same id share one restore, and a restored
+     * session past either TTL is refused and ended instead of revived.
+     */
+    public Session getOrRestore(String sessionId, Function<String, Session> restorer) {
+        Session session = get(sessionId);
+        if (session != null || sessionId == null) {
+            return session;
+        }
+
+        CompletableFuture<Session> mine = new CompletableFuture<>();
+        CompletableFuture<Session> inFlight = restoring.putIfAbsent(sessionId, mine);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+        try {
+            // Another restore may have finished between get() and claiming this one
+            session = get(sessionId);
+            if (session == null) {
+                session = restore(restorer.apply(sessionId));
+            }
+            mine.complete(session);
+            return session;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            restoring.remove(sessionId, mine);
+        }
+    }
+
+    public void remove(String sessionId) {
+        Segment segment = segmentFor(sessionId);
+        Session ended;
+        segment.lock.lock();
+        try {
+            ended = segment.sessions.remove(sessionId);
+        } finally {
+            segment.lock.unlock();
+        }
+        if (ended != null) {
+            removed.increment();
+            endListener.accept(ended);
+        }
+    }
+
+    /** Removes every expired session; also run periodically by the sweeper. */
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        List<Session> ended = new ArrayList<>();
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                Iterator<Session> it = segment.sessions.values().iterator();
+                while (it.hasNext()) {
+                    Session session = it.next();
+                    if (expire(session, now)) {
+                        it.remove();
+                        ended.add(session);
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        ended.forEach(endListener);
+        return ended.size();
+    }
+
+    public synchronized void startSweeper(long intervalMillis) {
+        if (sweeper != null) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            int swept = sweep();
+            if (swept > 0) {
+                log.info("🧹 Expired sessions removed: " + swept);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.sessions.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("live", size());
+        metrics.put("created", created.sum());
+        metrics.put("expiredIdle", expiredIdle.sum());
+        metrics.put("expiredAbsolute", expiredAbsolute.sum());
+        metrics.put("evictedCapacity", evictedCapacity.sum());
+        metrics.put("removed", removed.sum());
+        return metrics;
+    }
+
+    private Session restore(Session restored) {
+        if (restored == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (expire(restored, now)) {
+            endListener.accept(restored);
+            return null;
+        }
+        restored.touch(now);
+        return insert(restored, false);
+    }
+
+    // Adds the session, unless one is there and replace is false, then evicts least
+    // recently used ones over the segment's cap; returns the session now held
+    private Session insert(Session session, boolean replace) {
+        Segment segment = segmentFor(session.getSessionId());
+        List<Session> evicted = new ArrayList<>(1);
+        Session held = session;
+        segment.lock.lock();
+        try {
+            if (replace) {
+                segment.sessions.put(session.getSessionId(), session);
+            } else {
+                Session existing = segment.sessions.putIfAbsent(session.getSessionId(), session);
+                if (existing != null) held = existing;
+            }
+            // Access order puts the least recently used session first
+            Iterator<Session> eldest = segment.sessions.values().iterator();
+            while (segment.sessions.size() > maxPerSegment && eldest.hasNext()) {
+                evicted.add(eldest.next());
+                eldest.remove();
+                evictedCapacity.increment();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        evicted.forEach(endListener);
+        return held;
+    }
+
+    private boolean expire(Session session, long now) {
+        if (now - session.getCreatedAt() >= absoluteTtlMillis) {
+            expiredAbsolute.increment();
+            return true;
+        }
+        if (now - session.getLastAccessedAt() >= idleTtlMillis) {
+            expiredIdle.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private Segment segmentFor(String sessionId) {
+        int h = sessionId.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(64, 0.75f, true);
+    }
+}
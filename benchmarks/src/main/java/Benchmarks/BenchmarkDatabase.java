@@ -0,0 +1,86 @@
+package Benchmarks;
+
+import Database.DatabaseInitializer;
+import Database.SQLiteConnection;
+import Logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A throwaway SQLite file for one benchmark fork. The database settings
+ * are read once per JVM, so configure() must run before anything touches
+ * SQLiteConnection or the logger.
+ */
+final class BenchmarkDatabase {
+    // Rows inserted by the first migration
+    static final int SEEDED_MENU_ITEMS = 8;
+    static final int SEEDED_CATEGORIES = 6;
+
+    private BenchmarkDatabase() {}
+
+    /** Points the application at a new temp directory and returns it. */
+    static Path configure() throws IOException {
+        Path dir = Files.createTempDirectory("food-delivery-bench");
+        System.setProperty("db.path", dir.resolve("food_delivery.db").toString());
+        System.setProperty("log.dir", dir.resolve("logs").toString());
+        System.setProperty("log.console", "false");
+        return dir;
+    }
+
+    /** Configures and migrates a fresh database, seeded like a new install. */
+    static Path create() throws IOException {
+        Path dir = configure();
+        DatabaseInitializer.initializeDatabase();
+        return dir;
+    }
+
+    /** Adds menu items beyond the seeded ones, spread over the seeded categories. */
+    static void addMenuItems(int count) throws SQLException {
+        String sql = "INSERT INTO food_items (name, description, category_id, price, vegetarian) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = SQLiteConnection.getInstance().getWriteConnection("BenchmarkDatabase.addMenuItems");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < count; i++) {
+                    pstmt.setString(1, "Bench Item " + i);
+                    pstmt.setString(2, "Generated item number " + i + " for benchmarking");
+                    pstmt.setInt(3, i % SEEDED_CATEGORIES + 1);
+                    pstmt.setDouble(4, 5 + (i % 20) * 0.5);
+                    pstmt.setBoolean(5, i % 3 == 0);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Closes the pool and log files and removes the directory from create(). */
+    static void close(Path dir) throws IOException {
+        DatabaseInitializer.stopBackfills();
+        SQLiteConnection.getInstance().closeConnection();
+        Log.shutdown();
+        delete(dir);
+    }
+
+    /** Removes the directory from configure() once whatever used it has shut down. */
+    static void delete(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package Benchmarks;
+
+import Cart.Cart;
+import Cart.CartItem;
+import Catalog.IntObjectMap;
+import Catalog.ItemConfigurations;
+import Database.ModifierDAO.ItemGroup;
+import FoodItem.ConfiguredItem;
+import FoodItem.FoodItemEntity;
+import FoodItem.ModifierGroup;
+import FoodItem.ModifierOption;
+import Pricing.Money;
+import Pricing.PriceBreakdown;
+import Pricing.PricingPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart.getTotal, pricing a cart, and building the cart they read, for
+ * carts whose items carry modifier options. Every line is a different
+ * item so no lines merge.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CartTotalBenchmark {
+    @Param({ "1", "10", "50" })
+    private int lines;
+
+    // Modifier options chosen on each item, e.g. 3 is item + cheese + mushrooms + olives
+    @Param({ "0", "1", "3" })
+    private int toppings;
+
+    // The server's pipeline: a delivery fee and 10% tax
+    private final PricingPipeline pricing = new PricingPipeline(
+            List.of(),
+            List.of(new PricingPipeline.FlatFee("Delivery fee", Money.ofMinor(299))),
+            List.of(new PricingPipeline.PercentageTax("Tax", 1000)));
+    private ItemConfigurations configurations;
+    private int[] optionIds;
+    private Cart cart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ModifierOption> options = List.of(
+                new ModifierOption(1, 1, "Extra Cheese", Money.ofMinor(150), true),
+                new ModifierOption(2, 1, "Mushrooms", Money.ofMinor(100), true),
+                new ModifierOption(3, 1, "Olives", Money.ofMinor(100), true));
+        ModifierGroup extras = new ModifierGroup(1, "Extras", 0, options.size(), options);
+
+        IntObjectMap<FoodItemEntity> items = new IntObjectMap<>(lines);
+        List<ItemGroup> links = new ArrayList<>(lines);
+        for (int i = 1; i <= lines; i++) {
+            items.put(i, new FoodItemEntity(i, "Item " + i, "", 1, "Pizza", Money.ofMinor(999 + i), true, false));
+            links.add(new ItemGroup(i, 1));
+        }
+        configurations = new ItemConfigurations(items, List.of(extras), links);
+        optionIds = new int[toppings];
+        for (int t = 0; t < toppings; t++) {
+            optionIds[t] = t + 1;
+        }
+
+        cart = new Cart();
+        cart.setStrategy(pricing);
+        for (int i = 0; i < lines; i++) {
+            ConfiguredItem food = configurations.configure(i + 1, optionIds);
+            cart.addItem(food, 1 + i % 3, i + 1, "pizza", food.getModifierKey());
+        }
+    }
+
+    /** An already seen configuration, as every add after the first of it pays. */
+    @Benchmark
+    public ConfiguredItem configure() {
+        return configurations.configure(1, optionIds);
+    }
+
+    /** Served from the price the cart keeps between changes. */
+    @Benchmark
+    public Money getTotal() {
+        return cart.getTotal();
+    }
+
+    /** What the first read after a change pays. */
+    @Benchmark
+    public PriceBreakdown price() {
+        PriceBreakdown.Builder price = PriceBreakdown.builder(cart.getSubtotal());
+        pricing.apply(cart, price);
+        return price.build();
+    }
+
+    /** Re-adds every line to an empty cart, then reads the total. */
+    @Benchmark
+    public Money fillAndTotal() {
+        Cart filled = new Cart();
+        filled.setStrategy(pricing);
+        for (CartItem item : cart.getItems()) {
+            filled.addItem(item.getFood(), item.getQuantity(), item.getItemId(), item.getFoodType(), item.getModifiers());
+        }
+        return filled.getTotal();
+    }
+}
@@ -0,0 +1,56 @@
+package Benchmarks;
+
+import Database.FoodItemDAO;
+import FoodItem.FoodItemEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The uncached menu query: pool checkout, join, and entity mapping. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FoodItemDAOBenchmark {
+    @Param({ "8", "200", "2000" })
+    private int menuSize;
+
+    private Path dir;
+    private FoodItemDAO foodDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkDatabase.create();
+        BenchmarkDatabase.addMenuItems(menuSize - BenchmarkDatabase.SEEDED_MENU_ITEMS);
+        foodDAO = new FoodItemDAO();
+        if (foodDAO.getAllAvailableItems().size() != menuSize) {
+            throw new IllegalStateException("Menu was not seeded with " + menuSize + " items");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.close(dir);
+    }
+
+    @Benchmark
+    public List<FoodItemEntity> getAllAvailableItems() {
+        return foodDAO.getAllAvailableItems();
+    }
+}
@@ -0,0 +1,123 @@
+package Benchmarks;
+
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole requests against the real server: filters, routing, handlers and
+ * the database, over loopback with a keep-alive client. The server is the
+ * unchanged Main, started in the benchmark fork on a free port and a temp
+ * database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpServerBenchmark {
+    private Path dir;
+    private Class<?> main;
+    private HttpClient client;
+    private HttpRequest health;
+    private HttpRequest menu;
+    private HttpRequest menuItem;
+    private HttpRequest login;
+    private HttpRequest addToCart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkDatabase.configure();
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        System.setProperty("server.port", Integer.toString(port));
+        System.setProperty("static.watch", "false");
+
+        // Main lives in the unnamed package, so it can only be reached reflectively
+        main = Class.forName("Main");
+        main.getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+
+        String base = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        health = HttpRequest.newBuilder(URI.create(base + "/health/live")).build();
+        menu = HttpRequest.newBuilder(URI.create(base + "/api/menu")).build();
+        menuItem = HttpRequest.newBuilder(URI.create(base + "/api/menu/1")).build();
+        login = HttpRequest.newBuilder(URI.create(base + "/api/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"1234\"}"))
+                .build();
+
+        // Every seeded item once, the pizzas and burgers with extras; repeats merge into the same lines
+        String sessionId = JsonParser.parseString(new String(send(login))).getAsJsonObject().get("sessionId").getAsString();
+        String batch = "{\"sessionId\":\"" + sessionId + "\",\"items\":["
+                + "{\"itemId\":1,\"modifiers\":[1,3]},{\"itemId\":2,\"modifiers\":[2]},"
+                + "{\"itemId\":3,\"modifiers\":[5,7]},{\"itemId\":4},{\"itemId\":5},"
+                + "{\"itemId\":6},{\"itemId\":7,\"quantity\":2},{\"itemId\":8,\"quantity\":3}]}";
+        addToCart = HttpRequest.newBuilder(URI.create(base + "/api/cart/add"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(batch))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        main.getMethod("stop").invoke(null);
+        BenchmarkDatabase.delete(dir);
+    }
+
+    @Benchmark
+    public byte[] healthLive() throws Exception {
+        return send(health);
+    }
+
+    @Benchmark
+    public byte[] getMenu() throws Exception {
+        return send(menu);
+    }
+
+    @Benchmark
+    public byte[] getMenuItem() throws Exception {
+        return send(menuItem);
+    }
+
+    @Benchmark
+    public byte[] login() throws Exception {
+        return send(login);
+    }
+
+    /** Eight lines in one request, resolved from the catalog without touching the database. */
+    @Benchmark
+    public byte[] addToCartBatch() throws Exception {
+        return send(addToCart);
+    }
+
+    private byte[] send(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        // A failing endpoint is fast; don't let that pass for a result
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,75 @@
+package Benchmarks;
+
+import Catalog.MenuJson;
+import FoodItem.FoodItemEntity;
+import Pricing.Money;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the /api/menu payload with Gson: the maps built per item and
+ * the toJson call, together and apart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MenuSerializationBenchmark {
+    private static final String[] CATEGORIES = { "Pizza", "Burger", "Pasta", "Sushi", "Salad", "Drinks" };
+
+    @Param({ "8", "200", "2000" })
+    private int menuSize;
+
+    private final Gson gson = new Gson();
+    private List<FoodItemEntity> items;
+    private List<Map<String, Object>> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new ArrayList<>(menuSize);
+        for (int i = 0; i < menuSize; i++) {
+            items.add(new FoodItemEntity(i + 1, "Menu Item " + i,
+                    "Description of menu item " + i + " with a few typical words in it",
+                    i % CATEGORIES.length + 1, CATEGORIES[i % CATEGORIES.length],
+                    Money.ofMinor(500 + (i % 20) * 50), true, i % 3 == 0));
+        }
+        payload = toPayload(items);
+    }
+
+    /** What a snapshot rebuild pays: item maps plus serialization. */
+    @Benchmark
+    public String renderMenu() {
+        return gson.toJson(toPayload(items));
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(payload);
+    }
+
+    private static List<Map<String, Object>> toPayload(List<FoodItemEntity> items) {
+        List<Map<String, Object>> responseItems = new ArrayList<>(items.size());
+        for (FoodItemEntity item : items) {
+            responseItems.add(MenuJson.toMap(item));
+        }
+        return responseItems;
+    }
+}
@@ -0,0 +1,76 @@
+package Benchmarks;
+
+import Cart.Cart;
+import Cart.NormalTotal;
+import Database.OrderDAO;
+import Database.FoodItemDAO;
+import FoodItem.ConfiguredItem;
+import FoodItem.FoodItemEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One order per transaction through OrderDAO.createOrder, so the numbers
+ * include the commit and whatever the storage profile's sync mode costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderDAOBenchmark {
+    @Param({ "1", "5", "20" })
+    private int cartSize;
+
+    private Path dir;
+    private OrderDAO orderDAO;
+    private Cart cart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkDatabase.create();
+        // One distinct menu item per line, since the cart merges repeats
+        BenchmarkDatabase.addMenuItems(Math.max(0, cartSize - BenchmarkDatabase.SEEDED_MENU_ITEMS));
+        orderDAO = new OrderDAO();
+
+        List<FoodItemEntity> menu = new FoodItemDAO().loadAllItems();
+        menu.sort(Comparator.comparingInt(FoodItemEntity::getItemId));
+        cart = new Cart();
+        cart.setStrategy(new NormalTotal());
+        for (int i = 0; i < cartSize; i++) {
+            FoodItemEntity item = menu.get(i);
+            cart.addItem(new ConfiguredItem(item), 1 + i % 3, item.getItemId(), item.getCategoryName());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.close(dir);
+    }
+
+    @Benchmark
+    public int createOrder() {
+        int orderId = orderDAO.createOrder(cart, "admin", "1 Benchmark Street", "0123456789");
+        if (orderId <= 0) {
+            throw new IllegalStateException("Order was not created");
+        }
+        return orderId;
+    }
+}
@@ -0,0 +1,116 @@
+package Benchmarks;
+
+import Cart.Cart;
+import FoodItem.ConfiguredItem;
+import FoodItem.FoodItemEntity;
+import Pricing.Money;
+import Pricing.PriceBreakdown;
+import Pricing.Promotion;
+import Pricing.PromotionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discounting a cart against a campaign's worth of live promotions: item,
+ * category, BOGO and basket rules plus coupons, spread over a 1,000 item
+ * menu. Evaluation should track the cart's lines, not the promotion count;
+ * compile is what a catalog reload or a promotion starting or ending pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PromotionBenchmark {
+    private static final int MENU_ITEMS = 1000;
+    private static final int CATEGORIES = 20;
+
+    @Param({ "0", "100", "5000" })
+    private int promotions;
+
+    @Param({ "5", "50" })
+    private int lines;
+
+    private List<FoodItemEntity> menu;
+    private List<Promotion> rules;
+    private PromotionIndex index;
+    private Cart cart;
+    private String couponCode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        menu = new ArrayList<>(MENU_ITEMS);
+        for (int i = 1; i <= MENU_ITEMS; i++) {
+            menu.add(new FoodItemEntity(i, "Item " + i, "", i % CATEGORIES + 1, "Category " + (i % CATEGORIES + 1),
+                    Money.ofMinor(500 + random.nextInt(2000)), true, false));
+        }
+
+        rules = new ArrayList<>(promotions);
+        for (int i = 1; i <= promotions; i++) {
+            int item = 1 + random.nextInt(MENU_ITEMS);
+            int category = 1 + random.nextInt(CATEGORIES);
+            // Every tenth promotion needs a coupon
+            String coupon = i % 10 == 0 ? "CODE" + i : null;
+            long minSubtotal = random.nextInt(4) * 1000L;
+            switch (i % 4) {
+                case 0:
+                    rules.add(new Promotion(i, "Item " + i, Promotion.Kind.ITEM_PERCENT, item, 0,
+                            500 + random.nextInt(2000), 0, 0, 0, 0, coupon, 0, 0));
+                    break;
+                case 1:
+                    rules.add(new Promotion(i, "Category " + i, Promotion.Kind.CATEGORY_PERCENT, 0, category,
+                            500 + random.nextInt(1000), 0, 0, 0, 0, coupon, 0, 0));
+                    break;
+                case 2:
+                    rules.add(new Promotion(i, "BOGO " + i, Promotion.Kind.BOGO, item, 0,
+                            0, 0, 1, 1, 0, coupon, 0, 0));
+                    break;
+                default:
+                    rules.add(new Promotion(i, "Basket " + i, Promotion.Kind.BASKET, 0, 0,
+                            random.nextInt(1500), random.nextInt(500), 0, 0, minSubtotal, coupon, 0, 0));
+                    break;
+            }
+        }
+        index = PromotionIndex.compile(rules, menu, System.currentTimeMillis());
+        couponCode = promotions >= 10 ? "CODE10" : null;
+
+        cart = new Cart();
+        for (int i = 0; i < lines; i++) {
+            int itemId = 1 + random.nextInt(MENU_ITEMS);
+            FoodItemEntity item = menu.get(itemId - 1);
+            cart.addItem(new ConfiguredItem(item), 1 + random.nextInt(3), itemId, item.getCategoryName());
+        }
+        cart.setCouponCode(couponCode);
+    }
+
+    /** Discounts for one cart, as the first /api/cart read after a change pays them. */
+    @Benchmark
+    public PriceBreakdown evaluate() {
+        PriceBreakdown.Builder price = PriceBreakdown.builder(cart.getSubtotal());
+        index.apply(cart.getItems(), couponCode, price);
+        return price.build();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PromotionIndex compile() {
+        return PromotionIndex.compile(rules, menu, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,9 @@
+#!/bin/sh
+# Builds target/food-delivery.jar and a class-data sharing archive for it.
+# ./build.sh -Paot builds a JDK 25+ AOT cache instead; ./build.sh -P!cds skips the training run.
+cd "$(dirname "$0")" || exit 1
+
+case " $* " in
+    *" -P"*) exec mvn -B package "$@" ;;
+    *) exec mvn -B package -Pcds "$@" ;;
+esac
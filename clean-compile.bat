@@ -34,7 +34,6 @@ javac -cp ".;lib\*" -encoding UTF-8 Login/*.java
 javac -cp ".;lib\*" -encoding UTF-8 Order/*.java
 javac -cp ".;lib\*" -encoding UTF-8 FoodItem/*.java
 javac -cp ".;lib\*" -encoding UTF-8 Cart/*.java
-javac -cp ".;lib\*" -encoding UTF-8 Menu/*.java
 javac -cp ".;lib\*" -encoding UTF-8 PlaceOrder/*.java
 javac -cp ".;lib\*" -encoding UTF-8 User/*.java
 
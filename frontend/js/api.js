@@ -98,8 +98,10 @@ class ApiService {
         return await this.request('/order', 'POST', orderData);
     }
 
-    async getOrders(username) {
-        return await this.request(`/order?username=${username}`, 'GET');
+    async getOrders(username, cursor = null) {
+        let endpoint = `/orders?username=${encodeURIComponent(username)}`;
+        if (cursor) endpoint += `&cursor=${encodeURIComponent(cursor)}`;
+        return await this.request(endpoint, 'GET');
     }
 
     // Test endpoint
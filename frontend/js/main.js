@@ -215,7 +215,7 @@ function displayMenu(items) {
                 <div class="menu-card-footer">
                     <span class="category">${item.category}</span>
                     <button class="btn-primary add-to-cart" 
-                            onclick="addToCart(${item.id}, '${item.factoryType}', '${item.name.replace("'", "\\'")}')">
+                            onclick="addToCart(${item.id}, '${item.name.replace("'", "\\'")}')">
                         <i class="fas fa-plus"></i> Add to Cart
                     </button>
                 </div>
@@ -225,7 +225,7 @@ function displayMenu(items) {
 }
 
 // Add item to cart
-async function addToCart(itemId, foodType, itemName) {
+async function addToCart(itemId, itemName) {
     if (!sessionManager.isLoggedIn()) {
         showNotification('Please login first to add items to cart', 'warning');
         setTimeout(() => {
@@ -239,7 +239,6 @@ async function addToCart(itemId, foodType, itemName) {
     try {
         const result = await api.addToCart(sessionId, {
             itemId: itemId,
-            foodType: foodType,
             quantity: 1
         });
         
@@ -494,18 +493,22 @@ async function loadUserProfile() {
     }
 }
 
-// Load order history
-async function loadOrderHistory() {
+// Load order history, one page at a time
+let orderHistoryCursor = null;
+
+async function loadOrderHistory(append = false) {
     const user = sessionManager.getCurrentUser();
     if (!user) return;
     
     try {
-        const orders = await api.getOrders(user.username);
+        const page = await api.getOrders(user.username, append ? orderHistoryCursor : null);
+        const orders = (page && page.orders) || [];
+        orderHistoryCursor = page ? page.nextCursor : null;
         
         const container = document.getElementById('order-history');
         if (!container) return;
         
-        if (!orders || orders.length === 0) {
+        if (!append && orders.length === 0) {
             container.innerHTML = `
                 <div class="empty-orders">
                     <i class="fas fa-shopping-bag fa-3x"></i>
@@ -517,7 +520,7 @@ async function loadOrderHistory() {
             return;
         }
         
-        container.innerHTML = orders.map(order => `
+        const cards = orders.map(order => `
             <div class="order-card">
                 <div class="order-header">
                     <h4>Order #${order.orderNumber}</h4>
@@ -526,13 +529,31 @@ async function loadOrderHistory() {
                 <div class="order-details">
                     <p><strong>Date:</strong> ${new Date(order.createdAt).toLocaleDateString()}</p>
                     <p><strong>Total:</strong> $${order.totalAmount.toFixed(2)}</p>
-                    <p><strong>Address:</strong> ${order.deliveryAddress.substring(0, 50)}...</p>
+                    <p><strong>Address:</strong> ${(order.deliveryAddress || '').substring(0, 50)}...</p>
+                    <p><strong>Items:</strong> ${order.items.map(item => `${item.quantity} x ${item.name || 'Item'}`).join(', ')}</p>
                 </div>
                 <button class="btn-secondary" onclick="viewOrderDetails(${order.orderId})">
                     View Details
                 </button>
             </div>
         `).join('');
+        
+        const moreButton = document.getElementById('load-more-orders');
+        if (moreButton) moreButton.remove();
+        
+        if (append) {
+            container.insertAdjacentHTML('beforeend', cards);
+        } else {
+            container.innerHTML = cards;
+        }
+        
+        if (page.hasMore) {
+            container.insertAdjacentHTML('beforeend', `
+                <button id="load-more-orders" class="btn-secondary" onclick="loadOrderHistory(true)">
+                    Load More
+                </button>
+            `);
+        }
     } catch (error) {
         console.error('Failed to load orders:', error);
     }
@@ -0,0 +1,22 @@
+@echo off
+title Food Delivery System - Load Test
+
+echo ======================================
+echo   FOOD DELIVERY SYSTEM LOAD TEST
+echo ======================================
+echo.
+echo Start the server first (run.bat), then adjust the rates below.
+echo Each rate in load.rate is one step of load.durationSeconds.
+echo.
+
+javac -cp ".;lib\*" -encoding UTF-8 LoadTest/*.java
+
+if %errorlevel% neq 0 (
+    echo ❌ COMPILATION FAILED!
+    pause
+    exit /b 1
+)
+
+java -cp ".;lib\*" -Dload.target=http://localhost:8080/ -Dload.rate=10,20,40,80 -Dload.durationSeconds=60 -Dload.sloP99Ms=500 -Dload.report=load-report.json LoadTest.LoadGenerator
+
+pause
@@ -30,7 +30,7 @@ if not exist "database\" mkdir database
 if not exist "frontend\" mkdir frontend
 
 echo 🔧 Compiling...
-javac -cp ".;lib\*" -encoding UTF-8 Main.java Database/*.java Login/*.java Order/*.java FoodItem/*.java Cart/*.java Menu/*.java PlaceOrder/*.java User/*.java
+javac -cp ".;lib\*" -encoding UTF-8 Main.java Database/*.java Login/*.java Order/*.java FoodItem/*.java Cart/*.java PlaceOrder/*.java User/*.java Server/*.java Catalog/*.java Metrics/*.java Logging/*.java LoadTest/*.java Pricing/*.java
 
 if %errorlevel% neq 0 (
     echo.
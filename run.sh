@@ -0,0 +1,22 @@
+#!/bin/sh
+# Runs the jar built by build.sh, with the class-data sharing archive or
+# AOT cache from the training run when one exists. Extra JVM options can
+# go in JAVA_OPTS, e.g. JAVA_OPTS="-Dserver.port=9090 -Xmx512m" ./run.sh
+cd "$(dirname "$0")" || exit 1
+
+JAR=target/food-delivery.jar
+if [ ! -f "$JAR" ]; then
+    echo "❌ $JAR not found, run ./build.sh first" >&2
+    exit 1
+fi
+
+# An archive made by another JDK or jar is ignored by the JVM, with a warning
+SHARING=""
+if [ -f target/food-delivery.aot ]; then
+    SHARING="-XX:AOTCache=target/food-delivery.aot"
+elif [ -f target/food-delivery.jsa ]; then
+    SHARING="-XX:SharedArchiveFile=target/food-delivery.jsa"
+fi
+
+mkdir -p database
+exec java $SHARING $JAVA_OPTS -jar "$JAR" "$@"